@@ -0,0 +1,100 @@
+package damas.bench;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import damas.core.*;
+
+/**
+ * Lances e registro da partida (Jogo) de BancadaNucleo, medidos pelo JMH. Cada
+ * operação é um lance da partida fixa de BancadaNucleo.criarPartida; uma partida
+ * nova começa a cada BancadaNucleo.LANCES_PARTIDA lances e o custo entra na média.
+ * Uso: java -jar benchmarks/target/benchmarks.jar BancadaJogo -prof gc
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class BancadaJogo {
+    private int[] partida;
+    private Jogo jogo;
+    private Jogo concorrente;
+    private Jogo comDiario;
+    private int lance;
+    private int lanceConcorrente;
+    private int lanceDiario;
+    private File arquivoDiario;
+    private DiarioPartida diario;
+    private Jogo completo;
+    private File arquivoLog;
+
+    @Setup
+    public void preparar() throws IOException {
+        partida = BancadaNucleo.criarPartida();
+        jogo = BancadaNucleo.novoJogo();
+        concorrente = novoConcorrente();
+        arquivoDiario = File.createTempFile("damas_bench", ".bin");
+        comDiario = BancadaNucleo.novoJogo();
+        diario = new DiarioPartida(arquivoDiario.getPath(), comDiario.getJogador1(), comDiario.getJogador2(), 64, false);
+        comDiario.setDiario(diario);
+        completo = BancadaNucleo.novoJogo();
+        for (int movimento : partida) {
+            completo.executarMovimento(movimento);
+        }
+        arquivoLog = File.createTempFile("damas_bench", ".txt");
+    }
+
+    @TearDown
+    public void encerrar() throws IOException {
+        diario.close();
+        arquivoDiario.delete();
+        arquivoLog.delete();
+    }
+
+    private static Jogo novoConcorrente() {
+        Jogo novo = BancadaNucleo.novoJogo();
+        novo.setConcorrente(true);
+        return novo;
+    }
+
+    /** Lance com o histórico em registros primitivos */
+    @Benchmark
+    public boolean executarMovimento() {
+        if (lance == partida.length) {
+            jogo = BancadaNucleo.novoJogo();
+            lance = 0;
+        }
+        return jogo.executarMovimento(partida[lance++]);
+    }
+
+    /** Cada lance publica uma FotoJogo */
+    @Benchmark
+    public boolean executarMovimentoConcorrente() {
+        if (lanceConcorrente == partida.length) {
+            concorrente = novoConcorrente();
+            lanceConcorrente = 0;
+        }
+        return concorrente.executarMovimento(partida[lanceConcorrente++]);
+    }
+
+    /** Cada lance também vai para o diário, descarregado a cada 64 registros */
+    @Benchmark
+    public boolean executarMovimentoDiario() {
+        if (lanceDiario == partida.length) {
+            comDiario = BancadaNucleo.novoJogo();
+            comDiario.setDiario(diario);
+            lanceDiario = 0;
+        }
+        return comDiario.executarMovimento(partida[lanceDiario++]);
+    }
+
+    /** Log legível de uma partida de BancadaNucleo.LANCES_PARTIDA lances */
+    @Benchmark
+    public long salvarLogPartida() throws IOException {
+        completo.salvarLogPartida(arquivoLog.getPath());
+        return arquivoLog.length();
+    }
+}
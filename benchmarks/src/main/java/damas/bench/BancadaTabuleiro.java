@@ -0,0 +1,94 @@
+package damas.bench;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import damas.core.*;
+import damas.exceptions.MovimentoInvalidoException;
+
+/**
+ * Caminhos do Tabuleiro e das peças de BancadaNucleo, medidos pelo JMH.
+ * Uso: java -jar benchmarks/target/benchmarks.jar BancadaTabuleiro -prof gc
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class BancadaTabuleiro {
+    private static final Posicao CANTO_INFERIOR = Posicao.of(7, 0);
+    private static final Posicao CANTO_SUPERIOR = Posicao.of(0, 7);
+    private static final String DIAGONAL = "..../..../..../..../..../..../..../B..P b";
+    private static final String DIAGONAL_BLOQUEADA = "..../..../..p./..../.p../..../..../B..P b";
+
+    private Tabuleiro percurso;
+    private boolean ida;
+    private Tabuleiro inicial;
+    private Posicao[][] sondagens;
+    private int indice;
+    private Tabuleiro diagonal;
+    private Peca dama;
+    private Tabuleiro diagonalBloqueada;
+    private Peca damaBloqueada;
+    private ListaMovimentos legais;
+
+    @Setup
+    public void preparar() throws Exception {
+        percurso = Tabuleiro.deTexto(DIAGONAL);
+        ida = true;   // a dama começa no canto inferior
+        inicial = new Tabuleiro();
+        sondagens = BancadaNucleo.criarSondagens();
+        diagonal = Tabuleiro.deTexto(DIAGONAL);
+        dama = diagonal.getPeca(CANTO_INFERIOR);
+        diagonalBloqueada = Tabuleiro.deTexto(DIAGONAL_BLOQUEADA);
+        damaBloqueada = diagonalBloqueada.getPeca(CANTO_INFERIOR);
+        legais = new ListaMovimentos();
+    }
+
+    /** Dama percorrendo a diagonal longa, ida e volta */
+    @Benchmark
+    public int moverPeca() throws Exception {
+        boolean i = ida;
+        ida = !i;
+        return percurso.moverPeca(i ? CANTO_INFERIOR : CANTO_SUPERIOR, i ? CANTO_SUPERIOR : CANTO_INFERIOR).size();
+    }
+
+    /** Pares origem/destino sorteados, válidos e inválidos, na posição inicial */
+    @Benchmark
+    public boolean podeMover() {
+        Posicao[] par = sondagens[indice++ & (sondagens.length - 1)];
+        return inicial.podeMover(par[0], par[1]);
+    }
+
+    @Benchmark
+    public int contarPecas() {
+        return inicial.contarPecas(CorPeca.BRANCA) + inicial.contarPecas(CorPeca.PRETA);
+    }
+
+    @Benchmark
+    public boolean podeMoverParaDiagonalLonga() throws Exception {
+        return dama.podeMoverPara(CANTO_SUPERIOR, diagonal);
+    }
+
+    /** Caminho bloqueado: o custo inclui a exceção */
+    @Benchmark
+    public int podeMoverParaBloqueado() {
+        try {
+            return damaBloqueada.podeMoverPara(CANTO_SUPERIOR, diagonalBloqueada) ? 1 : 0;
+        } catch (MovimentoInvalidoException e) {
+            return 2;
+        }
+    }
+
+    @Benchmark
+    public ResultadoValidacao validarMovimentoBloqueado() {
+        return damaBloqueada.validarMovimento(0, 7, diagonalBloqueada);
+    }
+
+    @Benchmark
+    public int gerarMovimentosLegais() {
+        legais.limpar();
+        inicial.gerarMovimentosLegais(inicial.getVez(), legais);
+        return legais.tamanho();
+    }
+}
@@ -0,0 +1,349 @@
+package damas.abertura;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import damas.acervo.AcervoPartidas;
+import damas.core.*;
+import damas.pdn.LeitorPdn;
+import damas.pdn.PartidaPdn;
+import damas.simulacao.Politicas;
+import damas.simulacao.SimuladorPartidas;
+
+/**
+ * Constrói o livro de aberturas (ver LivroAberturas) a partir de partidas encerradas:
+ * para cada um dos primeiros lances de cada partida, soma vitória, empate ou derrota
+ * de quem o jogou na entrada (hash da posição, lance).
+ *
+ * As entradas ficam em uma tabela de endereçamento aberto com arrays primitivos,
+ * cujo tamanho depende das posições distintas e não do número de partidas. Os
+ * métodos adicionar são sincronizados, para receber partidas de várias threads.
+ *
+ * Uso: java -cp bin damas.abertura.ConstrutorLivro livro [--profundidade N]
+ *      [--estender] [--acervo base] [--pdn arquivo] [--autojogo N política] [--threads T]
+ */
+public class ConstrutorLivro {
+    public static final int PROFUNDIDADE_PADRAO = 16;
+
+    private static final int CAPACIDADE_INICIAL = 1 << 12;
+    private static final long MISTURA = 0x9E3779B97F4A7C15L;
+
+    private final int profundidade;
+    private final Tabuleiro tabuleiro = new Tabuleiro();
+    private final Tabuleiro inicial = new Tabuleiro();
+
+    private long[] hashes = new long[CAPACIDADE_INICIAL];
+    private int[] lances = new int[CAPACIDADE_INICIAL];
+    private int[][] contagens = new int[3][CAPACIDADE_INICIAL];   // vitórias, empates, derrotas
+    private int entradas;
+    private long partidas;
+
+    /**
+     * @param profundidade lances de cada partida (das duas cores) considerados
+     */
+    public ConstrutorLivro(int profundidade) {
+        if (profundidade < 1 || profundidade > 127) {
+            throw new IllegalArgumentException("Profundidade deve estar entre 1 e 127");
+        }
+        this.profundidade = profundidade;
+        Arrays.fill(lances, Movimento.NENHUM);
+    }
+
+    /**
+     * Soma uma partida jogada a partir da posição inicial. Os lances devem ser legais
+     * (como os de Jogo, do acervo ou do LeitorPdn); vencedora null é empate.
+     */
+    public synchronized void adicionar(ListaMovimentos lancesPartida, CorPeca vencedora) {
+        tabuleiro.copiarDe(inicial);
+        int n = Math.min(lancesPartida.tamanho(), profundidade);
+        for (int i = 0; i < n; i++) {
+            int movimento = lancesPartida.get(i);
+            int resultado = vencedora == null ? 1 : vencedora == tabuleiro.getVez() ? 0 : 2;
+            int e = entrada(tabuleiro.getHash(), movimento);   // pode trocar os arrays ao crescer
+            contagens[resultado][e]++;
+            tabuleiro.aplicarMovimento(movimento);
+        }
+        partidas++;
+    }
+
+    /**
+     * Soma um jogo encerrado; jogos em andamento são ignorados
+     */
+    public boolean adicionar(Jogo jogo) {
+        if (jogo.isJogoAtivo()) {
+            return false;
+        }
+        int n = Math.min(jogo.getNumeroLances(), profundidade);
+        ListaMovimentos lancesJogo = new ListaMovimentos(Math.max(1, n));
+        for (int i = 0; i < n; i++) {
+            lancesJogo.adicionar(jogo.getLance(i));
+        }
+        adicionar(lancesJogo, jogo.getVencedor() == null ? null : jogo.getVencedor().getCor());
+        return true;
+    }
+
+    /**
+     * Soma todas as partidas do acervo; retorna quantas foram lidas
+     */
+    public int adicionar(AcervoPartidas acervo) {
+        ListaMovimentos lancesPartida = new ListaMovimentos(profundidade);
+        for (int p = 0; p < acervo.getNumeroPartidas(); p++) {
+            lancesPartida.limpar();
+            int n = Math.min(acervo.numeroLances(p), profundidade);
+            for (int i = 0; i < n; i++) {
+                lancesPartida.adicionar(acervo.lance(p, i));
+            }
+            int resultado = acervo.resultado(p);
+            adicionar(lancesPartida, resultado == AcervoPartidas.VITORIA_BRANCAS ? CorPeca.BRANCA
+                                   : resultado == AcervoPartidas.VITORIA_PRETAS ? CorPeca.PRETA : null);
+        }
+        return acervo.getNumeroPartidas();
+    }
+
+    /**
+     * Soma as partidas válidas e terminadas de uma coleção PDN, uma por vez;
+     * partidas com posição inicial própria (FEN) ou sem resultado são ignoradas
+     */
+    public int adicionar(LeitorPdn leitor) throws IOException {
+        int lidas = 0;
+        for (PartidaPdn partida = leitor.proxima(); partida != null; partida = leitor.proxima()) {
+            if (partida.getEtiqueta("FEN") == null && !partida.getResultado().equals("*")) {
+                adicionar(partida.getLances(), partida.getVencedor());
+                lidas++;
+            }
+        }
+        return lidas;
+    }
+
+    /**
+     * Soma as entradas de um livro já gravado com a mesma profundidade, para estendê-lo
+     * com novas partidas. O livro é lido como fluxo, sem mapear, para que gravar()
+     * possa substituí-lo depois (o Windows não substitui um arquivo mapeado).
+     */
+    public synchronized void estender(String arquivo) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                Files.newInputStream(Paths.get(arquivo)), 1 << 16))) {
+            int profundidadeLivro = lerCabecalho(in, arquivo);
+            if (profundidadeLivro != profundidade) {
+                throw new IllegalArgumentException("O livro " + arquivo + " foi construído com profundidade "
+                                                   + profundidadeLivro + ", não " + profundidade);
+            }
+            int n = in.readInt();
+            for (int k = 0; k < n; k++) {
+                long hash = in.readLong();
+                int e = entrada(hash, in.readInt());   // pode trocar os arrays ao crescer
+                contagens[0][e] += in.readInt();
+                contagens[1][e] += in.readInt();
+                contagens[2][e] += in.readInt();
+            }
+        }
+    }
+
+    /**
+     * Profundidade com que o livro gravado foi construído
+     */
+    public static int profundidade(String arquivo) throws IOException {
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(Paths.get(arquivo)))) {
+            return lerCabecalho(in, arquivo);
+        }
+    }
+
+    // Confere assinatura e versão e retorna a profundidade; o número de entradas fica por ler
+    private static int lerCabecalho(DataInputStream in, String arquivo) throws IOException {
+        if (in.readInt() != LivroAberturas.ASSINATURA) {
+            throw new IOException("Arquivo não é um livro de aberturas: " + arquivo);
+        }
+        int versao = in.readByte();
+        if (versao > LivroAberturas.VERSAO) {
+            throw new IOException("Versão do livro de aberturas não suportada: " + versao);
+        }
+        return in.readByte();
+    }
+
+    // Posição da entrada (hash, lance) na tabela, criando-a se preciso
+    private int entrada(long hash, int movimento) {
+        if (entradas * 3 >= hashes.length * 2) {
+            crescer();
+        }
+        int mascara = hashes.length - 1;
+        int i = (int) (((hash ^ movimento * MISTURA) * MISTURA) >>> 32) & mascara;
+        while (lances[i] != Movimento.NENHUM) {
+            if (hashes[i] == hash && lances[i] == movimento) {
+                return i;
+            }
+            i = (i + 1) & mascara;
+        }
+        hashes[i] = hash;
+        lances[i] = movimento;
+        entradas++;
+        return i;
+    }
+
+    private void crescer() {
+        long[] hashesAntigos = hashes;
+        int[] lancesAntigos = lances;
+        int[][] contagensAntigas = contagens;
+        int capacidade = hashes.length * 2;
+        hashes = new long[capacidade];
+        lances = new int[capacidade];
+        contagens = new int[3][capacidade];
+        Arrays.fill(lances, Movimento.NENHUM);
+        entradas = 0;
+        for (int i = 0; i < lancesAntigos.length; i++) {
+            if (lancesAntigos[i] != Movimento.NENHUM) {
+                int e = entrada(hashesAntigos[i], lancesAntigos[i]);
+                for (int r = 0; r < 3; r++) {
+                    contagens[r][e] = contagensAntigas[r][i];
+                }
+            }
+        }
+    }
+
+    /**
+     * Grava o livro ordenado por (hash, lance). O arquivo é escrito à parte
+     * e substitui o anterior atomicamente.
+     */
+    public synchronized void gravar(String arquivo) throws IOException {
+        int[] ordem = new int[entradas];
+        int n = 0;
+        for (int i = 0; i < lances.length; i++) {
+            if (lances[i] != Movimento.NENHUM) {
+                ordem[n++] = i;
+            }
+        }
+        ordenar(ordem, 0, n - 1);
+
+        Path destino = Paths.get(arquivo);
+        Path temporario = Paths.get(arquivo + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                Files.newOutputStream(temporario), 1 << 16))) {
+            out.writeInt(LivroAberturas.ASSINATURA);
+            out.writeByte(LivroAberturas.VERSAO);
+            out.writeByte(profundidade);
+            out.writeInt(n);
+            for (int k = 0; k < n; k++) {
+                int i = ordem[k];
+                out.writeLong(hashes[i]);
+                out.writeInt(lances[i]);
+                out.writeInt(contagens[0][i]);
+                out.writeInt(contagens[1][i]);
+                out.writeInt(contagens[2][i]);
+            }
+        }
+        Files.move(temporario, destino, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // Quicksort das posições da tabela por (hash, lance), como em AcervoPartidas
+    private void ordenar(int[] ordem, int inicio, int fim) {
+        while (inicio < fim) {
+            int pivo = ordem[(inicio + fim) >>> 1];
+            int i = inicio, j = fim;
+            while (i <= j) {
+                while (comparar(ordem[i], pivo) < 0) i++;
+                while (comparar(ordem[j], pivo) > 0) j--;
+                if (i <= j) {
+                    int t = ordem[i]; ordem[i] = ordem[j]; ordem[j] = t;
+                    i++;
+                    j--;
+                }
+            }
+            if (j - inicio < fim - i) {
+                ordenar(ordem, inicio, j);
+                inicio = i;
+            } else {
+                ordenar(ordem, i, fim);
+                fim = j;
+            }
+        }
+    }
+
+    private int comparar(int a, int b) {
+        int c = Long.compare(hashes[a], hashes[b]);
+        return c != 0 ? c : Integer.compare(lances[a], lances[b]);
+    }
+
+    public synchronized int getEntradas() { return entradas; }
+    public synchronized long getPartidas() { return partidas; }
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty("java.awt.headless", "true");
+        if (args.length < 1) {
+            System.err.println("Uso: ConstrutorLivro livro [--profundidade N] [--estender] [--acervo base]"
+                             + " [--pdn arquivo] [--autojogo N política] [--threads T]");
+            System.exit(2);
+        }
+        String arquivo = args[0];
+        int profundidade = PROFUNDIDADE_PADRAO;
+        boolean profundidadeDada = false;
+        boolean estender = false;
+        int threads = Runtime.getRuntime().availableProcessors();
+        for (int i = 1; i < args.length; i++) {
+            if (args[i].equals("--profundidade")) {
+                profundidade = Integer.parseInt(args[++i]);
+                profundidadeDada = true;
+            } else if (args[i].equals("--threads")) {
+                threads = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("--estender")) {
+                estender = true;
+            }
+        }
+        if (estender && Files.exists(Paths.get(arquivo))) {
+            // As contagens antigas só valem para a profundidade com que o livro foi feito
+            int doLivro = profundidade(arquivo);
+            if (profundidadeDada && doLivro != profundidade) {
+                throw new IllegalArgumentException("O livro " + arquivo + " foi construído com profundidade "
+                                                   + doLivro + "; use --profundidade " + doLivro + " para estendê-lo");
+            }
+            profundidade = doLivro;
+        }
+
+        long inicio = System.nanoTime();
+        ConstrutorLivro construtor = new ConstrutorLivro(profundidade);
+        for (int i = 1; i < args.length; i++) {
+            switch (args[i]) {
+                case "--profundidade":
+                case "--threads":
+                    i++;
+                    break;
+                case "--estender":
+                    if (Files.exists(Paths.get(arquivo))) {
+                        construtor.estender(arquivo);
+                    }
+                    break;
+                case "--acervo":
+                    try (AcervoPartidas acervo = new AcervoPartidas(args[++i])) {
+                        System.out.println(construtor.adicionar(acervo) + " partidas do acervo " + args[i]);
+                    }
+                    break;
+                case "--pdn":
+                    try (LeitorPdn leitor = new LeitorPdn(args[++i])) {
+                        System.out.println(construtor.adicionar(leitor) + " partidas de " + args[i]
+                                         + " (" + leitor.getPartidasInvalidas() + " inválidas)");
+                    }
+                    break;
+                case "--autojogo":
+                    int partidas = Integer.parseInt(args[++i]);
+                    String politica = args[++i];
+                    ConfiguracaoJogo config = new ConfiguracaoJogo();
+                    config.setNomeJogador1(politica + " (1)");
+                    config.setNomeJogador2(politica + " (2)");
+                    config.setCorJogador1(CorPeca.BRANCA);
+                    config.setCorJogador2(CorPeca.PRETA);
+                    SimuladorPartidas simulador = new SimuladorPartidas(
+                            config, Politicas.porNome(politica), Politicas.porNome(politica));
+                    simulador.setLancesAleatorios(4);   // sem isso políticas determinísticas repetem a partida
+                    simulador.setAoTerminar(construtor::adicionar);
+                    System.out.println(simulador.jogar(partidas, threads));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Opção desconhecida: " + args[i]);
+            }
+        }
+        construtor.gravar(arquivo);
+        System.out.printf("%d partidas, %d entradas (até %d lances) em %s, %.1f s%n", construtor.getPartidas(),
+                          construtor.getEntradas(), profundidade, arquivo, (System.nanoTime() - inicio) / 1e9);
+    }
+}
@@ -0,0 +1,192 @@
+package damas.abertura;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.random.RandomGenerator;
+import damas.core.ListaMovimentos;
+import damas.core.Movimento;
+import damas.core.Tabuleiro;
+
+/**
+ * Livro de aberturas gerado por ConstrutorLivro: estatísticas de cada lance jogado
+ * em cada posição das primeiras jogadas, em um arquivo ordenado por (hash, lance)
+ * mapeado em memória. A consulta é uma busca binária pelo hash da posição.
+ *
+ * Arquivo: int "DMLV", byte versão, byte profundidade (lances por partida considerados),
+ * int número de entradas; entradas de 24 bytes (long hash, int lance, int vitórias,
+ * int empates, int derrotas), com os resultados do ponto de vista de quem jogou o lance.
+ *
+ * Lances que não são legais na posição (colisão de hash) são ignorados.
+ * Várias threads podem consultar o mesmo livro.
+ */
+public class LivroAberturas {
+    static final int ASSINATURA = 0x444D4C56;   // "DMLV"
+    static final int VERSAO = 1;
+    static final int TAMANHO_CABECALHO = 10;
+    static final int TAMANHO_ENTRADA = 24;
+
+    private final MappedByteBuffer entradas;
+    private final int numEntradas;
+    private final int profundidade;
+    private int minimoPartidas = 1;
+
+    private LivroAberturas(MappedByteBuffer entradas, int numEntradas, int profundidade) {
+        this.entradas = entradas;
+        this.numEntradas = numEntradas;
+        this.profundidade = profundidade;
+    }
+
+    public static LivroAberturas abrir(String arquivo) throws IOException {
+        try (FileChannel canal = FileChannel.open(Paths.get(arquivo), StandardOpenOption.READ)) {
+            MappedByteBuffer mapa = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+            if (canal.size() < TAMANHO_CABECALHO || mapa.getInt(0) != ASSINATURA) {
+                throw new IOException("Arquivo não é um livro de aberturas: " + arquivo);
+            }
+            if (mapa.get(4) > VERSAO) {
+                throw new IOException("Versão do livro de aberturas não suportada: " + mapa.get(4));
+            }
+            int numEntradas = mapa.getInt(6);
+            if (canal.size() != TAMANHO_CABECALHO + (long) numEntradas * TAMANHO_ENTRADA) {
+                throw new IOException("Livro de aberturas incompleto: " + arquivo);
+            }
+            return new LivroAberturas(mapa, numEntradas, mapa.get(5));
+        }
+    }
+
+    /**
+     * Lances do livro para a posição, com as estatísticas, na ordem do arquivo
+     */
+    public List<LanceLivro> consultar(Tabuleiro posicao) {
+        List<LanceLivro> lances = new ArrayList<>();
+        long hash = posicao.getHash();
+        ListaMovimentos legais = null;
+        for (int i = primeiraEntrada(hash); i < numEntradas && hash(i) == hash; i++) {
+            if (legais == null) {
+                legais = posicao.gerarMovimentosLegais(posicao.getVez());
+            }
+            int base = TAMANHO_CABECALHO + i * TAMANHO_ENTRADA;
+            int movimento = entradas.getInt(base + 8);
+            if (legais.contem(movimento)) {
+                lances.add(new LanceLivro(movimento, entradas.getInt(base + 12),
+                                          entradas.getInt(base + 16), entradas.getInt(base + 20)));
+            }
+        }
+        return lances;
+    }
+
+    /**
+     * Sorteia um lance do livro com peso proporcional aos pontos obtidos com ele
+     * (2 por vitória, 1 por empate), entre os lances com pelo menos minimoPartidas.
+     * Retorna Movimento.NENHUM se a posição estiver fora do livro ou nenhum lance pontuou.
+     */
+    public int escolher(Tabuleiro posicao, RandomGenerator aleatorio) {
+        long hash = posicao.getHash();
+        int primeira = primeiraEntrada(hash);
+        if (primeira == numEntradas || hash(primeira) != hash) {
+            return Movimento.NENHUM;
+        }
+
+        // Entradas de outra posição com o mesmo hash trazem lances ilegais aqui: ficam fora do sorteio
+        ListaMovimentos legais = posicao.gerarMovimentosLegais(posicao.getVez());
+        long total = 0;
+        int fim = primeira;
+        for (; fim < numEntradas && hash(fim) == hash; fim++) {
+            total += peso(fim, legais);
+        }
+        if (total == 0) {
+            return Movimento.NENHUM;
+        }
+
+        long sorteio = aleatorio.nextLong(total);
+        for (int i = primeira; i < fim; i++) {
+            sorteio -= peso(i, legais);
+            if (sorteio < 0) {
+                return movimento(i);
+            }
+        }
+        return Movimento.NENHUM;
+    }
+
+    private int movimento(int i) {
+        return entradas.getInt(TAMANHO_CABECALHO + i * TAMANHO_ENTRADA + 8);
+    }
+
+    private long peso(int i, ListaMovimentos legais) {
+        if (!legais.contem(movimento(i))) {
+            return 0;
+        }
+        int base = TAMANHO_CABECALHO + i * TAMANHO_ENTRADA;
+        long vitorias = entradas.getInt(base + 12);
+        long empates = entradas.getInt(base + 16);
+        long derrotas = entradas.getInt(base + 20);
+        return vitorias + empates + derrotas >= minimoPartidas ? 2 * vitorias + empates : 0;
+    }
+
+    // Busca binária pela primeira entrada com o hash (ou numEntradas)
+    private int primeiraEntrada(long hash) {
+        int inicio = 0, fim = numEntradas;
+        while (inicio < fim) {
+            int meio = (inicio + fim) >>> 1;
+            if (hash(meio) < hash) {
+                inicio = meio + 1;
+            } else {
+                fim = meio;
+            }
+        }
+        return inicio;
+    }
+
+    private long hash(int i) {
+        return entradas.getLong(TAMANHO_CABECALHO + i * TAMANHO_ENTRADA);
+    }
+
+    /** Lances com menos partidas que isso não são escolhidos */
+    public void setMinimoPartidas(int minimoPartidas) {
+        this.minimoPartidas = Math.max(1, minimoPartidas);
+    }
+
+    public int getNumeroEntradas() { return numEntradas; }
+
+    /** Quantos lances de cada partida foram considerados na construção */
+    public int getProfundidade() { return profundidade; }
+
+    /**
+     * Um lance do livro e os resultados das partidas em que foi jogado,
+     * do ponto de vista de quem o jogou
+     */
+    public static final class LanceLivro {
+        private final int movimento;
+        private final int vitorias;
+        private final int empates;
+        private final int derrotas;
+
+        LanceLivro(int movimento, int vitorias, int empates, int derrotas) {
+            this.movimento = movimento;
+            this.vitorias = vitorias;
+            this.empates = empates;
+            this.derrotas = derrotas;
+        }
+
+        public int getMovimento() { return movimento; }
+        public int getVitorias() { return vitorias; }
+        public int getEmpates() { return empates; }
+        public int getDerrotas() { return derrotas; }
+        public int getPartidas() { return vitorias + empates + derrotas; }
+
+        /** Pontos por partida, de 0 (só derrotas) a 1 (só vitórias) */
+        public double getAproveitamento() {
+            return getPartidas() == 0 ? 0 : (vitorias + empates / 2.0) / getPartidas();
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: %d partidas (+%d =%d -%d), %.0f%%", Movimento.toString(movimento),
+                                 getPartidas(), vitorias, empates, derrotas, 100 * getAproveitamento());
+        }
+    }
+}
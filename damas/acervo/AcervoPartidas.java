@@ -0,0 +1,629 @@
+package damas.acervo;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import damas.core.*;
+
+/**
+ * Acervo de partidas encerradas em um único arquivo só de acréscimo, lido por
+ * MappedByteBuffer, com um índice secundário ordenado do hash de cada posição
+ * para (partida, lance). As consultas percorrem os arquivos mapeados sem trazer
+ * as partidas inteiras para o heap.
+ *
+ * Arquivo de partidas (base.acervo):
+ *   int "DMAC", byte versão; por partida: byte resultado, short número de lances,
+ *   um short por lance (ver Movimento).
+ * Arquivo de índice (base.indice.N, N = geração):
+ *   int "DMIX", byte versão, int partidas indexadas, long fim da última partida
+ *   indexada, int CRC32 do acervo até esse ponto; entradas de 16 bytes
+ *   (long hash, int partida, int lance) ordenadas pelo hash.
+ *
+ * Partidas acrescentadas depois da última reindexação ficam fora do índice e são
+ * conferidas lance a lance nas consultas até a próxima chamada a reindexar().
+ * Cada reindexação grava uma nova geração em vez de substituir a mapeada, e a
+ * cauda incompleta do acervo é cortada antes de mapeá-lo: o Windows não deixa
+ * truncar nem substituir um arquivo enquanto houver um mapeamento dele.
+ * Cada arquivo é mapeado de uma vez, o que limita cada um a 2 GB.
+ */
+public class AcervoPartidas implements Closeable {
+    public static final int SEM_RESULTADO = 0;   // empate ou partida encerrada sem vencedor
+    public static final int VITORIA_BRANCAS = 1;
+    public static final int VITORIA_PRETAS = 2;
+
+    private static final int ASSINATURA_PARTIDAS = 0x444D4143;   // "DMAC"
+    private static final int ASSINATURA_INDICE = 0x444D4958;     // "DMIX"
+    private static final int VERSAO = 1;
+    private static final int VERSAO_INDICE = 2;
+    private static final int CABECALHO_PARTIDAS = 5;
+    private static final int CABECALHO_INDICE = 21;
+    private static final int TAMANHO_ENTRADA = 16;
+
+    private final Path arquivoPartidas;
+    private final Path nomeIndice;   // base.indice, sem a geração
+    private final FileChannel canal;
+    private final Tabuleiro inicial = new Tabuleiro();
+    private MappedByteBuffer partidas;
+    private boolean mapaDesatualizado;
+    private long[] inicios = new long[64];   // deslocamento de cada partida no arquivo
+    private int numPartidas;
+    private long fimPartidas;                // fim da última partida inteira
+
+    private MappedByteBuffer indice;
+    private Path arquivoIndice;              // geração em uso, ou null sem índice
+    private long proximaGeracao = 1;
+    private int numEntradas;
+    private int partidasIndexadas;
+
+    /**
+     * Abre (ou cria) o acervo base.acervo / base.indice.N
+     */
+    public AcervoPartidas(String base) throws IOException {
+        this.arquivoPartidas = Paths.get(base + ".acervo");
+        this.nomeIndice = Paths.get(base + ".indice");
+        this.canal = FileChannel.open(arquivoPartidas, StandardOpenOption.CREATE,
+                                      StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            if (canal.size() == 0) {
+                ByteBuffer cabecalho = ByteBuffer.allocate(CABECALHO_PARTIDAS);
+                cabecalho.putInt(ASSINATURA_PARTIDAS).put((byte) VERSAO).flip();
+                canal.write(cabecalho, 0);
+            }
+            List<GeracaoIndice> geracoes = listarIndices();
+            long[] crcs = new long[geracoes.size()];
+            fimPartidas = localizarPartidas(geracoes, crcs);
+            if (fimPartidas < canal.size()) {
+                // Descarta a partida incompleta para que as próximas sejam gravadas logo após a última inteira
+                canal.truncate(fimPartidas);
+            }
+            mapearPartidas();
+            abrirIndice(geracoes, crcs);
+        } catch (IOException | RuntimeException e) {
+            canal.close();
+            throw e;
+        }
+    }
+
+    private void mapearPartidas() throws IOException {
+        partidas = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+        mapaDesatualizado = false;
+    }
+
+    private MappedByteBuffer dados() {
+        if (mapaDesatualizado) {
+            try {
+                mapearPartidas();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return partidas;
+    }
+
+    /*
+     * Percorre os cabeçalhos das partidas, lidos do canal sem mapear, para saber onde
+     * cada uma começa; retorna o fim da última inteira. De passagem anota em crcs o
+     * CRC32 do acervo até o fim indexado de cada geração de índice.
+     */
+    private long localizarPartidas(List<GeracaoIndice> geracoes, long[] crcs) throws IOException {
+        long tamanho = canal.size();
+        CRC32 crc = new CRC32();
+        // Sem fechar: fecharia o canal
+        DataInputStream entrada = new DataInputStream(new CheckedInputStream(new BufferedInputStream(
+                Channels.newInputStream(canal.position(0)), 1 << 16), crc));
+        if (tamanho < CABECALHO_PARTIDAS || entrada.readInt() != ASSINATURA_PARTIDAS
+                || entrada.readByte() > VERSAO) {
+            throw new IOException("Arquivo não é um acervo de partidas: " + arquivoPartidas);
+        }
+        long posicao = CABECALHO_PARTIDAS;
+        while (true) {
+            for (int i = 0; i < crcs.length; i++) {
+                if (geracoes.get(i).fimIndexado == posicao) {
+                    crcs[i] = crc.getValue();
+                }
+            }
+            if (posicao + 3 > tamanho) {
+                break;
+            }
+            entrada.readByte();
+            int lances = entrada.readUnsignedShort();
+            long fim = posicao + 3 + 2L * lances;
+            if (fim > tamanho) {
+                break;   // partida incompleta no fim (gravação interrompida)
+            }
+            entrada.skipNBytes(2L * lances);
+            registrarInicio(posicao);
+            posicao = fim;
+        }
+        return posicao;
+    }
+
+    private void registrarInicio(long posicao) {
+        if (numPartidas == inicios.length) {
+            inicios = Arrays.copyOf(inicios, numPartidas * 2);
+        }
+        inicios[numPartidas++] = posicao;
+    }
+
+    private Path arquivoGeracao(long geracao) {
+        return nomeIndice.resolveSibling(nomeIndice.getFileName() + "." + geracao);
+    }
+
+    // Gerações de índice no disco (base.indice.N) com cabeçalho legível, da mais nova para a mais antiga
+    private List<GeracaoIndice> listarIndices() throws IOException {
+        String prefixo = nomeIndice.getFileName() + ".";
+        Path pasta = nomeIndice.toAbsolutePath().getParent();
+        List<GeracaoIndice> geracoes = new ArrayList<>();
+        try (DirectoryStream<Path> arquivos = Files.newDirectoryStream(pasta)) {
+            for (Path arquivo : arquivos) {
+                String nome = arquivo.getFileName().toString();
+                if (!nome.startsWith(prefixo)) {
+                    continue;
+                }
+                long geracao;
+                try {
+                    geracao = Long.parseLong(nome.substring(prefixo.length()));
+                } catch (NumberFormatException e) {
+                    continue;   // .tmp de uma reindexação interrompida
+                }
+                proximaGeracao = Math.max(proximaGeracao, geracao + 1);
+                GeracaoIndice lida = GeracaoIndice.ler(arquivo, geracao);
+                if (lida != null) {
+                    geracoes.add(lida);
+                }
+            }
+        }
+        geracoes.sort((a, b) -> Long.compare(b.geracao, a.geracao));
+        return geracoes;
+    }
+
+    /*
+     * Mapeia a geração mais nova que corresponde a este acervo: partidas indexadas
+     * presentes, fim indexado numa fronteira de partida e o mesmo CRC32 até ali.
+     * As demais (e o base.indice sem geração das versões anteriores) são apagadas
+     * quando possível.
+     */
+    private void abrirIndice(List<GeracaoIndice> geracoes, long[] crcs) throws IOException {
+        GeracaoIndice escolhida = null;
+        for (int i = 0; i < geracoes.size() && escolhida == null; i++) {
+            GeracaoIndice geracao = geracoes.get(i);
+            if (geracao.partidasIndexadas <= numPartidas
+                    && geracao.fimIndexado == fimIndexado(geracao.partidasIndexadas)
+                    && geracao.crc == crcs[i]) {
+                escolhida = geracao;
+            }
+        }
+        if (escolhida != null) {
+            mapearIndice(escolhida.arquivo, escolhida.partidasIndexadas);
+        }
+        for (GeracaoIndice geracao : geracoes) {
+            if (geracao != escolhida) {
+                apagar(geracao.arquivo);
+            }
+        }
+        apagar(nomeIndice);
+    }
+
+    // Deslocamento logo após as primeiras `indexadas` partidas
+    private long fimIndexado(int indexadas) {
+        return indexadas < numPartidas ? inicios[indexadas] : fimPartidas;
+    }
+
+    private void mapearIndice(Path arquivo, int indexadas) throws IOException {
+        try (FileChannel canalIndice = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            indice = canalIndice.map(FileChannel.MapMode.READ_ONLY, 0, canalIndice.size());
+        }
+        arquivoIndice = arquivo;
+        partidasIndexadas = indexadas;
+        numEntradas = (indice.limit() - CABECALHO_INDICE) / TAMANHO_ENTRADA;
+    }
+
+    // Apaga se puder; no Windows falha enquanto outro mapeamento existir e fica para a próxima abertura
+    private static void apagar(Path arquivo) {
+        try {
+            Files.deleteIfExists(arquivo);
+        } catch (IOException e) {
+            // ignorado
+        }
+    }
+
+    /**
+     * Acrescenta uma partida encerrada; ela fica fora do índice até reindexar()
+     */
+    public int adicionar(Jogo jogo) throws IOException {
+        if (jogo.isJogoAtivo()) {
+            throw new IllegalArgumentException("Somente partidas encerradas entram no acervo");
+        }
+        int resultado = jogo.getVencedor() == null ? SEM_RESULTADO
+                      : jogo.getVencedor().getCor() == CorPeca.BRANCA ? VITORIA_BRANCAS : VITORIA_PRETAS;
+        ListaMovimentos lances = new ListaMovimentos(Math.max(jogo.getNumeroLances(), 1));
+        for (int i = 0; i < jogo.getNumeroLances(); i++) {
+            lances.adicionar(jogo.getLance(i));
+        }
+        return adicionar(lances, resultado);
+    }
+
+    /**
+     * Acrescenta os lances de uma partida jogada a partir da posição inicial,
+     * com o resultado (SEM_RESULTADO, VITORIA_BRANCAS ou VITORIA_PRETAS)
+     */
+    public int adicionar(ListaMovimentos lances, int resultado) throws IOException {
+        ByteBuffer registro = ByteBuffer.allocate(3 + 2 * lances.tamanho());
+        registro.put((byte) resultado).putShort((short) lances.tamanho());
+        for (int i = 0; i < lances.tamanho(); i++) {
+            registro.putShort((short) lances.get(i));
+        }
+        registro.flip();
+
+        long posicao = fimPartidas;
+        while (registro.hasRemaining()) {
+            canal.write(registro, posicao + registro.position());
+        }
+        registrarInicio(posicao);
+        fimPartidas = posicao + registro.limit();
+        mapaDesatualizado = true;   // remapeia só na próxima leitura, não a cada partida
+        return numPartidas - 1;
+    }
+
+    /**
+     * Reconstrói o índice com todas as partidas, refazendo cada uma no Tabuleiro.
+     * O novo índice é escrito numa nova geração, que passa a ser a mapeada.
+     */
+    public void reindexar() throws IOException {
+        int total = 0;
+        for (int p = 0; p < numPartidas; p++) {
+            total += numeroLances(p) + 1;
+        }
+        long[] hashes = new long[total];
+        long[] valores = new long[total];   // partida << 32 | lance
+
+        Tabuleiro tabuleiro = new Tabuleiro();
+        int n = 0;
+        for (int p = 0; p < numPartidas; p++) {
+            tabuleiro.copiarDe(inicial);
+            int lances = numeroLances(p);
+            for (int ply = 0; ; ply++) {
+                hashes[n] = tabuleiro.getHash();
+                valores[n++] = ((long) p << 32) | ply;
+                if (ply == lances) break;
+                tabuleiro.aplicarMovimento(lance(p, ply));
+            }
+        }
+        ordenar(hashes, valores, 0, n - 1);
+
+        CRC32 crc = new CRC32();
+        ByteBuffer gravadas = dados().duplicate();
+        gravadas.position(0).limit((int) fimPartidas);
+        crc.update(gravadas);
+
+        // Nova geração ao lado da mapeada, que não pode ser substituída no Windows
+        Path novo = arquivoGeracao(proximaGeracao++);
+        Path temporario = Paths.get(novo + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                Files.newOutputStream(temporario), 1 << 16))) {
+            out.writeInt(ASSINATURA_INDICE);
+            out.writeByte(VERSAO_INDICE);
+            out.writeInt(numPartidas);
+            out.writeLong(fimPartidas);
+            out.writeInt((int) crc.getValue());
+            for (int i = 0; i < n; i++) {
+                out.writeLong(hashes[i]);
+                out.writeInt((int) (valores[i] >>> 32));
+                out.writeInt((int) valores[i]);
+            }
+        }
+        Files.move(temporario, novo, StandardCopyOption.ATOMIC_MOVE);
+        Path anterior = arquivoIndice;
+        mapearIndice(novo, numPartidas);
+        if (anterior != null) {
+            apagar(anterior);
+        }
+    }
+
+    // Quicksort dos pares (hash, valor) pelo hash e depois pelo valor, sem criar objetos
+    private static void ordenar(long[] chaves, long[] valores, int inicio, int fim) {
+        while (inicio < fim) {
+            int meio = (inicio + fim) >>> 1;
+            long pivo = chaves[meio];
+            long pivoValor = valores[meio];
+            int i = inicio, j = fim;
+            while (i <= j) {
+                while (chaves[i] < pivo || (chaves[i] == pivo && valores[i] < pivoValor)) i++;
+                while (chaves[j] > pivo || (chaves[j] == pivo && valores[j] > pivoValor)) j--;
+                if (i <= j) {
+                    long c = chaves[i]; chaves[i] = chaves[j]; chaves[j] = c;
+                    long v = valores[i]; valores[i] = valores[j]; valores[j] = v;
+                    i++;
+                    j--;
+                }
+            }
+            // Recursão na parte menor para limitar a pilha
+            if (j - inicio < fim - i) {
+                ordenar(chaves, valores, inicio, j);
+                inicio = i;
+            } else {
+                ordenar(chaves, valores, i, fim);
+                fim = j;
+            }
+        }
+    }
+
+    /**
+     * Todas as ocorrências da posição: partidas que a alcançaram e em qual lance,
+     * em ordem de partida e lance
+     */
+    public List<Ocorrencia> buscar(long hash) {
+        List<Ocorrencia> ocorrencias = new ArrayList<>();
+        for (int i = primeiraEntrada(hash); i < numEntradas && hashEntrada(i) == hash; i++) {
+            int base = CABECALHO_INDICE + i * TAMANHO_ENTRADA;
+            ocorrencias.add(new Ocorrencia(indice.getInt(base + 8), indice.getInt(base + 12)));
+        }
+
+        // Partidas ainda fora do índice
+        Tabuleiro tabuleiro = new Tabuleiro();
+        for (int p = partidasIndexadas; p < numPartidas; p++) {
+            tabuleiro.copiarDe(inicial);
+            int lances = numeroLances(p);
+            for (int ply = 0; ; ply++) {
+                if (tabuleiro.getHash() == hash) {
+                    ocorrencias.add(new Ocorrencia(p, ply));
+                }
+                if (ply == lances) break;
+                tabuleiro.aplicarMovimento(lance(p, ply));
+            }
+        }
+        return ocorrencias;
+    }
+
+    public List<Ocorrencia> buscar(Tabuleiro posicao) {
+        return buscar(posicao.getHash());
+    }
+
+    /**
+     * Resultados das partidas que passaram pela posição (cada partida contada uma vez)
+     */
+    public Resultados resultados(long hash) {
+        Resultados resultados = new Resultados();
+        int ultimaPartida = -1;
+        for (Ocorrencia ocorrencia : buscar(hash)) {
+            if (ocorrencia.getPartida() == ultimaPartida) {
+                continue;   // a mesma posição repetida na partida
+            }
+            ultimaPartida = ocorrencia.getPartida();
+            resultados.somar(resultado(ultimaPartida));
+        }
+        return resultados;
+    }
+
+    private int primeiraEntrada(long hash) {
+        int baixo = 0, alto = numEntradas;
+        while (baixo < alto) {
+            int meio = (baixo + alto) >>> 1;
+            if (hashEntrada(meio) < hash) {
+                baixo = meio + 1;
+            } else {
+                alto = meio;
+            }
+        }
+        return baixo;
+    }
+
+    private long hashEntrada(int i) {
+        return indice.getLong(CABECALHO_INDICE + i * TAMANHO_ENTRADA);
+    }
+
+    // Acesso às partidas diretamente no arquivo mapeado
+    public int getNumeroPartidas() { return numPartidas; }
+    public int getPartidasIndexadas() { return partidasIndexadas; }
+
+    public int resultado(int partida) {
+        return dados().get((int) inicios[partida]);
+    }
+
+    public int numeroLances(int partida) {
+        return dados().getShort((int) inicios[partida] + 1) & 0xFFFF;
+    }
+
+    public int lance(int partida, int ply) {
+        return dados().getShort((int) inicios[partida] + 3 + 2 * ply) & 0xFFFF;
+    }
+
+    /**
+     * Posição da partida depois de `ply` lances
+     */
+    public Tabuleiro posicao(int partida, int ply) {
+        Tabuleiro tabuleiro = new Tabuleiro();
+        for (int i = 0; i < ply; i++) {
+            tabuleiro.aplicarMovimento(lance(partida, i));
+        }
+        return tabuleiro;
+    }
+
+    @Override
+    public void close() throws IOException {
+        canal.close();
+    }
+
+    /**
+     * Refaz uma partida a partir de um log no formato de Jogo.salvarLogPartida.
+     * Retorna null se o log for de uma partida ainda em andamento.
+     */
+    public static Jogo lerLog(String arquivo) throws IOException {
+        Jogo jogo = new Jogo(new Jogador("Brancas", CorPeca.BRANCA), new Jogador("Pretas", CorPeca.PRETA));
+        boolean finalizado = false;
+        try (BufferedReader leitor = Files.newBufferedReader(Paths.get(arquivo), StandardCharsets.UTF_8)) {
+            for (String linha = leitor.readLine(); linha != null; linha = leitor.readLine()) {
+                int seta = linha.lastIndexOf(" -> ");
+                if (linha.startsWith("[") && seta > 0) {
+                    Posicao origem = lerPosicao(linha, linha.lastIndexOf('(', seta));
+                    Posicao destino = lerPosicao(linha, seta + 4);
+                    if (!jogo.executarMovimento(origem, destino)) {
+                        throw new IOException("Lance inválido em " + arquivo + ": " + linha);
+                    }
+                } else if (linha.startsWith("Status: ")) {
+                    finalizado = linha.equals("Status: Finalizado");
+                }
+            }
+        }
+        if (jogo.isJogoAtivo()) {
+            if (!finalizado) {
+                return null;
+            }
+            jogo.finalizarJogo();
+        }
+        return jogo;
+    }
+
+    // Lê "(l,c)" a partir do índice
+    private static Posicao lerPosicao(String linha, int inicio) throws IOException {
+        int fim = linha.indexOf(')', inicio);
+        int virgula = linha.indexOf(',', inicio);
+        if (inicio < 0 || fim < 0 || virgula < 0 || linha.charAt(inicio) != '(') {
+            throw new IOException("Posição ilegível: " + linha);
+        }
+        try {
+            return Posicao.of(Integer.parseInt(linha.substring(inicio + 1, virgula)),
+                              Integer.parseInt(linha.substring(virgula + 1, fim)));
+        } catch (NumberFormatException e) {
+            throw new IOException("Posição ilegível: " + linha);
+        }
+    }
+
+    /**
+     * Uso:
+     *   java -cp bin damas.acervo.AcervoPartidas base importar log1.txt log2.txt ...
+     *   java -cp bin damas.acervo.AcervoPartidas base reindexar
+     *   java -cp bin damas.acervo.AcervoPartidas base consultar ["posição"]
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Uso: AcervoPartidas base importar logs... | reindexar | consultar [\"posição\"]");
+            System.exit(2);
+        }
+        try (AcervoPartidas acervo = new AcervoPartidas(args[0])) {
+            switch (args[1]) {
+                case "importar":
+                    for (int i = 2; i < args.length; i++) {
+                        Jogo jogo = lerLog(args[i]);
+                        if (jogo == null) {
+                            System.out.println(args[i] + ": partida em andamento, ignorada");
+                        } else {
+                            System.out.println(args[i] + ": partida " + acervo.adicionar(jogo));
+                        }
+                    }
+                    acervo.reindexar();
+                    break;
+                case "reindexar":
+                    acervo.reindexar();
+                    break;
+                case "consultar":
+                    Tabuleiro posicao = args.length > 2 ? Tabuleiro.deTexto(args[2]) : new Tabuleiro();
+                    List<Ocorrencia> ocorrencias = acervo.buscar(posicao);
+                    System.out.println("Posição: " + posicao.paraTexto());
+                    for (Ocorrencia ocorrencia : ocorrencias.subList(0, Math.min(20, ocorrencias.size()))) {
+                        System.out.println("  " + ocorrencia);
+                    }
+                    System.out.println(acervo.resultados(posicao.getHash()));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Comando desconhecido: " + args[1]);
+            }
+            System.out.printf("%d partidas no acervo, %d indexadas%n",
+                              acervo.getNumeroPartidas(), acervo.getPartidasIndexadas());
+        }
+    }
+
+    // Cabeçalho de uma geração do índice, lido sem mapear o arquivo
+    private static final class GeracaoIndice {
+        final Path arquivo;
+        final long geracao;
+        final int partidasIndexadas;
+        final long fimIndexado;
+        final long crc;
+
+        private GeracaoIndice(Path arquivo, long geracao, int partidasIndexadas, long fimIndexado, long crc) {
+            this.arquivo = arquivo;
+            this.geracao = geracao;
+            this.partidasIndexadas = partidasIndexadas;
+            this.fimIndexado = fimIndexado;
+            this.crc = crc;
+        }
+
+        // null se o arquivo não for um índice desta versão
+        static GeracaoIndice ler(Path arquivo, long geracao) throws IOException {
+            try (FileChannel canalIndice = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+                ByteBuffer cabecalho = ByteBuffer.allocate(CABECALHO_INDICE);
+                while (cabecalho.hasRemaining() && canalIndice.read(cabecalho) >= 0) {
+                    // lê até completar o cabeçalho ou acabar o arquivo
+                }
+                if (cabecalho.hasRemaining() || (canalIndice.size() - CABECALHO_INDICE) % TAMANHO_ENTRADA != 0
+                        || cabecalho.getInt(0) != ASSINATURA_INDICE || cabecalho.get(4) != VERSAO_INDICE) {
+                    return null;
+                }
+                return new GeracaoIndice(arquivo, geracao, cabecalho.getInt(5), cabecalho.getLong(9),
+                                         cabecalho.getInt(17) & 0xFFFFFFFFL);
+            }
+        }
+    }
+
+    /**
+     * Uma posição encontrada: partida e número de lances feitos até ela
+     */
+    public static final class Ocorrencia {
+        private final int partida;
+        private final int lance;
+
+        Ocorrencia(int partida, int lance) {
+            this.partida = partida;
+            this.lance = lance;
+        }
+
+        public int getPartida() { return partida; }
+        public int getLance() { return lance; }
+
+        @Override
+        public String toString() {
+            return "partida " + partida + ", lance " + lance;
+        }
+    }
+
+    /**
+     * Contagem de resultados das partidas que passaram por uma posição
+     */
+    public static final class Resultados {
+        private int vitoriasBrancas;
+        private int vitoriasPretas;
+        private int semResultado;
+
+        void somar(int resultado) {
+            if (resultado == VITORIA_BRANCAS) vitoriasBrancas++;
+            else if (resultado == VITORIA_PRETAS) vitoriasPretas++;
+            else semResultado++;
+        }
+
+        public int getVitoriasBrancas() { return vitoriasBrancas; }
+        public int getVitoriasPretas() { return vitoriasPretas; }
+        public int getSemResultado() { return semResultado; }
+        public int getTotal() { return vitoriasBrancas + vitoriasPretas + semResultado; }
+
+        @Override
+        public String toString() {
+            return String.format("%d partidas: brancas %d, pretas %d, sem vencedor %d",
+                                 getTotal(), vitoriasBrancas, vitoriasPretas, semResultado);
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package damas.bench;
+
+import java.io.File;
+import java.util.Random;
+import damas.core.*;
+import damas.finais.TabelaFinais;
+
+/**
+ * Benchmarks dos caminhos críticos do núcleo. Posições e partidas usam sementes
+ * fixas, para que execuções antes e depois de uma otimização sejam comparáveis.
+ * Os mesmos caminhos estão no módulo benchmarks (JMH, com forks e -prof gc); esta
+ * versão com o Medidor roda sem dependências, direto das classes compiladas.
+ *
+ * Uso: java -cp bin damas.bench.BancadaNucleo [filtro] [ms por iteração]
+ * (filtro: executa apenas os benchmarks cujo nome contém o texto)
+ */
+public class BancadaNucleo {
+    static final int LANCES_PARTIDA = 40;
+
+    private static final Posicao CANTO_INFERIOR = Posicao.of(7, 0);
+    private static final Posicao CANTO_SUPERIOR = Posicao.of(0, 7);
+
+    public static void main(String[] args) throws Exception {
+        String filtro = args.length > 0 ? args[0] : "";
+        long duracaoMs = args.length > 1 ? Long.parseLong(args[1]) : 500;
+        Medidor medidor = new Medidor(3, 5, duracaoMs);
+
+        System.out.printf("JVM %s %s, %d processadores%n", System.getProperty("java.vm.name"),
+                          System.getProperty("java.version"), Runtime.getRuntime().availableProcessors());
+        Medidor.imprimirCabecalho();
+
+        // Dama branca percorrendo a diagonal longa (7,0) <-> (0,7)
+        Tabuleiro diagonal = Tabuleiro.deTexto("..../..../..../..../..../..../..../B..P b");
+        Peca dama = diagonal.getPeca(CANTO_INFERIOR);
+        Tabuleiro diagonalBloqueada = Tabuleiro.deTexto("..../..../..p./..../.p../..../..../B..P b");
+        Peca damaBloqueada = diagonalBloqueada.getPeca(CANTO_INFERIOR);
+        Tabuleiro inicial = new Tabuleiro();
+        Posicao[][] sondagens = criarSondagens();
+        int[] partida = criarPartida();
+
+        if (incluir("Tabuleiro.moverPeca", filtro)) {
+            Tabuleiro t = Tabuleiro.deTexto("..../..../..../..../..../..../..../B..P b");
+            boolean[] ida = { true };
+            medidor.medir("Tabuleiro.moverPeca (dama, diagonal longa)", () -> {
+                boolean i = ida[0];
+                ida[0] = !i;
+                return t.moverPeca(i ? CANTO_INFERIOR : CANTO_SUPERIOR, i ? CANTO_SUPERIOR : CANTO_INFERIOR).size();
+            });
+        }
+
+        if (incluir("Tabuleiro.podeMover", filtro)) {
+            int[] indice = { 0 };
+            medidor.medir("Tabuleiro.podeMover (posição inicial)", () -> {
+                Posicao[] par = sondagens[indice[0]++ & (sondagens.length - 1)];
+                return inicial.podeMover(par[0], par[1]) ? 1 : 0;
+            });
+        }
+
+        if (incluir("Tabuleiro.contarPecas", filtro)) {
+            medidor.medir("Tabuleiro.contarPecas", () ->
+                    inicial.contarPecas(CorPeca.BRANCA) + inicial.contarPecas(CorPeca.PRETA));
+        }
+
+        if (incluir("PecaDama.podeMoverPara", filtro)) {
+            medidor.medir("PecaDama.podeMoverPara (diagonal longa)", () ->
+                    dama.podeMoverPara(CANTO_SUPERIOR, diagonal) ? 1 : 0);
+            medidor.medir("PecaDama.podeMoverPara (bloqueado, exceção)", () -> {
+                try {
+                    return damaBloqueada.podeMoverPara(CANTO_SUPERIOR, diagonalBloqueada) ? 1 : 0;
+                } catch (damas.exceptions.MovimentoInvalidoException e) {
+                    return 2;
+                }
+            });
+            medidor.medir("PecaDama.validarMovimento (bloqueado)", () ->
+                    damaBloqueada.validarMovimento(0, 7, diagonalBloqueada).ordinal());
+        }
+
+        if (incluir("Jogo.executarMovimento", filtro)) {
+            Jogo[] jogo = { novoJogo() };
+            int[] lance = { 0 };
+            // Uma partida nova a cada LANCES_PARTIDA lances; o custo de criá-la entra na média
+            medidor.medir("Jogo.executarMovimento (com registro)", () -> {
+                if (lance[0] == partida.length) {
+                    jogo[0] = novoJogo();
+                    lance[0] = 0;
+                }
+                return jogo[0].executarMovimento(partida[lance[0]++]) ? 1 : 0;
+            });
+        }
+
+        if (incluir("Jogo.executarMovimento (concorrente)", filtro)) {
+            Jogo[] jogo = { novoJogo() };
+            jogo[0].setConcorrente(true);
+            int[] lance = { 0 };
+            // Cada lance publica uma FotoJogo; o custo é o da alocação da foto
+            medidor.medir("Jogo.executarMovimento (concorrente)", () -> {
+                if (lance[0] == partida.length) {
+                    jogo[0] = novoJogo();
+                    jogo[0].setConcorrente(true);
+                    lance[0] = 0;
+                }
+                return jogo[0].executarMovimento(partida[lance[0]++]) ? 1 : 0;
+            });
+        }
+
+        if (incluir("Jogo.executarMovimento (diário)", filtro)) {
+            File diario = File.createTempFile("damas_bench", ".bin");
+            diario.deleteOnExit();
+            Jogo[] jogo = { novoJogo() };
+            int[] lance = { 0 };
+            DiarioPartida[] aberto = { new DiarioPartida(diario.getPath(), jogo[0].getJogador1(), jogo[0].getJogador2(), 64, false) };
+            jogo[0].setDiario(aberto[0]);
+            medidor.medir("Jogo.executarMovimento (diário)", () -> {
+                if (lance[0] == partida.length) {
+                    jogo[0] = novoJogo();
+                    jogo[0].setDiario(aberto[0]);
+                    lance[0] = 0;
+                }
+                return jogo[0].executarMovimento(partida[lance[0]++]) ? 1 : 0;
+            });
+            aberto[0].close();
+        }
+
+        if (incluir("Jogo.salvarLogPartida", filtro)) {
+            Jogo jogo = novoJogo();
+            for (int movimento : partida) {
+                jogo.executarMovimento(movimento);
+            }
+            File arquivo = File.createTempFile("damas_bench", ".txt");
+            arquivo.deleteOnExit();
+            medidor.medir("Jogo.salvarLogPartida (" + LANCES_PARTIDA + " lances)", () -> {
+                jogo.salvarLogPartida(arquivo.getPath());
+                return arquivo.length();
+            });
+        }
+
+        // Só com as tabelas geradas (java -cp bin damas.finais.GeradorFinais)
+        if (incluir("TabelaFinais.valor", filtro) && new File("finais").isDirectory()) {
+            TabelaFinais finais = TabelaFinais.abrir("finais");
+            Tabuleiro[] posicoes = criarFinais(finais.getMaxPecas());
+            int[] indice = { 0 };
+            medidor.medir("TabelaFinais.valor (" + finais.getMaxPecas() + " peças)", () ->
+                    finais.valor(posicoes[indice[0]++ & (posicoes.length - 1)]));
+        }
+
+        System.out.println("(sumidouro " + medidor.getSumidouro() + ")");
+    }
+
+    private static boolean incluir(String nome, String filtro) {
+        return nome.contains(filtro);
+    }
+
+    static Jogo novoJogo() {
+        ConfiguracaoJogo config = new ConfiguracaoJogo();
+        config.setNomeJogador1("Brancas");
+        config.setNomeJogador2("Pretas");
+        config.setCorJogador1(CorPeca.BRANCA);
+        config.setCorJogador2(CorPeca.PRETA);
+        return new Jogo(config);
+    }
+
+    /**
+     * Pares origem/destino sorteados (válidos e inválidos) para a posição inicial
+     */
+    static Posicao[][] criarSondagens() {
+        Random aleatorio = new Random(7);
+        Posicao[][] pares = new Posicao[256][];
+        for (int i = 0; i < pares.length; i++) {
+            pares[i] = new Posicao[] {
+                Posicao.of(aleatorio.nextInt(8), aleatorio.nextInt(8)),
+                Posicao.of(aleatorio.nextInt(8), aleatorio.nextInt(8))
+            };
+        }
+        return pares;
+    }
+
+    /**
+     * Partida de lances legais sorteados a partir da posição inicial, sem capturas
+     * sempre que possível. Sorteia de novo se algum lado ficar sem lances antes do fim.
+     */
+    static int[] criarPartida() {
+        for (long semente = 11; ; semente++) {
+            Random aleatorio = new Random(semente);
+            Tabuleiro t = new Tabuleiro();
+            int[] lances = new int[LANCES_PARTIDA];
+            int i = 0;
+            for (ListaMovimentos lista = t.gerarMovimentosLegais(t.getVez());
+                    !lista.isVazia(); lista = t.gerarMovimentosLegais(t.getVez())) {
+                if (i == lances.length) {
+                    return lances;
+                }
+                int escolhido = lista.get(aleatorio.nextInt(lista.tamanho()));
+                for (int j = 0; j < lista.tamanho() && Movimento.isCaptura(escolhido); j++) {
+                    escolhido = lista.get(j);
+                }
+                lances[i++] = escolhido;
+                t.aplicarMovimento(escolhido);
+            }
+        }
+    }
+
+    /**
+     * Posições sorteadas com até maxPecas damas e simples espalhadas, metade com cada vez
+     */
+    private static Tabuleiro[] criarFinais(int maxPecas) {
+        Random aleatorio = new Random(13);
+        Tabuleiro[] posicoes = new Tabuleiro[1024];
+        for (int i = 0; i < posicoes.length; i++) {
+            int brancas = 0, pretas = 0, damas = 0;
+            int pecas = 2 + aleatorio.nextInt(maxPecas - 1);
+            for (int k = 0; k < pecas; k++) {
+                int casa;
+                do {
+                    casa = 4 + aleatorio.nextInt(24);   // fora das linhas de promoção
+                } while (((brancas | pretas) & (1 << casa)) != 0);
+                if (k == 0 || (k > 1 && aleatorio.nextBoolean())) {
+                    brancas |= 1 << casa;
+                } else {
+                    pretas |= 1 << casa;
+                }
+                if (aleatorio.nextBoolean()) {
+                    damas |= 1 << casa;
+                }
+            }
+            posicoes[i] = new Tabuleiro();
+            posicoes[i].definirPosicao(brancas, pretas, damas, (i & 1) == 0 ? CorPeca.BRANCA : CorPeca.PRETA);
+        }
+        return posicoes;
+    }
+}
@@ -0,0 +1,84 @@
+package damas.bench;
+
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+
+/**
+ * Executor simples de microbenchmarks: aquece, mede várias iterações de tempo fixo
+ * e reporta ns/op e bytes alocados por operação (contador de alocação da thread da JVM).
+ */
+public class Medidor {
+
+    /** Operação medida; o valor retornado é consumido para evitar eliminação pelo JIT */
+    public interface Operacao {
+        long executar() throws Exception;
+    }
+
+    private final int iteracoesAquecimento;
+    private final int iteracoesMedicao;
+    private final long duracaoIteracaoNanos;
+    private final com.sun.management.ThreadMXBean threads;
+    private long sumidouro;
+
+    public Medidor(int iteracoesAquecimento, int iteracoesMedicao, long duracaoIteracaoMs) {
+        this.iteracoesAquecimento = iteracoesAquecimento;
+        this.iteracoesMedicao = iteracoesMedicao;
+        this.duracaoIteracaoNanos = duracaoIteracaoMs * 1_000_000L;
+        this.threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        this.threads.setThreadAllocatedMemoryEnabled(true);
+    }
+
+    public static void imprimirCabecalho() {
+        System.out.printf("%-44s %14s %10s %12s%n", "Benchmark", "ns/op", "± erro", "B/op");
+    }
+
+    /**
+     * Mede a operação e imprime uma linha com média, erro (2 desvios-padrão) e alocação
+     */
+    public void medir(String nome, Operacao operacao) throws Exception {
+        for (int i = 0; i < iteracoesAquecimento; i++) {
+            executarIteracao(operacao);
+        }
+
+        double[] nsPorOp = new double[iteracoesMedicao];
+        long operacoes = 0;
+        long alocadoAntes = threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+        for (int i = 0; i < iteracoesMedicao; i++) {
+            long inicio = System.nanoTime();
+            long n = executarIteracao(operacao);
+            nsPorOp[i] = (double) (System.nanoTime() - inicio) / n;
+            operacoes += n;
+        }
+        long alocado = threads.getThreadAllocatedBytes(Thread.currentThread().getId()) - alocadoAntes;
+
+        double media = 0;
+        for (double v : nsPorOp) media += v;
+        media /= nsPorOp.length;
+        double variancia = 0;
+        for (double v : nsPorOp) variancia += (v - media) * (v - media);
+        double erro = nsPorOp.length > 1 ? 2 * Math.sqrt(variancia / (nsPorOp.length - 1)) : 0;
+
+        System.out.printf(Locale.ROOT, "%-44s %14.1f %10.1f %12.1f%n",
+                          nome, media, erro, (double) alocado / operacoes);
+    }
+
+    private long executarIteracao(Operacao operacao) throws Exception {
+        long fim = System.nanoTime() + duracaoIteracaoNanos;
+        long n = 0;
+        long acumulado = 0;
+        // Lotes de 64 operações para que a leitura do relógio não domine operações curtas
+        do {
+            for (int i = 0; i < 64; i++) {
+                acumulado += operacao.executar();
+            }
+            n += 64;
+        } while (System.nanoTime() < fim);
+        sumidouro += acumulado;
+        return n;
+    }
+
+    /** Valor acumulado dos resultados; impresso ao final para manter as operações vivas */
+    public long getSumidouro() {
+        return sumidouro;
+    }
+}
@@ -0,0 +1,180 @@
+package damas.core;
+
+import java.io.*;
+import java.util.function.Function;
+
+/**
+ * Formato binário próprio para a configuração e para partidas salvas,
+ * lido e escrito campo a campo com DataInput/DataOutput (sem serialização Java).
+ *
+ * Layout (inteiros em big-endian):
+ *   int    assinatura "DAMA"
+ *   byte   versão do formato
+ *   byte   conteúdo: 0 = configuração, 1 = partida
+ *   UTF    nome do jogador 1, UTF nome do jogador 2
+ *   byte   cor do jogador 1 (0 = branca, 1 = preta)
+ *   byte   opções: bit 0 = jogador 2 é o computador, bit 1 = partida encerrada
+ * Somente partidas:
+ *   int    máscaras das 32 casas: brancas, pretas e damas
+ *   byte   vez (0 = brancas, 1 = pretas)
+ *   short  número de lances, seguido de um short por lance (ver Movimento)
+ *
+ * Ao carregar uma partida os lances são refeitos e validados a partir da posição
+ * inicial; a posição salva serve para conferir que o arquivo está íntegro.
+ */
+public final class ArquivoJogo {
+    private static final int ASSINATURA = 0x44414D41;   // "DAMA"
+    public static final int VERSAO = 1;
+
+    private static final int CONTEUDO_CONFIGURACAO = 0;
+    private static final int CONTEUDO_PARTIDA = 1;
+
+    private static final int OPCAO_COMPUTADOR = 1;
+    private static final int OPCAO_ENCERRADA = 2;
+
+    private ArquivoJogo() {}
+
+    public static void salvarConfiguracao(ConfiguracaoJogo config, DataOutput out) throws IOException {
+        escreverCabecalho(out, CONTEUDO_CONFIGURACAO, config, false);
+    }
+
+    /**
+     * Lê a configuração de um arquivo de configuração ou de partida
+     */
+    public static ConfiguracaoJogo lerConfiguracao(DataInput in) throws IOException {
+        return lerCabecalho(in).config;
+    }
+
+    public static void salvarJogo(Jogo jogo, DataOutput out) throws IOException {
+        ConfiguracaoJogo config = new ConfiguracaoJogo();
+        config.setNomeJogador1(jogo.getJogador1().getNome());
+        config.setNomeJogador2(jogo.getJogador2().getNome());
+        config.setCorJogador1(jogo.getJogador1().getCor());
+        config.setCorJogador2(jogo.getJogador2().getCor());
+        config.setJogador2Computador(jogo.getJogador2().isAutomatico());
+        boolean encerrada = !jogo.isJogoAtivo() && jogo.getVencedor() == null;
+        escreverCabecalho(out, CONTEUDO_PARTIDA, config, encerrada);
+
+        Tabuleiro tabuleiro = jogo.getTabuleiro();
+        out.writeInt(tabuleiro.getMascara(CorPeca.BRANCA));
+        out.writeInt(tabuleiro.getMascara(CorPeca.PRETA));
+        out.writeInt(tabuleiro.getMascaraDamas());
+        out.writeByte(tabuleiro.getVez() == CorPeca.BRANCA ? 0 : 1);
+
+        int lances = tabuleiro.getLancesParaDesfazer();
+        out.writeShort(lances);
+        for (int i = 0; i < lances; i++) {
+            out.writeShort(tabuleiro.getMovimento(i));
+        }
+    }
+
+    /**
+     * Lê uma partida salva com jogadores comuns
+     */
+    public static Jogo lerJogo(DataInput in) throws IOException {
+        return lerJogo(in, Jogo::new);
+    }
+
+    /**
+     * Lê uma partida salva criando o jogo pela fábrica informada
+     * (ex.: para recriar o computador como jogador 2)
+     */
+    public static Jogo lerJogo(DataInput in, Function<ConfiguracaoJogo, Jogo> criarJogo) throws IOException {
+        Cabecalho cabecalho = lerCabecalho(in);
+        if (cabecalho.conteudo != CONTEUDO_PARTIDA) {
+            throw new IOException("O arquivo contém apenas a configuração, não uma partida");
+        }
+
+        int brancas = in.readInt();
+        int pretas = in.readInt();
+        int damas = in.readInt();
+        int vez = in.readUnsignedByte();
+        int lances = in.readUnsignedShort();
+
+        Jogo jogo = criarJogo.apply(cabecalho.config);
+        for (int i = 0; i < lances; i++) {
+            int movimento = in.readUnsignedShort();
+            if (!jogo.isJogoAtivo() || !jogo.executarMovimento(movimento)) {
+                throw new IOException("Lance inválido no arquivo: " + Movimento.toString(movimento));
+            }
+        }
+
+        Tabuleiro tabuleiro = jogo.getTabuleiro();
+        if (tabuleiro.getMascara(CorPeca.BRANCA) != brancas || tabuleiro.getMascara(CorPeca.PRETA) != pretas
+                || tabuleiro.getMascaraDamas() != damas
+                || (tabuleiro.getVez() == CorPeca.BRANCA ? 0 : 1) != vez) {
+            throw new IOException("Arquivo corrompido: a posição não confere com os lances");
+        }
+        if (cabecalho.encerrada) {
+            jogo.finalizarJogo();
+        }
+        return jogo;
+    }
+
+    // Atalhos para arquivos em disco
+    public static void salvarConfiguracao(ConfiguracaoJogo config, String arquivo) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(arquivo)))) {
+            salvarConfiguracao(config, out);
+        }
+    }
+
+    public static ConfiguracaoJogo carregarConfiguracao(String arquivo) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(arquivo)))) {
+            return lerConfiguracao(in);
+        }
+    }
+
+    public static void salvarJogo(Jogo jogo, String arquivo) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(arquivo)))) {
+            salvarJogo(jogo, out);
+        }
+    }
+
+    public static Jogo carregarJogo(String arquivo, Function<ConfiguracaoJogo, Jogo> criarJogo) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(arquivo)))) {
+            return lerJogo(in, criarJogo);
+        }
+    }
+
+    private static void escreverCabecalho(DataOutput out, int conteudo, ConfiguracaoJogo config,
+                                          boolean encerrada) throws IOException {
+        out.writeInt(ASSINATURA);
+        out.writeByte(VERSAO);
+        out.writeByte(conteudo);
+        out.writeUTF(config.getNomeJogador1());
+        out.writeUTF(config.getNomeJogador2());
+        out.writeByte(config.getCorJogador1() == CorPeca.BRANCA ? 0 : 1);
+        out.writeByte((config.isJogador2Computador() ? OPCAO_COMPUTADOR : 0)
+                    | (encerrada ? OPCAO_ENCERRADA : 0));
+    }
+
+    private static Cabecalho lerCabecalho(DataInput in) throws IOException {
+        if (in.readInt() != ASSINATURA) {
+            throw new IOException("Arquivo não é um jogo de damas salvo");
+        }
+        int versao = in.readUnsignedByte();
+        if (versao > VERSAO) {
+            throw new IOException("Versão do arquivo não suportada: " + versao);
+        }
+
+        Cabecalho cabecalho = new Cabecalho();
+        cabecalho.conteudo = in.readUnsignedByte();
+        ConfiguracaoJogo config = new ConfiguracaoJogo();
+        config.setNomeJogador1(in.readUTF());
+        config.setNomeJogador2(in.readUTF());
+        CorPeca cor1 = in.readUnsignedByte() == 0 ? CorPeca.BRANCA : CorPeca.PRETA;
+        config.setCorJogador1(cor1);
+        config.setCorJogador2(cor1 == CorPeca.BRANCA ? CorPeca.PRETA : CorPeca.BRANCA);
+        int opcoes = in.readUnsignedByte();
+        config.setJogador2Computador((opcoes & OPCAO_COMPUTADOR) != 0);
+        cabecalho.encerrada = (opcoes & OPCAO_ENCERRADA) != 0;
+        cabecalho.config = config;
+        return cabecalho;
+    }
+
+    private static class Cabecalho {
+        int conteudo;
+        ConfiguracaoJogo config;
+        boolean encerrada;
+    }
+}
@@ -12,6 +12,7 @@ public class ConfiguracaoJogo implements Serializable {
     private String nomeJogador2;
     private CorPeca corJogador1;
     private CorPeca corJogador2;
+    private boolean jogador2Computador;
     
     // Construtor padrão
     public ConfiguracaoJogo() {}
@@ -49,6 +50,14 @@ public class ConfiguracaoJogo implements Serializable {
         this.corJogador2 = corJogador2;
     }
     
+    public boolean isJogador2Computador() {
+        return jogador2Computador;
+    }
+    
+    public void setJogador2Computador(boolean jogador2Computador) {
+        this.jogador2Computador = jogador2Computador;
+    }
+    
     @Override
     public String toString() {
         return String.format("Jogador 1: %s (%s) vs Jogador 2: %s (%s)", 
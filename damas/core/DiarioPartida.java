@@ -0,0 +1,183 @@
+package damas.core;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Diário da partida: cada lance é acrescentado ao final de um arquivo binário
+ * (um arquivo por partida) no momento em que acontece, por um buffer que é descarregado no canal a cada
+ * N registros (e opcionalmente sincronizado com o disco). O log legível é gerado
+ * a partir do diário apenas quando pedido (ver renderizar).
+ *
+ * Cabeçalho: int "DMDI", byte versão, UTF nome e byte cor de cada jogador.
+ * Registro (12 bytes): byte tipo (0 = lance, 1 = lance desfeito), byte jogador (1 ou 2),
+ * short lance (ver Movimento), long instante em ms desde a época.
+ */
+public class DiarioPartida implements Closeable {
+    private static final int ASSINATURA = 0x444D4449;   // "DMDI"
+    private static final int VERSAO = 1;
+    private static final int TAMANHO_REGISTRO = 12;
+
+    private static final byte TIPO_LANCE = 0;
+    private static final byte TIPO_DESFEITO = 1;
+
+    private final FileChannel canal;
+    private final ByteBuffer buffer;
+    private final int registrosPorDescarga;
+    private final boolean sincronizar;
+    private int pendentes;
+
+    /**
+     * Cria o diário de uma partida, substituindo o que houver no arquivo.
+     *
+     * @param registrosPorDescarga registros acumulados antes de escrever no canal (1 = a cada lance)
+     * @param sincronizar          se cada descarga também força os dados para o disco (fsync)
+     */
+    public DiarioPartida(String arquivo, Jogador jogador1, Jogador jogador2,
+                         int registrosPorDescarga, boolean sincronizar) throws IOException {
+        if (registrosPorDescarga < 1) {
+            throw new IllegalArgumentException("Registros por descarga deve ser positivo");
+        }
+        this.registrosPorDescarga = registrosPorDescarga;
+        this.sincronizar = sincronizar;
+        this.buffer = ByteBuffer.allocateDirect(Math.max(registrosPorDescarga * TAMANHO_REGISTRO, 256));
+        this.canal = FileChannel.open(Paths.get(arquivo), StandardOpenOption.CREATE,
+                                      StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        escreverCabecalho(jogador1, jogador2);
+    }
+
+    private void escreverCabecalho(Jogador jogador1, Jogador jogador2) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(ASSINATURA);
+        out.writeByte(VERSAO);
+        for (Jogador jogador : new Jogador[] { jogador1, jogador2 }) {
+            out.writeUTF(jogador.getNome());
+            out.writeByte(jogador.getCor() == CorPeca.BRANCA ? 0 : 1);
+        }
+        ByteBuffer cabecalho = ByteBuffer.wrap(bytes.toByteArray());
+        while (cabecalho.hasRemaining()) {
+            canal.write(cabecalho);
+        }
+        if (sincronizar) {
+            canal.force(false);
+        }
+    }
+
+    /**
+     * Acrescenta um lance; só acessa o disco quando o lote de registros se completa
+     */
+    public void registrarLance(int jogador, int movimento, long instanteMs) throws IOException {
+        acrescentar(TIPO_LANCE, jogador, movimento, instanteMs);
+    }
+
+    /**
+     * Acrescenta a marca de que o último lance foi desfeito
+     */
+    public void registrarDesfeito(int jogador, int movimento, long instanteMs) throws IOException {
+        acrescentar(TIPO_DESFEITO, jogador, movimento, instanteMs);
+    }
+
+    private void acrescentar(byte tipo, int jogador, int movimento, long instanteMs) throws IOException {
+        buffer.put(tipo).put((byte) jogador).putShort((short) movimento).putLong(instanteMs);
+        if (++pendentes >= registrosPorDescarga) {
+            descarregar();
+        }
+    }
+
+    /**
+     * Escreve os registros pendentes no canal (e sincroniza, se configurado)
+     */
+    public void descarregar() throws IOException {
+        if (pendentes == 0) {
+            return;
+        }
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            canal.write(buffer);
+        }
+        buffer.clear();
+        pendentes = 0;
+        if (sincronizar) {
+            canal.force(false);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            descarregar();
+        } finally {
+            canal.close();
+        }
+    }
+
+    /**
+     * Gera o log legível da partida a partir de um diário, descartando os lances desfeitos
+     */
+    public static void renderizar(String arquivoDiario, Writer saida) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                Files.newInputStream(Paths.get(arquivoDiario))))) {
+            if (in.readInt() != ASSINATURA) {
+                throw new IOException("Arquivo não é um diário de partida");
+            }
+            int versao = in.readUnsignedByte();
+            if (versao > VERSAO) {
+                throw new IOException("Versão do diário não suportada: " + versao);
+            }
+            String[] nomes = new String[3];
+            for (int j = 1; j <= 2; j++) {
+                nomes[j] = in.readUTF();
+                in.readUnsignedByte();
+            }
+
+            List<long[]> lances = new ArrayList<>();
+            while (true) {
+                int tipo = in.read();
+                if (tipo < 0) {
+                    break;
+                }
+                long[] registro;
+                try {
+                    registro = new long[] { in.readUnsignedByte(), in.readUnsignedShort(), in.readLong() };
+                } catch (EOFException e) {
+                    break;   // registro incompleto no fim (gravação interrompida)
+                }
+                if (tipo == TIPO_LANCE) {
+                    lances.add(registro);
+                } else if (!lances.isEmpty()) {
+                    lances.remove(lances.size() - 1);
+                }
+            }
+
+            saida.write("=== LOG DA PARTIDA ===\n");
+            saida.write("Jogadores: " + nomes[1] + " vs " + nomes[2] + "\n\n");
+            StringBuilder linha = new StringBuilder(64);
+            for (long[] registro : lances) {
+                linha.setLength(0);
+                Jogo.formatarLance(linha, registro[2], nomes[(int) registro[0]], (int) registro[1]);
+                saida.append(linha).append('\n');
+            }
+            saida.write("\nTotal de movimentos: " + lances.size() + "\n");
+        }
+    }
+
+    /**
+     * Uso: java -cp bin damas.core.DiarioPartida arquivo-do-diário
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("Uso: DiarioPartida arquivo-do-diário");
+            System.exit(2);
+        }
+        Writer saida = new BufferedWriter(new OutputStreamWriter(System.out));
+        renderizar(args[0], saida);
+        saida.flush();
+    }
+}
@@ -0,0 +1,94 @@
+package damas.core;
+
+/**
+ * Retrato imutável de um Jogo depois de um lance: posição, histórico e resultado.
+ * É publicado pelo Jogo em uma referência volatile (ver Jogo.setConcorrente), de modo
+ * que espectadores, registros e análises em outras threads leem a partida sem travas
+ * e sem copiar nada enquanto a thread que joga continua.
+ *
+ * O histórico compartilha os arrays do Jogo: as posições [0, numeroLances) nunca são
+ * sobrescritas depois de publicadas (um lance após desfazer copia os arrays antes).
+ */
+public final class FotoJogo {
+    private final long versao;
+    private final int brancas;
+    private final int pretas;
+    private final int damas;
+    private final CorPeca vez;
+    private final long hash;
+    private final int[] lances;
+    private final long[] instantes;
+    private final int numLances;
+    private final boolean jogoAtivo;
+    private final CorPeca vencedora;
+    private final String nomeBrancas;
+    private final String nomePretas;
+
+    FotoJogo(long versao, Tabuleiro tabuleiro, int[] lances, long[] instantes, int numLances,
+             boolean jogoAtivo, CorPeca vencedora, String nomeBrancas, String nomePretas) {
+        this.versao = versao;
+        this.brancas = tabuleiro.getMascara(CorPeca.BRANCA);
+        this.pretas = tabuleiro.getMascara(CorPeca.PRETA);
+        this.damas = tabuleiro.getMascaraDamas();
+        this.vez = tabuleiro.getVez();
+        this.hash = tabuleiro.getHash();
+        this.lances = lances;
+        this.instantes = instantes;
+        this.numLances = numLances;
+        this.jogoAtivo = jogoAtivo;
+        this.vencedora = vencedora;
+        this.nomeBrancas = nomeBrancas;
+        this.nomePretas = nomePretas;
+    }
+
+    /** Cresce a cada alteração do jogo (lance, desfazer, refazer, fim) */
+    public long getVersao() { return versao; }
+
+    public int getMascara(CorPeca cor) {
+        return cor == CorPeca.BRANCA ? brancas : pretas;
+    }
+
+    public int getMascaraDamas() { return damas; }
+    public CorPeca getVez() { return vez; }
+    public long getHash() { return hash; }
+    public int getNumeroLances() { return numLances; }
+    public boolean isJogoAtivo() { return jogoAtivo; }
+
+    /** Cor vencedora, ou null com o jogo em andamento ou empatado */
+    public CorPeca getVencedora() { return vencedora; }
+
+    /** Lance de índice i do histórico (ver Movimento) */
+    public int getLance(int i) {
+        if (i >= numLances) {
+            throw new IndexOutOfBoundsException("Lance " + i + " de " + numLances);
+        }
+        return lances[i];
+    }
+
+    public long getInstante(int i) {
+        if (i >= numLances) {
+            throw new IndexOutOfBoundsException("Lance " + i + " de " + numLances);
+        }
+        return instantes[i];
+    }
+
+    /**
+     * Acrescenta a linha de log do lance i, no formato de Jogo.getHistoricoMovimentos
+     */
+    public void formatarLance(int i, StringBuilder sb) {
+        Jogo.formatarLance(sb, getInstante(i), i % 2 == 0 ? nomeBrancas : nomePretas, lances[i]);
+    }
+
+    /**
+     * Tabuleiro novo com a posição (para buscar ou gerar lances sem tocar no jogo)
+     */
+    public Tabuleiro paraTabuleiro() {
+        Tabuleiro tabuleiro = new Tabuleiro();
+        tabuleiro.definirPosicao(brancas, pretas, damas, vez);
+        return tabuleiro;
+    }
+
+    public String paraTexto() {
+        return paraTabuleiro().paraTexto();
+    }
+}
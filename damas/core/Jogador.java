@@ -35,6 +35,21 @@ public class Jogador implements Serializable {
         this.pecasCapturadas += quantidade;
     }
     
+    /**
+     * Indica se o jogador escolhe seus lances sozinho (ex.: computador)
+     */
+    public boolean isAutomatico() {
+        return false;
+    }
+    
+    /**
+     * Escolhe o próximo lance de um jogador automático.
+     * Jogadores humanos jogam pela interface e retornam Movimento.NENHUM.
+     */
+    public int escolherMovimento(Jogo jogo) {
+        return Movimento.NENHUM;
+    }
+    
     @Override
     public String toString() {
         return String.format("%s (%s) - %d peças capturadas", 
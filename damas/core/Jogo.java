@@ -1,6 +1,7 @@
 package damas.core;
 
 import java.io.*;
+import java.nio.charset.StandardCharsets;
 import java.time.*;
 import java.time.format.*;
 import java.util.*;
@@ -14,18 +15,42 @@ public class Jogo implements Serializable {
     private Jogador jogador1;
     private Jogador jogador2;
     private Jogador jogadorAtual;
-    private List<String> historicoMovimentos;
+    // Histórico em registros primitivos (lance e instante); o texto é gerado sob demanda
+    private int[] lances;
+    private long[] instantes;
+    private int numLances;
     private boolean jogoAtivo;
     private Jogador vencedor;
+    private boolean finalizado;   // encerrado por finalizarJogo (abandono, limite de lances), não pelas regras
+    private ListaMovimentos refazer;   // lances desfeitos, o último no topo
+    private transient DiarioPartida diario;
+
+    // Modo concorrente: uma thread joga, outras leem a última foto publicada (ver FotoJogo)
+    private transient boolean concorrente;
+    private transient volatile FotoJogo foto;
+    private transient long versao;
+    private transient int lancesPublicados;   // lances[0, lancesPublicados) podem estar em uma foto
+
+    private static final DateTimeFormatter FORMATO_HORA = DateTimeFormatter.ofPattern("HH:mm:ss");
 
     public Jogo(ConfiguracaoJogo config) {
+        this(new Jogador(config.getNomeJogador1(), config.getCorJogador1()),
+             new Jogador(config.getNomeJogador2(), config.getCorJogador2()));
+    }
+
+    /**
+     * Cria o jogo com jogadores já construídos (ex.: um JogadorComputador)
+     */
+    public Jogo(Jogador jogador1, Jogador jogador2) {
         this.tabuleiro = new Tabuleiro();
-        this.jogador1 = new Jogador(config.getNomeJogador1(), config.getCorJogador1());
-        this.jogador2 = new Jogador(config.getNomeJogador2(), config.getCorJogador2());
-        this.jogadorAtual = config.getCorJogador1() == CorPeca.BRANCA ? jogador1 : jogador2;
-        this.historicoMovimentos = new ArrayList<>();
+        this.jogador1 = jogador1;
+        this.jogador2 = jogador2;
+        this.jogadorAtual = jogador1.getCor() == CorPeca.BRANCA ? jogador1 : jogador2;
+        this.lances = new int[64];
+        this.instantes = new long[64];
         this.jogoAtivo = true;
         this.vencedor = null;
+        this.refazer = new ListaMovimentos(16);
     }
 
     public boolean executarMovimento(Posicao origem, Posicao destino) {
@@ -39,61 +64,225 @@ public class Jogo implements Serializable {
                 throw new MovimentoInvalidoException("Esta peça não pertence ao jogador atual");
             }
 
-            int totalAntes = tabuleiro.contarPecas(CorPeca.BRANCA) + tabuleiro.contarPecas(CorPeca.PRETA);
+            peca.podeMoverPara(destino, tabuleiro);
 
-            tabuleiro.moverPeca(origem, destino);
+            // Um lance novo descarta os lances desfeitos
+            refazer.limpar();
+            realizar(tabuleiro.codificarMovimento(origem, destino));
+            return true;
 
-            // Verifica promoção a dama
-            Peca pecaMovida = tabuleiro.getPeca(destino);
-            if (pecaMovida != null) {
-                tabuleiro.verificarPromocaoDama(pecaMovida);
-            }
+        } catch (PosicaoInvalidaException | MovimentoInvalidoException e) {
+            System.err.println("Erro no movimento: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Executa um movimento codificado (ver Movimento)
+     */
+    public boolean executarMovimento(int movimento) {
+        return executarMovimento(Movimento.posicaoOrigem(movimento), Movimento.posicaoDestino(movimento));
+    }
+
+    /**
+     * Aplica um lance já validado: o tabuleiro registra como desfazê-lo
+     * (incluindo captura e promoção a dama) e passa a vez
+     */
+    private void realizar(int movimento) {
+        tabuleiro.fazerMovimento(movimento);
+
+        // Contabiliza a captura ocorrida
+        if (Movimento.isCaptura(movimento)) {
+            jogadorAtual.incrementarPecasCapturadas(1);
+        }
 
-            // Verifica capturas ocorridas
-            int totalDepois = tabuleiro.contarPecas(CorPeca.BRANCA) + tabuleiro.contarPecas(CorPeca.PRETA);
-            int capturas = totalAntes - totalDepois;
-            if (capturas > 0) {
-                jogadorAtual.incrementarPecasCapturadas(capturas);
+        // Registra movimento; arrays já vistos por uma foto não são sobrescritos (ver FotoJogo)
+        if (numLances == lances.length || numLances < lancesPublicados) {
+            lances = Arrays.copyOf(lances, Math.max(lances.length, numLances * 2));
+            instantes = Arrays.copyOf(instantes, lances.length);
+            lancesPublicados = 0;
+        }
+        long instante = System.currentTimeMillis();
+        lances[numLances] = movimento;
+        instantes[numLances++] = instante;
+        if (diario != null) {
+            try {
+                diario.registrarLance(jogadorAtual == jogador1 ? 1 : 2, movimento, instante);
+            } catch (IOException e) {
+                desativarDiario(e);
             }
+        }
+
+        verificarFimDeJogo();
+        if (jogoAtivo) {
+            alternarJogador();
+        }
+        alterado();
+    }
 
-            // Registra movimento
-            String movimento = String.format("[%s] %s: %s -> %s",
-                LocalDateTime.now().format(DateTimeFormatter.ofPattern("HH:mm:ss")),
-                jogadorAtual.getNome(), origem, destino);
-            historicoMovimentos.add(movimento);
+    /**
+     * Desfaz o último lance, reabrindo o jogo se ele o tiver encerrado pelas regras.
+     * Uma partida encerrada por finalizarJogo não volta atrás.
+     */
+    public boolean desfazer() {
+        if (!podeDesfazer()) {
+            return false;
+        }
+        int movimento = tabuleiro.getUltimoMovimento();
+        tabuleiro.desfazerMovimento();
 
-            verificarFimDeJogo();
-            if (jogoAtivo) {
-                alternarJogador();
+        jogadorAtual = getJogadorDaCor(tabuleiro.getVez());
+        if (Movimento.isCaptura(movimento)) {
+            jogadorAtual.incrementarPecasCapturadas(-1);
+        }
+        numLances--;
+        refazer.adicionar(movimento);
+        if (diario != null) {
+            try {
+                diario.registrarDesfeito(jogadorAtual == jogador1 ? 1 : 2, movimento, System.currentTimeMillis());
+            } catch (IOException e) {
+                desativarDiario(e);
             }
-            return true;
+        }
+        jogoAtivo = true;
+        vencedor = null;
+        alterado();
+        return true;
+    }
 
-        } catch (PosicaoInvalidaException | MovimentoInvalidoException e) {
-            System.err.println("Erro no movimento: " + e.getMessage());
+    /**
+     * Refaz o último lance desfeito
+     */
+    public boolean refazer() {
+        if (refazer.isVazia() || !jogoAtivo) {
+            return false;
+        }
+        realizar(refazer.removerUltimo());
+        return true;
+    }
+
+    public boolean podeDesfazer() {
+        return tabuleiro.getLancesParaDesfazer() > 0 && !finalizado;
+    }
+
+    public boolean podeRefazer() {
+        return jogoAtivo && !refazer.isVazia();
+    }
+
+    /**
+     * Deixa o jogador da vez escolher e executar seu lance, se for automático
+     */
+    public boolean jogarVezAutomatica() {
+        if (!jogoAtivo || !jogadorAtual.isAutomatico()) {
             return false;
         }
+        int movimento = jogadorAtual.escolherMovimento(this);
+        return movimento != Movimento.NENHUM && executarMovimento(movimento);
     }
 
     private void alternarJogador() {
         jogadorAtual = (jogadorAtual == jogador1) ? jogador2 : jogador1;
     }
 
+    private Jogador getJogadorDaCor(CorPeca cor) {
+        return jogador1.getCor() == cor ? jogador1 : jogador2;
+    }
+
     private void verificarFimDeJogo() {
         int brancas = tabuleiro.contarPecas(CorPeca.BRANCA);
         int pretas = tabuleiro.contarPecas(CorPeca.PRETA);
         if (brancas == 0 || pretas == 0) {
             jogoAtivo = false;
-            vencedor = brancas == 0 ? jogador2 : jogador1;
+            vencedor = getJogadorDaCor(brancas == 0 ? CorPeca.PRETA : CorPeca.BRANCA);
+        } else {
+            // Adversário bloqueado (sem movimentos legais) também perde
+            Jogador adversario = (jogadorAtual == jogador1) ? jogador2 : jogador1;
+            if (tabuleiro.gerarMovimentosLegais(adversario.getCor()).isVazia()) {
+                jogoAtivo = false;
+                vencedor = jogadorAtual;
+            }
         }
+
+        if (!jogoAtivo) {
+            descarregarDiario();
+        }
+    }
+
+    /**
+     * Ativa o modo diário: os lances já jogados (partida retomada) são gravados
+     * primeiro e depois cada lance é acrescentado ao diário (ver DiarioPartida).
+     * Passe null para desativar.
+     */
+    public void setDiario(DiarioPartida diario) {
+        this.diario = diario;
+        if (diario != null) {
+            try {
+                for (int i = 0; i < numLances; i++) {
+                    Jogador jogador = getJogadorDaCor(i % 2 == 0 ? CorPeca.BRANCA : CorPeca.PRETA);
+                    diario.registrarLance(jogador == jogador1 ? 1 : 2, lances[i], instantes[i]);
+                }
+            } catch (IOException e) {
+                desativarDiario(e);
+            }
+        }
+    }
+
+    public DiarioPartida getDiario() {
+        return diario;
+    }
+
+    /**
+     * Grava no disco os lances ainda no buffer do diário
+     */
+    public void descarregarDiario() {
+        if (diario != null) {
+            try {
+                diario.descarregar();
+            } catch (IOException e) {
+                desativarDiario(e);
+            }
+        }
+    }
+
+    // Uma falha de gravação não interrompe a partida; o diário é abandonado
+    private void desativarDiario(IOException e) {
+        System.err.println("Erro no diário da partida: " + e.getMessage());
+        diario = null;
+    }
+
+    /**
+     * Acrescenta a linha do log de um lance: "[HH:mm:ss] Nome: (l,c) -> (l,c)"
+     */
+    static void formatarLance(StringBuilder sb, long instanteMs, String nome, int movimento) {
+        sb.append('[');
+        FORMATO_HORA.formatTo(LocalTime.ofInstant(Instant.ofEpochMilli(instanteMs), ZoneId.systemDefault()), sb);
+        sb.append("] ").append(nome).append(": ");
+        acrescentarCasa(sb, Movimento.origem(movimento));
+        sb.append(" -> ");
+        acrescentarCasa(sb, Movimento.destino(movimento));
+    }
+
+    private static void acrescentarCasa(StringBuilder sb, int casa) {
+        sb.append('(').append(Tabuleiro.linhaDaCasa(casa)).append(',')
+          .append(Tabuleiro.colunaDaCasa(casa)).append(')');
+    }
+
+    private String formatarLance(int i) {
+        StringBuilder sb = new StringBuilder(48);
+        // Brancas sempre começam, então os lances alternam a partir delas
+        Jogador jogador = getJogadorDaCor(i % 2 == 0 ? CorPeca.BRANCA : CorPeca.PRETA);
+        formatarLance(sb, instantes[i], jogador.getNome(), lances[i]);
+        return sb.toString();
     }
 
     public void salvarLogPartida(String nomeArquivo) throws IOException {
-        try (FileWriter writer = new FileWriter(nomeArquivo)) {
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(nomeArquivo), StandardCharsets.UTF_8))) {
             writer.write("=== LOG DA PARTIDA ===\n");
             writer.write("Jogadores: " + jogador1.getNome() + " vs " + jogador2.getNome() + "\n\n");
             
-            for (String movimento : historicoMovimentos) {
-                writer.write(movimento + "\n");
+            for (int i = 0; i < numLances; i++) {
+                writer.write(formatarLance(i));
+                writer.write('\n');
             }
             
             writer.write("\n=== RESULTADO ===\n");
@@ -105,7 +294,7 @@ public class Jogo implements Serializable {
             }
             writer.write(String.format("%s capturou %d peças\n", jogador1.getNome(), jogador1.getPecasCapturadas()));
             writer.write(String.format("%s capturou %d peças\n", jogador2.getNome(), jogador2.getPecasCapturadas()));
-            writer.write("Total de movimentos: " + historicoMovimentos.size() + "\n");
+            writer.write("Total de movimentos: " + numLances + "\n");
         }
     }
 
@@ -130,15 +319,88 @@ public class Jogo implements Serializable {
         return jogoAtivo;
     }
     
+    /**
+     * Linhas do histórico, geradas a partir dos registros a cada chamada
+     */
     public List<String> getHistoricoMovimentos() {
-        return new ArrayList<>(historicoMovimentos);
+        List<String> historico = new ArrayList<>(numLances);
+        for (int i = 0; i < numLances; i++) {
+            historico.add(formatarLance(i));
+        }
+        return historico;
+    }
+
+    public int getNumeroLances() {
+        return numLances;
+    }
+
+    /** Lance de índice i do histórico (ver Movimento) */
+    public int getLance(int i) {
+        if (i >= numLances) {
+            throw new IndexOutOfBoundsException("Lance " + i + " de " + numLances);
+        }
+        return lances[i];
     }
 
     public Jogador getVencedor() {
         return vencedor;
     }
     
+    /**
+     * Encerra a partida fora das regras (abandono, limite de lances, arquivo encerrado);
+     * se ela já terminou pelas regras, nada muda e desfazer() continua podendo reabri-la
+     */
     public void finalizarJogo() {
+        if (jogoAtivo) {
+            finalizado = true;
+        }
         this.jogoAtivo = false;
+        descarregarDiario();
+        alterado();
+    }
+
+    /**
+     * Ativa o modo concorrente: cada alteração publica uma FotoJogo, lida por getFoto()
+     * em qualquer thread sem travas. Os métodos que alteram o jogo continuam sendo de
+     * uma só thread (ou chamados sob uma trava externa).
+     */
+    public void setConcorrente(boolean concorrente) {
+        this.concorrente = concorrente;
+        if (concorrente) {
+            publicar();
+        }
+    }
+
+    public boolean isConcorrente() {
+        return concorrente;
+    }
+
+    /**
+     * Retrato imutável da partida. No modo concorrente é a última foto publicada e pode
+     * ser lida de qualquer thread; fora dele é criada sob demanda, só na thread do jogo.
+     */
+    public FotoJogo getFoto() {
+        FotoJogo atual = foto;
+        if (!concorrente && (atual == null || atual.getVersao() != versao)) {
+            atual = publicar();
+        }
+        return atual;
+    }
+
+    private void alterado() {
+        versao++;
+        if (concorrente) {
+            publicar();
+        }
+    }
+
+    private FotoJogo publicar() {
+        lancesPublicados = Math.max(lancesPublicados, numLances);
+        FotoJogo nova = new FotoJogo(versao, tabuleiro, lances, instantes, numLances, jogoAtivo,
+                                     vencedor == null ? null : vencedor.getCor(),
+                                     getJogadorDaCor(CorPeca.BRANCA).getNome(),
+                                     getJogadorDaCor(CorPeca.PRETA).getNome());
+        foto = nova;
+        return nova;
     }
 }
\ No newline at end of file
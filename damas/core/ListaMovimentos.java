@@ -0,0 +1,75 @@
+package damas.core;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Lista de movimentos codificados (ver Movimento) sobre um array de int.
+ * Pode ser reaproveitada entre gerações chamando limpar().
+ */
+public class ListaMovimentos implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private int[] movimentos;
+    private int tamanho;
+
+    public ListaMovimentos() {
+        this(32);
+    }
+
+    public ListaMovimentos(int capacidade) {
+        this.movimentos = new int[capacidade];
+    }
+
+    public void adicionar(int movimento) {
+        if (tamanho == movimentos.length) {
+            movimentos = Arrays.copyOf(movimentos, tamanho * 2);
+        }
+        movimentos[tamanho++] = movimento;
+    }
+
+    public int get(int indice) {
+        if (indice >= tamanho) {
+            throw new IndexOutOfBoundsException("Índice " + indice + " de " + tamanho);
+        }
+        return movimentos[indice];
+    }
+
+    public void set(int indice, int movimento) {
+        if (indice >= tamanho) {
+            throw new IndexOutOfBoundsException("Índice " + indice + " de " + tamanho);
+        }
+        movimentos[indice] = movimento;
+    }
+
+    /**
+     * Remove e retorna o último movimento (uso como pilha)
+     */
+    public int removerUltimo() {
+        if (tamanho == 0) {
+            throw new IndexOutOfBoundsException("Lista vazia");
+        }
+        return movimentos[--tamanho];
+    }
+
+    public boolean contem(int movimento) {
+        for (int i = 0; i < tamanho; i++) {
+            if (movimentos[i] == movimento) return true;
+        }
+        return false;
+    }
+
+    public int tamanho() { return tamanho; }
+    public boolean isVazia() { return tamanho == 0; }
+    public void limpar() { tamanho = 0; }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < tamanho; i++) {
+            if (i > 0) sb.append(", ");
+            sb.append(Movimento.toString(movimentos[i]));
+        }
+        return sb.append(']').toString();
+    }
+}
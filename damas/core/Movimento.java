@@ -0,0 +1,54 @@
+package damas.core;
+
+/**
+ * Codificação compacta de um movimento em um int.
+ * Bits 0-4: casa de origem, bits 5-9: casa de destino,
+ * bits 10-14: casa da peça capturada, bit 15: indica captura.
+ * As casas seguem a numeração de 0 a 31 do Tabuleiro.
+ */
+public final class Movimento {
+    public static final int NENHUM = -1;
+
+    private static final int FLAG_CAPTURA = 1 << 15;
+
+    private Movimento() {}
+
+    public static int criar(int origem, int destino) {
+        return origem | (destino << 5);
+    }
+
+    public static int criarCaptura(int origem, int destino, int capturada) {
+        return origem | (destino << 5) | (capturada << 10) | FLAG_CAPTURA;
+    }
+
+    public static int origem(int movimento) {
+        return movimento & 31;
+    }
+
+    public static int destino(int movimento) {
+        return (movimento >> 5) & 31;
+    }
+
+    /** Casa da peça capturada, ou -1 se o movimento não captura */
+    public static int capturada(int movimento) {
+        return isCaptura(movimento) ? (movimento >> 10) & 31 : -1;
+    }
+
+    public static boolean isCaptura(int movimento) {
+        return (movimento & FLAG_CAPTURA) != 0;
+    }
+
+    public static Posicao posicaoOrigem(int movimento) {
+        int casa = origem(movimento);
+        return Posicao.of(Tabuleiro.linhaDaCasa(casa), Tabuleiro.colunaDaCasa(casa));
+    }
+
+    public static Posicao posicaoDestino(int movimento) {
+        int casa = destino(movimento);
+        return Posicao.of(Tabuleiro.linhaDaCasa(casa), Tabuleiro.colunaDaCasa(casa));
+    }
+
+    public static String toString(int movimento) {
+        return posicaoOrigem(movimento) + " -> " + posicaoDestino(movimento);
+    }
+}
@@ -52,13 +52,10 @@ public class P1 {
     }
     
     /**
-     * Salva configuração em formato binário
+     * Salva configuração em formato binário (ver ArquivoJogo)
      */
     private static void salvarConfiguracaoBinaria(ConfiguracaoJogo config, String nomeArquivo) 
             throws IOException {
-        try (ObjectOutputStream oos = new ObjectOutputStream( // traduz objeto para bytes
-                new FileOutputStream(nomeArquivo))) { // Cria conexão com arquivo físico no disco, caminho pra escrever bytes no arquivo
-            oos.writeObject(config);
-        }
+        ArquivoJogo.salvarConfiguracao(config, nomeArquivo);
     }
 }
\ No newline at end of file
@@ -27,8 +27,19 @@ public abstract class Peca implements Serializable {
     }
     
     // Método abstrato - deve ser implementado pelas subclasses (POLIMORFISMO)
-    public abstract boolean podeMoverPara(Posicao destino, Tabuleiro tabuleiro) 
-            throws MovimentoInvalidoException;
+    // Valida sem lançar exceções nem alocar objetos
+    public abstract ResultadoValidacao validarMovimento(int linhaDestino, int colunaDestino,
+                                                        Tabuleiro tabuleiro);
+    
+    // Versão com exceção, usada onde a mensagem de erro é exibida
+    public boolean podeMoverPara(Posicao destino, Tabuleiro tabuleiro) 
+            throws MovimentoInvalidoException {
+        ResultadoValidacao resultado = validarMovimento(destino.getLinha(), destino.getColuna(), tabuleiro);
+        if (!resultado.isValido()) {
+            throw new MovimentoInvalidoException(resultado.getMensagem());
+        }
+        return true;
+    }
     
     // Método ABSTRATO - comportamento específico de cada tipo de peça
     public abstract String getTipo();
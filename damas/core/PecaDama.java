@@ -1,9 +1,6 @@
 package damas.core;
 
 
-import damas.exceptions.MovimentoInvalidoException;
-import damas.exceptions.PosicaoInvalidaException;
-
 public class PecaDama extends Peca {
     private static final long serialVersionUID = 1L;
 
@@ -12,54 +9,40 @@ public class PecaDama extends Peca {
     }
 
     @Override
-    public boolean podeMoverPara(Posicao destino, Tabuleiro tabuleiro)
-            throws MovimentoInvalidoException {
+    public ResultadoValidacao validarMovimento(int linhaDestino, int colunaDestino, Tabuleiro tabuleiro) {
 
-        int diffLinha  = Math.abs(destino.getLinha()   - posicao.getLinha());
-        int diffColuna = Math.abs(destino.getColuna()  - posicao.getColuna());
+        int diffLinha  = Math.abs(linhaDestino  - posicao.getLinha());
+        int diffColuna = Math.abs(colunaDestino - posicao.getColuna());
 
         // 1) Só move na diagonal
         if (diffLinha != diffColuna)
-            throw new MovimentoInvalidoException("Dama deve mover na diagonal");
-
-        int passoLinha  = Integer.compare(destino.getLinha(),  posicao.getLinha());
-        int passoColuna = Integer.compare(destino.getColuna(), posicao.getColuna());
+            return ResultadoValidacao.FORA_DA_DIAGONAL;
 
-        int pecasNoCaminho = 0;
-        Posicao posicaoCaptura = null;
+        // Qualquer posição fora do tabuleiro invalida o lance
+        if (!Tabuleiro.dentroDoTabuleiro(linhaDestino, colunaDestino))
+            return ResultadoValidacao.POSICAO_INVALIDA;
 
-        for (int i = 1; i < diffLinha; i++) {
-            Posicao atual = new Posicao(
-                    posicao.getLinha()  + i * passoLinha,
-                    posicao.getColuna() + i * passoColuna);
+        if (tabuleiro.getCor(linhaDestino, colunaDestino) != null)
+            return ResultadoValidacao.DESTINO_OCUPADO;
 
-            try {
-                Peca p = tabuleiro.getPeca(atual);
-                if (p != null) {
-                    pecasNoCaminho++;
-                    posicaoCaptura = atual;
-                }
-            } catch (PosicaoInvalidaException e) {
-                // Qualquer posição fora do tabuleiro invalida o lance
-                throw new MovimentoInvalidoException("Posição fora do tabuleiro", e);
-            }
-        }
+        // Peças no caminho, pela máscara pré-calculada das casas entre origem e destino
+        int origem = Tabuleiro.indiceCasa(posicao.getLinha(), posicao.getColuna());
+        int destino = Tabuleiro.indiceCasa(linhaDestino, colunaDestino);
+        int caminho = Tabuleiro.casasEntre(origem, destino) & tabuleiro.getMascaraOcupadas();
+        int pecasNoCaminho = Integer.bitCount(caminho);
 
         if (pecasNoCaminho == 0) {
-            return true;                    // caminho livre
-        } else if (pecasNoCaminho == 1 && diffLinha > 1) {
-            try {
-                Peca pecaNoCaminho = tabuleiro.getPeca(posicaoCaptura);
-                return pecaNoCaminho.getCor() != this.getCor(); // captura válida
-            } catch (PosicaoInvalidaException e) {
-                throw new MovimentoInvalidoException("Erro ao validar captura", e);
-            }
+            return ResultadoValidacao.VALIDO;               // caminho livre
+        } else if (pecasNoCaminho == 1) {
+            return (caminho & tabuleiro.getMascara(getCor())) == 0   // captura válida
+                    ? ResultadoValidacao.VALIDO
+                    : ResultadoValidacao.CAPTURA_INVALIDA;
         }
 
-        throw new MovimentoInvalidoException("Movimento inválido para dama");
+        return ResultadoValidacao.CAMINHO_BLOQUEADO;
     }
     @Override
     public String getTipo() {
         return "Dama";
     }
-}
\ No newline at end of file
+}
@@ -1,8 +1,5 @@
 package damas.core;
 
-import damas.exceptions.MovimentoInvalidoException;
-import damas.exceptions.PosicaoInvalidaException;
-
 /**
  * Representa uma peça simples do jogo de damas
  * ESPECIALIZAÇÃO da classe Peca
@@ -20,15 +17,13 @@ public class PecaSimples extends Peca {
     }
     
     @Override
-    public boolean podeMoverPara(Posicao destino, Tabuleiro tabuleiro)
-            throws MovimentoInvalidoException {
-        
-        int diferencaLinha = destino.getLinha() - posicao.getLinha();
-        int diferencaColuna = destino.getColuna() - posicao.getColuna();
+    public ResultadoValidacao validarMovimento(int linhaDestino, int colunaDestino, Tabuleiro tabuleiro) {
+        int diferencaLinha = linhaDestino - posicao.getLinha();
+        int diferencaColuna = colunaDestino - posicao.getColuna();
         
         // Peça simples só move na diagonal
         if (Math.abs(diferencaColuna) != Math.abs(diferencaLinha)) {
-            throw new MovimentoInvalidoException("Peça simples só pode mover na diagonal");
+            return ResultadoValidacao.FORA_DA_DIAGONAL;
         }
 
         // Movimento simples (1 casa) ou captura (2 casas)
@@ -42,36 +37,29 @@ public class PecaSimples extends Peca {
             }
 
             if (!direcaoCorreta) {
-                throw new MovimentoInvalidoException("Peça simples não pode mover para trás (só capturas)");
-            }
-
-            try {
-                if (tabuleiro.getPeca(destino) != null) {
-                    throw new MovimentoInvalidoException("Destino ocupado");
-                }
-            } catch (PosicaoInvalidaException e) {
-                throw new MovimentoInvalidoException("Posição inválida", e);
+                return ResultadoValidacao.MOVIMENTO_PARA_TRAS;
             }
         } else if (Math.abs(diferencaLinha) == 2) {
-            int meioLinha = (posicao.getLinha() + destino.getLinha()) / 2;
-            int meioColuna = (posicao.getColuna() + destino.getColuna()) / 2;
-            Posicao meio = new Posicao(meioLinha, meioColuna);
+            int meioLinha = (posicao.getLinha() + linhaDestino) / 2;
+            int meioColuna = (posicao.getColuna() + colunaDestino) / 2;
 
-            try {
-                Peca p = tabuleiro.getPeca(meio);
-                if (p == null || p.getCor() == this.cor) {
-                    throw new MovimentoInvalidoException("Captura inválida");
-                }
-                if (tabuleiro.getPeca(destino) != null) {
-                    throw new MovimentoInvalidoException("Destino ocupado");
-                }
-            } catch (PosicaoInvalidaException e) {
-                throw new MovimentoInvalidoException("Posição inválida", e);
+            if (!Tabuleiro.dentroDoTabuleiro(linhaDestino, colunaDestino)) {
+                return ResultadoValidacao.POSICAO_INVALIDA;
+            }
+            CorPeca corMeio = tabuleiro.getCor(meioLinha, meioColuna);
+            if (corMeio == null || corMeio == this.cor) {
+                return ResultadoValidacao.CAPTURA_INVALIDA;
             }
         } else {
-            throw new MovimentoInvalidoException("Peça simples só pode mover 1 ou 2 casas");
+            return ResultadoValidacao.DISTANCIA_INVALIDA;
         }
 
-        return true;
+        if (!Tabuleiro.dentroDoTabuleiro(linhaDestino, colunaDestino)) {
+            return ResultadoValidacao.POSICAO_INVALIDA;
+        }
+        if (tabuleiro.getCor(linhaDestino, colunaDestino) != null) {
+            return ResultadoValidacao.DESTINO_OCUPADO;
+        }
+        return ResultadoValidacao.VALIDO;
     }
-}
\ No newline at end of file
+}
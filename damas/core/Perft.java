@@ -0,0 +1,138 @@
+package damas.core;
+
+/**
+ * Perft - conta as folhas da árvore de lances até uma profundidade.
+ * Serve para validar e medir o gerador de movimentos do Tabuleiro.
+ *
+ * Uso:
+ *   java -cp bin damas.core.Perft profundidade ["posição"]   (divide por lance da raiz)
+ *   java -cp bin damas.core.Perft --verificar                (confere as contagens conhecidas)
+ */
+public class Perft {
+
+    // Contagens conhecidas: posição, profundidade e número de folhas esperado (também usadas por PerftTest)
+    static final String INICIAL = new Tabuleiro().paraTexto();
+    static final String MEIO_JOGO = "pppp/p.pp/.p.p/p.../..b./b.bb/.bbb/bbbb p";
+    static final String DAMAS = "..../.p../..../...B/..../.P../..b./.... b";
+    static final Object[][] CONTAGENS_CONHECIDAS = {
+        { INICIAL, 1, 7L },
+        { INICIAL, 2, 49L },
+        { INICIAL, 3, 379L },
+        { INICIAL, 4, 2872L },
+        { INICIAL, 5, 23611L },
+        { INICIAL, 6, 189661L },
+        { INICIAL, 7, 1595777L },
+        { INICIAL, 8, 13173926L },
+        { MEIO_JOGO, 1, 9L },
+        { MEIO_JOGO, 3, 687L },
+        { MEIO_JOGO, 5, 58245L },
+        { MEIO_JOGO, 7, 5065715L },
+        { DAMAS, 1, 11L },
+        { DAMAS, 3, 1336L },
+        { DAMAS, 5, 126678L },
+        { DAMAS, 7, 11491437L },
+    };
+
+    // Um único tabuleiro percorrido com fazer/desfazer, o que também confere
+    // que desfazerMovimento restaura cada posição exatamente
+    private final Tabuleiro atual = new Tabuleiro();
+    private final ListaMovimentos[] listas;
+
+    public Perft(int profundidadeMaxima) {
+        listas = new ListaMovimentos[profundidadeMaxima + 1];
+        for (int i = 0; i <= profundidadeMaxima; i++) {
+            listas[i] = new ListaMovimentos(64);
+        }
+    }
+
+    /**
+     * Número de posições folha a exatamente `profundidade` lances da posição
+     */
+    public long contar(Tabuleiro posicao, int profundidade) {
+        atual.copiarDe(posicao);
+        return contar(0, profundidade);
+    }
+
+    private long contar(int ply, int profundidade) {
+        if (profundidade == 0) {
+            return 1;
+        }
+
+        ListaMovimentos lista = listas[ply];
+        lista.limpar();
+        atual.gerarMovimentosLegais(atual.getVez(), lista);
+        if (profundidade == 1) {
+            return lista.tamanho();
+        }
+
+        long total = 0;
+        for (int i = 0; i < lista.tamanho(); i++) {
+            atual.fazerMovimento(lista.get(i));
+            total += contar(ply + 1, profundidade - 1);
+            atual.desfazerMovimento();
+        }
+        return total;
+    }
+
+    /**
+     * Imprime a contagem por lance da raiz ("divide"), o total e nós/s.
+     * Na profundidade 0 a própria raiz é a única folha.
+     */
+    public long dividir(Tabuleiro posicao, int profundidade) {
+        long inicio = System.nanoTime();
+        ListaMovimentos raiz = profundidade > 0 ? posicao.gerarMovimentosLegais(posicao.getVez())
+                                                : new ListaMovimentos(1);
+        long total = profundidade > 0 ? 0 : 1;
+        Tabuleiro filho = new Tabuleiro();
+        for (int i = 0; i < raiz.tamanho(); i++) {
+            int movimento = raiz.get(i);
+            filho.copiarDe(posicao);
+            filho.aplicarMovimento(movimento);
+            long nos = profundidade > 1 ? contar(filho, profundidade - 1) : 1;
+            System.out.printf("%s: %d%n", Movimento.toString(movimento), nos);
+            total += nos;
+        }
+        long tempo = System.nanoTime() - inicio;
+        System.out.printf("%nTotal: %d folhas em %.3f s (%,d nós/s)%n",
+                          total, tempo / 1e9, tempo == 0 ? 0 : total * 1_000_000_000L / tempo);
+        return total;
+    }
+
+    /**
+     * Confere as contagens conhecidas; retorna true se todas baterem
+     */
+    public static boolean verificar() {
+        boolean ok = true;
+        Perft perft = new Perft(16);
+        for (Object[] caso : CONTAGENS_CONHECIDAS) {
+            String posicao = (String) caso[0];
+            int profundidade = (Integer) caso[1];
+            long esperado = (Long) caso[2];
+
+            long inicio = System.nanoTime();
+            long obtido = perft.contar(Tabuleiro.deTexto(posicao), profundidade);
+            long tempo = System.nanoTime() - inicio;
+
+            boolean passou = obtido == esperado;
+            ok &= passou;
+            System.out.printf("%s  %-42s prof %2d: %,12d (esperado %,12d) %8.3f s%n",
+                              passou ? "OK  " : "FALHA", posicao, profundidade, obtido, esperado, tempo / 1e9);
+        }
+        return ok;
+    }
+
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            System.err.println("Uso: Perft profundidade [\"posição\"] | Perft --verificar");
+            System.exit(2);
+        }
+        if (args[0].equals("--verificar")) {
+            System.exit(verificar() ? 0 : 1);
+        }
+
+        int profundidade = Integer.parseInt(args[0]);
+        Tabuleiro posicao = args.length > 1 ? Tabuleiro.deTexto(args[1]) : new Tabuleiro();
+        System.out.println("Posição: " + posicao.paraTexto());
+        new Perft(Math.max(profundidade, 1)).dividir(posicao, profundidade);
+    }
+}
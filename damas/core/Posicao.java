@@ -3,22 +3,47 @@ package damas.core;
 import java.io.Serializable;
 
 /**
- * Representa uma posição no tabuleiro
+ * Representa uma posição no tabuleiro (imutável).
+ * As 64 posições do tabuleiro são pré-criadas: use Posicao.of para obtê-las sem alocar.
  */
-public class Posicao implements Serializable {
+public final class Posicao implements Serializable {
     private static final long serialVersionUID = 1L;
-    
-    private int linha;
-    private int coluna;
-    
+
+    private static final int TAMANHO = 8;
+    private static final Posicao[] POSICOES = new Posicao[TAMANHO * TAMANHO];
+
+    static {
+        for (int i = 0; i < POSICOES.length; i++) {
+            POSICOES[i] = new Posicao(i / TAMANHO, i % TAMANHO);
+        }
+    }
+
+    private final int linha;
+    private final int coluna;
+
     public Posicao(int linha, int coluna) {
         this.linha = linha;
         this.coluna = coluna;
     }
-    
+
+    /**
+     * Posição compartilhada das coordenadas; fora do tabuleiro cria uma nova instância
+     */
+    public static Posicao of(int linha, int coluna) {
+        if (linha < 0 || linha >= TAMANHO || coluna < 0 || coluna >= TAMANHO) {
+            return new Posicao(linha, coluna);
+        }
+        return POSICOES[linha * TAMANHO + coluna];
+    }
+
+    // Desserialização devolve a instância compartilhada
+    private Object readResolve() {
+        return of(linha, coluna);
+    }
+
     public int getLinha() { return linha; }
     public int getColuna() { return coluna; }
-    
+
     @Override
     public boolean equals(Object obj) {
         if (this == obj) return true;
@@ -26,14 +51,14 @@ public class Posicao implements Serializable {
         Posicao posicao = (Posicao) obj;
         return linha == posicao.linha && coluna == posicao.coluna;
     }
-    
+
     @Override
     public int hashCode() {
         return linha * 31 + coluna;
     }
-    
+
     @Override
     public String toString() {
         return String.format("(%d,%d)", linha, coluna);
     }
-}
\ No newline at end of file
+}
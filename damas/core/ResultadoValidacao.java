@@ -0,0 +1,31 @@
+package damas.core;
+
+/**
+ * Resultado da validação de um movimento, sem uso de exceções.
+ * Cada motivo de rejeição carrega a mensagem exibida ao jogador.
+ */
+public enum ResultadoValidacao {
+    VALIDO("Movimento válido"),
+    POSICAO_INVALIDA("Posição inválida"),
+    ORIGEM_VAZIA("Sem peça na origem"),
+    FORA_DA_DIAGONAL("Peças só podem mover na diagonal"),
+    MOVIMENTO_PARA_TRAS("Peça simples não pode mover para trás (só capturas)"),
+    DISTANCIA_INVALIDA("Peça simples só pode mover 1 ou 2 casas"),
+    DESTINO_OCUPADO("Destino ocupado"),
+    CAPTURA_INVALIDA("Captura inválida"),
+    CAMINHO_BLOQUEADO("Movimento inválido para dama");
+
+    private final String mensagem;
+
+    ResultadoValidacao(String mensagem) {
+        this.mensagem = mensagem;
+    }
+
+    public String getMensagem() {
+        return mensagem;
+    }
+
+    public boolean isValido() {
+        return this == VALIDO;
+    }
+}
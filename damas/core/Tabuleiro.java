@@ -2,148 +2,686 @@ package damas.core;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.SplittableRandom;
 import damas.exceptions.*;
 
+/**
+ * Tabuleiro do jogo representado por bitboards.
+ * As 32 casas escuras jogáveis são numeradas de 0 a 31 (casa = linha * 4 + coluna / 2)
+ * e cada máscara int guarda um bit por casa. Os objetos Peca são apenas uma
+ * visão das máscaras, materializada sob demanda em getPeca.
+ */
 public class Tabuleiro implements Serializable {
-    private static final long serialVersionUID = 1L;
+    private static final long serialVersionUID = 2L;
     private static final int TAMANHO = 8;
-    
-    private Peca[][] grade;
+    public static final int NUM_CASAS = 32;
+
+    private int brancas;   // casas ocupadas por peças brancas
+    private int pretas;    // casas ocupadas por peças pretas
+    private int damas;     // casas ocupadas por damas (de qualquer cor)
+    private Peca[] pecas;  // cache dos objetos Peca de cada casa
     private List<Peca> pecasCapturadas;
+    private CorPeca vez;   // cor que joga o próximo lance
+    private long hash;     // hash Zobrist da posição, atualizado incrementalmente
+
+    // Pilha de desfazer de fazerMovimento: lance, tipo da peça capturada e promoção
+    // compactados em um int (ver aplicar), mais o hash anterior ao lance
+    private int[] desfazer;
+    private long[] hashesAnteriores;
+    private int numDesfazer;
+
+    // Chaves Zobrist por tipo de peça (ver tipoNaCasa) e casa, mais a chave do lado a jogar.
+    // Semente fixa para que o hash de uma posição seja o mesmo entre execuções.
+    private static final long[][] CHAVES_ZOBRIST = new long[4][NUM_CASAS];
+    private static final long CHAVE_VEZ_PRETAS;
+
+    // Direções diagonais: 0 = (-1,-1), 1 = (-1,+1), 2 = (+1,-1), 3 = (+1,+1)
+    private static final int[][] VIZINHOS = new int[NUM_CASAS][4];
+
+    // Raios diagonais: casas a partir da casa em cada direção, da mais próxima à borda
+    private static final int[][][] RAIOS = new int[NUM_CASAS][4][];
+
+    // Máscara das casas estritamente entre duas casas da mesma diagonal (0 se não houver)
+    private static final int[][] ENTRE = new int[NUM_CASAS][NUM_CASAS];
+
+    // Bit da entrada de desfazer que indica promoção a dama no lance
+    private static final int PROMOVEU = 1 << 18;
+
+    static {
+        SplittableRandom aleatorio = new SplittableRandom(0x44414D4153L);
+        for (int tipo = 0; tipo < 4; tipo++) {
+            for (int casa = 0; casa < NUM_CASAS; casa++) {
+                CHAVES_ZOBRIST[tipo][casa] = aleatorio.nextLong();
+            }
+        }
+        CHAVE_VEZ_PRETAS = aleatorio.nextLong();
+
+        for (int casa = 0; casa < NUM_CASAS; casa++) {
+            int linha = linhaDaCasa(casa);
+            int coluna = colunaDaCasa(casa);
+            for (int dir = 0; dir < 4; dir++) {
+                VIZINHOS[casa][dir] = indiceCasa(linha + (dir < 2 ? -1 : 1), coluna + ((dir & 1) == 0 ? -1 : 1));
+            }
+        }
+
+        for (int casa = 0; casa < NUM_CASAS; casa++) {
+            for (int dir = 0; dir < 4; dir++) {
+                int tamanho = 0;
+                for (int atual = VIZINHOS[casa][dir]; atual >= 0; atual = VIZINHOS[atual][dir]) {
+                    tamanho++;
+                }
+                int[] raio = new int[tamanho];
+                int caminho = 0;
+                int i = 0;
+                for (int atual = VIZINHOS[casa][dir]; atual >= 0; atual = VIZINHOS[atual][dir]) {
+                    raio[i++] = atual;
+                    ENTRE[casa][atual] = caminho;
+                    caminho |= 1 << atual;
+                }
+                RAIOS[casa][dir] = raio;
+            }
+        }
+    }
 
     public Tabuleiro() {
-        this.grade = new Peca[TAMANHO][TAMANHO];
+        this.pecas = new Peca[NUM_CASAS];
         this.pecasCapturadas = new ArrayList<>();
+        this.vez = CorPeca.BRANCA;
         inicializarTabuleiro();
+        this.hash = calcularHash();
     }
 
-    private void inicializarTabuleiro() {
-        // Peças pretas (topo do tabuleiro)
-        for (int linha = 0; linha < 3; linha++) {
-            for (int coluna = 0; coluna < TAMANHO; coluna++) {
-                if ((linha + coluna) % 2 == 1) {
-                    grade[linha][coluna] = new PecaSimples(CorPeca.PRETA, new Posicao(linha, coluna));
-                }
-            }
+    /**
+     * Cria uma cópia independente da posição (sem compartilhar objetos Peca)
+     */
+    public Tabuleiro(Tabuleiro outro) {
+        this.pecas = new Peca[NUM_CASAS];
+        this.pecasCapturadas = new ArrayList<>(outro.pecasCapturadas);
+        copiarDe(outro);
+    }
+
+    /**
+     * Copia apenas a posição (máscaras, vez e hash) de outro tabuleiro, sem alocar.
+     * O histórico de peças capturadas e a pilha de desfazer não são copiados.
+     */
+    public void copiarDe(Tabuleiro outro) {
+        this.brancas = outro.brancas;
+        this.pretas = outro.pretas;
+        this.damas = outro.damas;
+        this.vez = outro.vez;
+        this.hash = outro.hash;
+        this.numDesfazer = 0;
+    }
+
+    /**
+     * Define a posição diretamente pelas máscaras (ex.: ao percorrer posições de finais),
+     * recalculando o hash. A pilha de desfazer é descartada.
+     */
+    public void definirPosicao(int brancas, int pretas, int damas, CorPeca vez) {
+        if ((brancas & pretas) != 0 || (damas & ~(brancas | pretas)) != 0) {
+            throw new IllegalArgumentException("Máscaras de posição inconsistentes");
         }
+        this.brancas = brancas;
+        this.pretas = pretas;
+        this.damas = damas;
+        this.vez = vez;
+        this.hash = calcularHash();
+        this.numDesfazer = 0;
+    }
 
-        // Peças brancas (base do tabuleiro)
-        for (int linha = 5; linha < TAMANHO; linha++) {
-            for (int coluna = 0; coluna < TAMANHO; coluna++) {
-                if ((linha + coluna) % 2 == 1) {
-                    grade[linha][coluna] = new PecaSimples(CorPeca.BRANCA, new Posicao(linha, coluna));
-                }
+    /**
+     * Cria o tabuleiro a partir do texto de posição (ver paraTexto)
+     */
+    public static Tabuleiro deTexto(String texto) {
+        String[] partes = texto.trim().split("\\s+");
+        String casas = partes[0].replace("/", "");
+        if (casas.length() != NUM_CASAS || partes.length > 2) {
+            throw new IllegalArgumentException("Posição inválida: " + texto);
+        }
+
+        Tabuleiro t = new Tabuleiro();
+        t.brancas = t.pretas = t.damas = 0;
+        for (int casa = 0; casa < NUM_CASAS; casa++) {
+            int bit = 1 << casa;
+            switch (casas.charAt(casa)) {
+                case 'b': t.brancas |= bit; break;
+                case 'B': t.brancas |= bit; t.damas |= bit; break;
+                case 'p': t.pretas |= bit; break;
+                case 'P': t.pretas |= bit; t.damas |= bit; break;
+                case '.': break;
+                default: throw new IllegalArgumentException("Casa inválida na posição: " + texto);
+            }
+        }
+        if (partes.length == 2) {
+            if (partes[1].equals("p")) {
+                t.vez = CorPeca.PRETA;
+            } else if (!partes[1].equals("b")) {
+                throw new IllegalArgumentException("Vez inválida na posição: " + texto);
             }
         }
+        t.hash = t.calcularHash();
+        return t;
+    }
+
+    /**
+     * Texto compacto da posição: as 32 casas em ordem, uma linha do tabuleiro
+     * por grupo separado por '/', seguidas da vez ('b' brancas, 'p' pretas).
+     * Peças: b/p simples, B/P damas, '.' casa vazia.
+     */
+    public String paraTexto() {
+        StringBuilder sb = new StringBuilder(40);
+        for (int casa = 0; casa < NUM_CASAS; casa++) {
+            if (casa > 0 && (casa & 3) == 0) sb.append('/');
+            int bit = 1 << casa;
+            char c = (brancas & bit) != 0 ? 'b' : (pretas & bit) != 0 ? 'p' : '.';
+            sb.append((damas & bit) != 0 ? Character.toUpperCase(c) : c);
+        }
+        return sb.append(' ').append(vez == CorPeca.BRANCA ? 'b' : 'p').toString();
+    }
+
+    private void inicializarTabuleiro() {
+        // Peças pretas (topo do tabuleiro): linhas 0 a 2
+        for (int casa = 0; casa < 12; casa++) {
+            pretas |= 1 << casa;
+        }
+
+        // Peças brancas (base do tabuleiro): linhas 5 a 7
+        for (int casa = 20; casa < NUM_CASAS; casa++) {
+            brancas |= 1 << casa;
+        }
     }
 
     public Peca getPeca(Posicao posicao) throws PosicaoInvalidaException {
         validarPosicao(posicao);
-        return grade[posicao.getLinha()][posicao.getColuna()];
+        int casa = indiceCasa(posicao.getLinha(), posicao.getColuna());
+        return casa < 0 ? null : materializar(casa);
+    }
+
+    /**
+     * Retorna o objeto Peca da casa, criando-o se o cache estiver desatualizado
+     */
+    private Peca materializar(int casa) {
+        int bit = 1 << casa;
+        if (((brancas | pretas) & bit) == 0) {
+            pecas[casa] = null;
+            return null;
+        }
+
+        CorPeca cor = (brancas & bit) != 0 ? CorPeca.BRANCA : CorPeca.PRETA;
+        boolean dama = (damas & bit) != 0;
+        Peca peca = pecas[casa];
+        if (peca == null || peca.getCor() != cor || (peca instanceof PecaDama) != dama
+                || indiceCasa(peca.getPosicao().getLinha(), peca.getPosicao().getColuna()) != casa) {
+            Posicao pos = Posicao.of(linhaDaCasa(casa), colunaDaCasa(casa));
+            peca = dama ? new PecaDama(cor, pos) : new PecaSimples(cor, pos);
+            pecas[casa] = peca;
+        }
+        return peca;
     }
 
-    public void moverPeca(Posicao origem, Posicao destino) 
+    /**
+     * Move a peça validando o lance e retorna as peças capturadas (lista vazia se nenhuma)
+     */
+    public List<Peca> moverPeca(Posicao origem, Posicao destino)
         throws PosicaoInvalidaException, MovimentoInvalidoException {
-    
+
         Peca peca = getPeca(origem);
         if (peca == null) throw new MovimentoInvalidoException("Sem peça na origem");
 
-        if (!peca.podeMoverPara(destino, this)) {
-            throw new MovimentoInvalidoException("Movimento inválido");
-        }
-
-        if (getPeca(destino) != null) {
-            throw new MovimentoInvalidoException("Destino ocupado");
-        }
-
-        // Trata captura (para damas)
-        int diffLinha = Math.abs(destino.getLinha() - origem.getLinha());
-        if (diffLinha >= 2) {
-            int passoLinha = Integer.compare(destino.getLinha(), origem.getLinha());
-            int passoColuna = Integer.compare(destino.getColuna(), origem.getColuna());
-        
-            for (int i = 1; i < diffLinha; i++) {
-                Posicao atual = new Posicao(
-                    origem.getLinha() + (i * passoLinha),
-                    origem.getColuna() + (i * passoColuna)
-                );
-            
-                if (getPeca(atual) != null) {
-                grade[atual.getLinha()][atual.getColuna()] = null;
-                System.out.println("Peça capturada em " + atual);
-                }
+        peca.podeMoverPara(destino, this);
+
+        int casaOrigem = indiceCasa(origem.getLinha(), origem.getColuna());
+        int casaDestino = indiceCasa(destino.getLinha(), destino.getColuna());
+
+        // Trata captura: remove as peças entre origem e destino
+        List<Peca> capturadas = Collections.emptyList();
+        int caminho = ENTRE[casaOrigem][casaDestino] & (brancas | pretas);
+        while (caminho != 0) {
+            int casa = Integer.numberOfTrailingZeros(caminho);
+            caminho &= caminho - 1;
+
+            Peca capturada = materializar(casa);
+            hash ^= CHAVES_ZOBRIST[tipoNaCasa(casa)][casa];
+            removerBit(1 << casa);
+            pecas[casa] = null;
+            pecasCapturadas.add(capturada);
+            if (capturadas.isEmpty()) capturadas = new ArrayList<>(1);
+            capturadas.add(capturada);
+        }
+
+        // Efetua movimento
+        long[] chaves = CHAVES_ZOBRIST[tipoNaCasa(casaOrigem)];
+        hash ^= chaves[casaOrigem] ^ chaves[casaDestino];
+        int bits = (1 << casaOrigem) | (1 << casaDestino);
+        if (peca.getCor() == CorPeca.BRANCA) {
+            brancas ^= bits;
+        } else {
+            pretas ^= bits;
+        }
+        if ((damas & (1 << casaOrigem)) != 0) {
+            damas ^= bits;
+        }
+        pecas[casaOrigem] = null;
+        pecas[casaDestino] = peca;
+        peca.setPosicao(destino);
+        return capturadas;
+    }
+
+    /**
+     * Aplica um movimento gerado por gerarMovimentosLegais sem validá-lo:
+     * remove a peça capturada, promove a dama ao atingir a última linha e passa a vez.
+     * Caminho rápido para buscas automáticas; não registra peças capturadas.
+     */
+    public void aplicarMovimento(int movimento) {
+        aplicar(movimento);
+    }
+
+    /**
+     * Aplica o movimento como aplicarMovimento e empilha o necessário para
+     * desfazê-lo. Não aloca, exceto quando a pilha precisa crescer.
+     */
+    public void fazerMovimento(int movimento) {
+        if (desfazer == null || numDesfazer == desfazer.length) {
+            int capacidade = desfazer == null ? 64 : desfazer.length * 2;
+            desfazer = desfazer == null ? new int[capacidade] : Arrays.copyOf(desfazer, capacidade);
+            hashesAnteriores = hashesAnteriores == null ? new long[capacidade]
+                                                        : Arrays.copyOf(hashesAnteriores, capacidade);
+        }
+        hashesAnteriores[numDesfazer] = hash;
+        desfazer[numDesfazer++] = aplicar(movimento);
+    }
+
+    /**
+     * Desfaz o último lance de fazerMovimento, restaurando exatamente a posição anterior
+     */
+    public void desfazerMovimento() {
+        if (numDesfazer == 0) {
+            throw new IllegalStateException("Nenhum lance para desfazer");
+        }
+        int entrada = desfazer[--numDesfazer];
+        int origem = Movimento.origem(entrada);
+        int destino = Movimento.destino(entrada);
+
+        // A peça volta à origem, perdendo a promoção se o lance a promoveu
+        int bits = (1 << origem) | (1 << destino);
+        boolean dama = (damas & (1 << destino)) != 0;
+        if ((brancas & (1 << destino)) != 0) {
+            brancas ^= bits;
+        } else {
+            pretas ^= bits;
+        }
+        damas &= ~(1 << destino);
+        if (dama && (entrada & PROMOVEU) == 0) {
+            damas |= 1 << origem;
+        }
+
+        int capturada = Movimento.capturada(entrada);
+        if (capturada >= 0) {
+            int tipo = (entrada >>> 16) & 3;
+            int bit = 1 << capturada;
+            if (tipo < 2) {
+                brancas |= bit;
+            } else {
+                pretas |= bit;
+            }
+            if ((tipo & 1) != 0) {
+                damas |= bit;
             }
         }
 
-    // Efetua movimento
-    grade[origem.getLinha()][origem.getColuna()] = null;
-    grade[destino.getLinha()][destino.getColuna()] = peca;
-    peca.setPosicao(destino);
-}
+        vez = (vez == CorPeca.BRANCA) ? CorPeca.PRETA : CorPeca.BRANCA;
+        hash = hashesAnteriores[numDesfazer];
+    }
+
+    /** Número de lances de fazerMovimento que podem ser desfeitos */
+    public int getLancesParaDesfazer() {
+        return numDesfazer;
+    }
+
+    /** Lance de índice i (0 = mais antigo) entre os que podem ser desfeitos */
+    public int getMovimento(int i) {
+        if (i < 0 || i >= numDesfazer) {
+            throw new IndexOutOfBoundsException("Lance " + i + " de " + numDesfazer);
+        }
+        return desfazer[i] & 0xFFFF;
+    }
+
+    /** Último lance de fazerMovimento ainda não desfeito, ou Movimento.NENHUM */
+    public int getUltimoMovimento() {
+        return numDesfazer == 0 ? Movimento.NENHUM : desfazer[numDesfazer - 1] & 0xFFFF;
+    }
+
+    /**
+     * Aplica o movimento e retorna a entrada de desfazer:
+     * bits 0-15 lance, 16-17 tipo da peça capturada, 18 promoção
+     */
+    private int aplicar(int movimento) {
+        int origem = Movimento.origem(movimento);
+        int destino = Movimento.destino(movimento);
+        int tipo = tipoNaCasa(origem);
+        int entrada = movimento & 0xFFFF;
+
+        int capturada = Movimento.capturada(movimento);
+        if (capturada >= 0) {
+            int tipoCapturada = tipoNaCasa(capturada);
+            entrada |= tipoCapturada << 16;
+            hash ^= CHAVES_ZOBRIST[tipoCapturada][capturada];
+            removerBit(1 << capturada);
+        }
+
+        int bits = (1 << origem) | (1 << destino);
+        if (tipo < 2) {
+            brancas ^= bits;
+        } else {
+            pretas ^= bits;
+        }
+        if ((tipo & 1) != 0) {
+            damas ^= bits;
+        }
+        hash ^= CHAVES_ZOBRIST[tipo][origem] ^ CHAVES_ZOBRIST[tipo][destino];
+
+        // Peça simples que chega à última linha vira dama
+        if ((tipo & 1) == 0 && linhaDaCasa(destino) == (tipo == 0 ? 0 : TAMANHO - 1)) {
+            damas |= 1 << destino;
+            hash ^= CHAVES_ZOBRIST[tipo][destino] ^ CHAVES_ZOBRIST[tipo + 1][destino];
+            entrada |= PROMOVEU;
+        }
+
+        passarVez();
+        return entrada;
+    }
+
+    /**
+     * Codifica o lance entre as posições (ver Movimento), localizando a peça
+     * capturada no caminho. Não valida o lance; retorna Movimento.NENHUM se
+     * origem ou destino não forem casas jogáveis.
+     */
+    public int codificarMovimento(Posicao origem, Posicao destino) {
+        int casaOrigem = indiceCasa(origem.getLinha(), origem.getColuna());
+        int casaDestino = indiceCasa(destino.getLinha(), destino.getColuna());
+        if (casaOrigem < 0 || casaDestino < 0) {
+            return Movimento.NENHUM;
+        }
+
+        int caminho = ENTRE[casaOrigem][casaDestino] & (brancas | pretas);
+        return caminho == 0
+                ? Movimento.criar(casaOrigem, casaDestino)
+                : Movimento.criarCaptura(casaOrigem, casaDestino, Integer.numberOfTrailingZeros(caminho));
+    }
+
+    private void removerBit(int bit) {
+        brancas &= ~bit;
+        pretas &= ~bit;
+        damas &= ~bit;
+    }
 
     @SuppressWarnings("unused")
-    private void capturarPeca(Posicao origem, Posicao destino) 
+    private void capturarPeca(Posicao origem, Posicao destino)
             throws PosicaoInvalidaException, MovimentoInvalidoException {
-        
+
         int linhaMeio = (origem.getLinha() + destino.getLinha()) / 2;
         int colunaMeio = (origem.getColuna() + destino.getColuna()) / 2;
-        Posicao posicaoMeio = new Posicao(linhaMeio, colunaMeio);
-        
+        Posicao posicaoMeio = Posicao.of(linhaMeio, colunaMeio);
+
         Peca pecaCapturada = getPeca(posicaoMeio);
         if (pecaCapturada == null) {
             throw new MovimentoInvalidoException("Não há peça para capturar");
         }
 
-        grade[linhaMeio][colunaMeio] = null;
+        removerBit(1 << indiceCasa(linhaMeio, colunaMeio));
         pecasCapturadas.add(pecaCapturada);
     }
 
     protected void verificarPromocaoDama(Peca peca) {
         if (peca instanceof PecaSimples) {
             int linha = peca.getPosicao().getLinha();
-            boolean devePromover = (peca.getCor() == CorPeca.BRANCA && linha == 0) || 
+            boolean devePromover = (peca.getCor() == CorPeca.BRANCA && linha == 0) ||
                                  (peca.getCor() == CorPeca.PRETA && linha == 7);
-            
+
             if (devePromover) {
                 Posicao pos = peca.getPosicao();
-                grade[pos.getLinha()][pos.getColuna()] = new PecaDama(peca.getCor(), pos);
+                int casa = indiceCasa(pos.getLinha(), pos.getColuna());
+                hash ^= CHAVES_ZOBRIST[tipoNaCasa(casa)][casa];
+                damas |= 1 << casa;
+                hash ^= CHAVES_ZOBRIST[tipoNaCasa(casa)][casa];
+                pecas[casa] = new PecaDama(peca.getCor(), pos);
             }
         }
     }
 
     public boolean podeMover(Posicao origem, Posicao destino) {
-        try {
-            Peca peca = getPeca(origem);
-            return peca != null &&
-                   peca.podeMoverPara(destino, this) &&
-                   getPeca(destino) == null;
-        } catch (Exception e) {
-            return false;
+        return validarMovimento(origem.getLinha(), origem.getColuna(),
+                                destino.getLinha(), destino.getColuna()).isValido();
+    }
+
+    /**
+     * Valida um movimento sem lançar exceções, retornando o motivo da rejeição
+     */
+    public ResultadoValidacao validarMovimento(Posicao origem, Posicao destino) {
+        return validarMovimento(origem.getLinha(), origem.getColuna(),
+                                destino.getLinha(), destino.getColuna());
+    }
+
+    public ResultadoValidacao validarMovimento(int linhaOrigem, int colunaOrigem,
+                                               int linhaDestino, int colunaDestino) {
+        if (!dentroDoTabuleiro(linhaOrigem, colunaOrigem)) {
+            return ResultadoValidacao.POSICAO_INVALIDA;
         }
+        int casa = indiceCasa(linhaOrigem, colunaOrigem);
+        if (casa < 0 || ((brancas | pretas) & (1 << casa)) == 0) {
+            return ResultadoValidacao.ORIGEM_VAZIA;
+        }
+        return materializar(casa).validarMovimento(linhaDestino, colunaDestino, this);
     }
 
-    public int contarPecas(CorPeca cor) {
-        int contador = 0;
-        for (int i = 0; i < TAMANHO; i++) {
-            for (int j = 0; j < TAMANHO; j++) {
-                Peca p = grade[i][j];
-                if (p != null && p.getCor() == cor) {
-                    contador++;
+    /**
+     * Gera todos os movimentos legais das peças da cor
+     */
+    public ListaMovimentos gerarMovimentosLegais(CorPeca cor) {
+        ListaMovimentos lista = new ListaMovimentos();
+        gerarMovimentosLegais(cor, lista);
+        return lista;
+    }
+
+    /**
+     * Gera os movimentos legais da cor na lista informada, sem limpá-la.
+     * Permite reaproveitar o mesmo buffer em buscas automáticas.
+     */
+    public void gerarMovimentosLegais(CorPeca cor, ListaMovimentos lista) {
+        int restantes = getMascara(cor);
+        while (restantes != 0) {
+            int casa = Integer.numberOfTrailingZeros(restantes);
+            restantes &= restantes - 1;
+            gerarMovimentosDaCasa(casa, lista);
+        }
+    }
+
+    /**
+     * Gera os movimentos legais da peça na posição (lista vazia se não houver peça)
+     */
+    public ListaMovimentos gerarMovimentosLegais(Posicao origem) {
+        ListaMovimentos lista = new ListaMovimentos(16);
+        int casa = indiceCasa(origem.getLinha(), origem.getColuna());
+        if (casa >= 0 && ((brancas | pretas) & (1 << casa)) != 0) {
+            gerarMovimentosDaCasa(casa, lista);
+        }
+        return lista;
+    }
+
+    /**
+     * Percorre apenas as diagonais alcançáveis pela peça da casa.
+     * Peça simples: um passo à frente ou salto sobre adversária em qualquer direção.
+     * Dama: qualquer distância, saltando no máximo uma adversária.
+     */
+    private void gerarMovimentosDaCasa(int casa, ListaMovimentos lista) {
+        int bit = 1 << casa;
+        boolean branca = (brancas & bit) != 0;
+        int adversarias = branca ? pretas : brancas;
+        int ocupadas = brancas | pretas;
+
+        if ((damas & bit) != 0) {
+            for (int[] raio : RAIOS[casa]) {
+                int capturada = -1;
+                for (int atual : raio) {
+                    int bitAtual = 1 << atual;
+                    if ((ocupadas & bitAtual) == 0) {
+                        lista.adicionar(capturada < 0
+                                ? Movimento.criar(casa, atual)
+                                : Movimento.criarCaptura(casa, atual, capturada));
+                    } else if (capturada < 0 && (adversarias & bitAtual) != 0) {
+                        capturada = atual;
+                    } else {
+                        break;
+                    }
+                }
+            }
+        } else {
+            for (int dir = 0; dir < 4; dir++) {
+                int vizinho = VIZINHOS[casa][dir];
+                if (vizinho < 0) continue;
+
+                int bitVizinho = 1 << vizinho;
+                if ((ocupadas & bitVizinho) == 0) {
+                    // Brancas sobem (direções 0 e 1), pretas descem (2 e 3)
+                    if (branca == (dir < 2)) {
+                        lista.adicionar(Movimento.criar(casa, vizinho));
+                    }
+                } else if ((adversarias & bitVizinho) != 0) {
+                    int salto = VIZINHOS[vizinho][dir];
+                    if (salto >= 0 && (ocupadas & (1 << salto)) == 0) {
+                        lista.adicionar(Movimento.criarCaptura(casa, salto, vizinho));
+                    }
                 }
             }
         }
-        return contador;
+    }
+
+    /**
+     * Passa a vez para a outra cor, atualizando o hash
+     */
+    public void passarVez() {
+        vez = (vez == CorPeca.BRANCA) ? CorPeca.PRETA : CorPeca.BRANCA;
+        hash ^= CHAVE_VEZ_PRETAS;
+    }
+
+    /**
+     * Índice do tipo de peça da casa ocupada:
+     * 0 = simples branca, 1 = dama branca, 2 = simples preta, 3 = dama preta
+     */
+    private int tipoNaCasa(int casa) {
+        int bit = 1 << casa;
+        return ((pretas & bit) != 0 ? 2 : 0) + ((damas & bit) != 0 ? 1 : 0);
+    }
+
+    /**
+     * Recalcula o hash do zero a partir das máscaras
+     */
+    private long calcularHash() {
+        long h = vez == CorPeca.PRETA ? CHAVE_VEZ_PRETAS : 0L;
+        int ocupadas = brancas | pretas;
+        while (ocupadas != 0) {
+            int casa = Integer.numberOfTrailingZeros(ocupadas);
+            ocupadas &= ocupadas - 1;
+            h ^= CHAVES_ZOBRIST[tipoNaCasa(casa)][casa];
+        }
+        return h;
+    }
+
+    // Contagens em O(1): população de bits das máscaras mantidas a cada lance
+    public int contarPecas(CorPeca cor) {
+        return Integer.bitCount(getMascara(cor));
+    }
+
+    public int contarPecasSimples(CorPeca cor) {
+        return Integer.bitCount(getMascara(cor) & ~damas);
+    }
+
+    public int contarDamas(CorPeca cor) {
+        return Integer.bitCount(getMascara(cor) & damas);
+    }
+
+    /**
+     * Cor da peça nas coordenadas, ou null se a casa estiver vazia ou não existir
+     */
+    public CorPeca getCor(int linha, int coluna) {
+        int casa = indiceCasa(linha, coluna);
+        if (casa < 0) return null;
+        int bit = 1 << casa;
+        if ((brancas & bit) != 0) return CorPeca.BRANCA;
+        if ((pretas & bit) != 0) return CorPeca.PRETA;
+        return null;
     }
 
     private void validarPosicao(Posicao posicao) throws PosicaoInvalidaException {
-        if (posicao.getLinha() < 0 || posicao.getLinha() >= TAMANHO ||
-            posicao.getColuna() < 0 || posicao.getColuna() >= TAMANHO) {
+        if (!dentroDoTabuleiro(posicao.getLinha(), posicao.getColuna())) {
             throw new PosicaoInvalidaException("Posição inválida: " + posicao);
         }
     }
 
+    public static boolean dentroDoTabuleiro(int linha, int coluna) {
+        return linha >= 0 && linha < TAMANHO && coluna >= 0 && coluna < TAMANHO;
+    }
+
+    /**
+     * Converte coordenadas em índice de casa jogável (0 a 31).
+     * Retorna -1 para casas claras ou fora do tabuleiro.
+     */
+    public static int indiceCasa(int linha, int coluna) {
+        if (linha < 0 || linha >= TAMANHO || coluna < 0 || coluna >= TAMANHO
+                || ((linha + coluna) & 1) == 0) {
+            return -1;
+        }
+        return linha * 4 + (coluna >> 1);
+    }
+
+    public static int linhaDaCasa(int casa) {
+        return casa >> 2;
+    }
+
+    public static int colunaDaCasa(int casa) {
+        int linha = casa >> 2;
+        return ((casa & 3) << 1) + (1 - (linha & 1));
+    }
+
+    /**
+     * Casas a partir da casa na direção (0 = (-1,-1), 1 = (-1,+1), 2 = (+1,-1), 3 = (+1,+1)),
+     * da mais próxima à borda. O array é compartilhado e não deve ser alterado.
+     */
+    public static int[] raio(int casa, int direcao) {
+        return RAIOS[casa][direcao];
+    }
+
+    /**
+     * Máscara das casas estritamente entre origem e destino na mesma diagonal;
+     * 0 se forem vizinhas ou não estiverem na mesma diagonal
+     */
+    public static int casasEntre(int origem, int destino) {
+        return ENTRE[origem][destino];
+    }
+
     // Getters
     public static int getTamanho() { return TAMANHO; }
     public List<Peca> getPecasCapturadas() { return new ArrayList<>(pecasCapturadas); }
-}
\ No newline at end of file
+
+    /** Hash Zobrist de 64 bits da posição (peças e lado a jogar) */
+    public long getHash() { return hash; }
+    public CorPeca getVez() { return vez; }
+
+    /** Máscara das casas ocupadas por peças da cor */
+    public int getMascara(CorPeca cor) {
+        return cor == CorPeca.BRANCA ? brancas : pretas;
+    }
+
+    /** Máscara das casas ocupadas por damas de ambas as cores */
+    public int getMascaraDamas() {
+        return damas;
+    }
+
+    /** Máscara de todas as casas ocupadas */
+    public int getMascaraOcupadas() {
+        return brancas | pretas;
+    }
+}
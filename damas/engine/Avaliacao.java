@@ -0,0 +1,66 @@
+package damas.engine;
+
+import damas.core.CorPeca;
+import damas.core.Tabuleiro;
+
+/**
+ * Avaliação estática de posições, em centésimos de peça simples.
+ * Os valores por casa são pré-calculados e somados sobre os bits das máscaras.
+ */
+public final class Avaliacao {
+    public static final int VALOR_SIMPLES = 100;
+    public static final int VALOR_DAMA = 250;
+
+    /** Pontuação de vitória; mates mais curtos valem mais (VITORIA - ply) */
+    public static final int VITORIA = 100000;
+
+    /** Posição ganha segundo as tabelas de finais, sem distância até a vitória */
+    public static final int VITORIA_FINAIS = VITORIA / 2;
+
+    private static final int[] SIMPLES_BRANCA = new int[Tabuleiro.NUM_CASAS];
+    private static final int[] SIMPLES_PRETA = new int[Tabuleiro.NUM_CASAS];
+    private static final int[] DAMA = new int[Tabuleiro.NUM_CASAS];
+
+    static {
+        for (int casa = 0; casa < Tabuleiro.NUM_CASAS; casa++) {
+            int linha = Tabuleiro.linhaDaCasa(casa);
+            int coluna = Tabuleiro.colunaDaCasa(casa);
+            boolean centro = linha >= 2 && linha <= 5 && coluna >= 2 && coluna <= 5;
+
+            // Peças simples valem mais perto da promoção e guardando a linha de fundo
+            SIMPLES_BRANCA[casa] = VALOR_SIMPLES + (7 - linha) * 4 + (centro ? 6 : 0) + (linha == 7 ? 10 : 0);
+            SIMPLES_PRETA[casa] = VALOR_SIMPLES + linha * 4 + (centro ? 6 : 0) + (linha == 0 ? 10 : 0);
+
+            // Damas preferem as diagonais longas do centro
+            DAMA[casa] = VALOR_DAMA + (centro ? 10 : 0);
+        }
+    }
+
+    private Avaliacao() {}
+
+    /**
+     * Avalia a posição do ponto de vista da cor que tem a vez
+     */
+    public static int avaliar(Tabuleiro tabuleiro) {
+        int brancas = tabuleiro.getMascara(CorPeca.BRANCA);
+        int pretas = tabuleiro.getMascara(CorPeca.PRETA);
+        int damas = tabuleiro.getMascaraDamas();
+
+        int pontos = somar(brancas & ~damas, SIMPLES_BRANCA) + somar(brancas & damas, DAMA)
+                   - somar(pretas & ~damas, SIMPLES_PRETA) - somar(pretas & damas, DAMA);
+        return tabuleiro.getVez() == CorPeca.BRANCA ? pontos : -pontos;
+    }
+
+    private static int somar(int mascara, int[] valores) {
+        int total = 0;
+        while (mascara != 0) {
+            total += valores[Integer.numberOfTrailingZeros(mascara)];
+            mascara &= mascara - 1;
+        }
+        return total;
+    }
+
+    public static boolean isVitoria(int pontuacao) {
+        return Math.abs(pontuacao) >= VITORIA - Motor.MAX_PLY;
+    }
+}
@@ -0,0 +1,77 @@
+package damas.engine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import damas.core.ListaMovimentos;
+import damas.core.Tabuleiro;
+
+/**
+ * Mede o tempo até a profundidade de BuscaParalela com 1, 2, 4, ... threads
+ * sobre um conjunto fixo de posições (inicial e aberturas sorteadas com semente fixa).
+ *
+ * Uso: java -cp bin damas.engine.BancadaParalela [profundidade] [maxThreads] [tabelaMB]
+ */
+public class BancadaParalela {
+    private static final int POSICOES_SORTEADAS = 7;
+
+    public static void main(String[] args) {
+        int profundidade = args.length > 0 ? Integer.parseInt(args[0]) : 12;
+        int maxThreads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        int tabelaMB = args.length > 2 ? Integer.parseInt(args[2]) : 64;
+
+        List<Tabuleiro> posicoes = criarPosicoes();
+        System.out.printf("=== Tempo até profundidade %d (%d posições, tabela %d MB) ===%n",
+                          profundidade, posicoes.size(), tabelaMB);
+
+        // Aquecimento do JIT
+        try (BuscaParalela busca = new BuscaParalela(1, tabelaMB)) {
+            busca.buscar(posicoes.get(0), Math.min(profundidade, 8), Long.MAX_VALUE / 2_000_000L);
+        }
+
+        double tempoBase = 0;
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            long nos = 0;
+            long tempo = 0;
+            EstatisticasTabela tabela = EstatisticasTabela.VAZIA;
+            for (Tabuleiro posicao : posicoes) {
+                // Tabela nova por posição para que as medições não se influenciem
+                try (BuscaParalela busca = new BuscaParalela(threads, tabelaMB)) {
+                    ResultadoBusca r = busca.buscar(posicao, profundidade, Long.MAX_VALUE / 2_000_000L);
+                    nos += r.getNos();
+                    tempo += r.getTempoNanos();
+                    tabela = tabela.somar(r.getEstatisticasTabela());
+                }
+            }
+            double segundos = tempo / 1e9;
+            if (threads == 1) tempoBase = segundos;
+            System.out.printf("%2d threads: %8.3f s  %,14d nós  %,12d nós/s  aceleração %.2fx  tt %.1f%% acertos%n",
+                              threads, segundos, nos, (long) (nos / segundos), tempoBase / segundos,
+                              tabela.getTaxaAcerto() * 100);
+        }
+    }
+
+    private static List<Tabuleiro> criarPosicoes() {
+        List<Tabuleiro> posicoes = new ArrayList<>();
+        posicoes.add(new Tabuleiro());
+        Random aleatorio = new Random(2024);
+        ListaMovimentos lista = new ListaMovimentos();
+        while (posicoes.size() < POSICOES_SORTEADAS + 1) {
+            Tabuleiro t = new Tabuleiro();
+            int lances = 6 + 2 * posicoes.size();
+            boolean valida = true;
+            for (int i = 0; i < lances && valida; i++) {
+                lista.limpar();
+                t.gerarMovimentosLegais(t.getVez(), lista);
+                valida = !lista.isVazia();
+                if (valida) {
+                    t.aplicarMovimento(lista.get(aleatorio.nextInt(lista.tamanho())));
+                }
+            }
+            if (valida) {
+                posicoes.add(t);
+            }
+        }
+        return posicoes;
+    }
+}
@@ -0,0 +1,134 @@
+package damas.engine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import damas.core.Tabuleiro;
+import damas.finais.TabelaFinais;
+
+/**
+ * Busca paralela no estilo Lazy SMP: todas as threads buscam a mesma raiz,
+ * cada uma com seu próprio Motor (e portanto sua própria pilha de tabuleiros),
+ * e se comunicam apenas pela tabela de transposição compartilhada.
+ *
+ * A tabela não usa travas: cada entrada é gravada como chave ^ dados, e uma
+ * entrada misturada por escritas concorrentes é descartada na consulta.
+ * As estatísticas da tabela ficam aproximadas sob concorrência.
+ */
+public class BuscaParalela implements Buscador, AutoCloseable {
+    private final TabelaTransposicao tabela;
+    private final Motor[] motores;
+    private final ExecutorService auxiliares;
+
+    public BuscaParalela(int threads) {
+        this(threads, Motor.TAMANHO_TABELA_PADRAO_MB);
+    }
+
+    public BuscaParalela(int threads, int tamanhoTabelaMB) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Número de threads deve ser positivo");
+        }
+        this.tabela = new TabelaTransposicao(tamanhoTabelaMB);
+        this.motores = new Motor[threads];
+        for (int i = 0; i < threads; i++) {
+            motores[i] = new Motor(tabela);
+        }
+        this.auxiliares = threads > 1
+                ? Executors.newFixedThreadPool(threads - 1, r -> {
+                      Thread t = new Thread(r, "busca-auxiliar");
+                      t.setDaemon(true);
+                      return t;
+                  })
+                : null;
+    }
+
+    @Override
+    public ResultadoBusca buscar(Tabuleiro posicao, int profundidadeMaxima, long tempoLimiteMs,
+                                 BooleanSupplier interromper) {
+        tabela.novaBusca();
+        for (Motor motor : motores) {
+            motor.rearmar(interromper);
+        }
+
+        // Metade das auxiliares começa uma profundidade adiante para diversificar a busca
+        List<Future<ResultadoBusca>> futuros = new ArrayList<>(motores.length - 1);
+        for (int i = 1; i < motores.length; i++) {
+            Motor motor = motores[i];
+            int profundidadeInicial = 1 + (i & 1);
+            futuros.add(auxiliares.submit(() ->
+                    motor.iterar(posicao, profundidadeMaxima, tempoLimiteMs, profundidadeInicial, true)));
+        }
+
+        ResultadoBusca principal = motores[0].iterar(posicao, profundidadeMaxima, tempoLimiteMs, 1, false);
+
+        long nos = motores[0].getNos();
+        for (int i = 1; i < motores.length; i++) {
+            motores[i].parar();
+            try {
+                futuros.get(i - 1).get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Falha em busca auxiliar", e.getCause());
+            }
+            nos += motores[i].getNos();
+        }
+
+        return new ResultadoBusca(principal.getMelhorMovimento(), principal.getPontuacao(),
+                                  principal.getProfundidade(), nos, principal.getTempoNanos(),
+                                  principal.getVariacaoPrincipal(), getEstatisticasTabela());
+    }
+
+    @Override
+    public void parar() {
+        for (Motor motor : motores) {
+            motor.parar();
+        }
+    }
+
+    @Override
+    public void setOuvinte(Consumer<ResultadoBusca> ouvinte) {
+        motores[0].setOuvinte(ouvinte);
+    }
+
+    @Override
+    public TabelaTransposicao getTabela() {
+        return tabela;
+    }
+
+    /**
+     * Soma das estatísticas de todas as threads, cada uma contada no próprio Motor
+     */
+    @Override
+    public EstatisticasTabela getEstatisticasTabela() {
+        EstatisticasTabela total = EstatisticasTabela.VAZIA;
+        for (Motor motor : motores) {
+            total = total.somar(motor.getEstatisticasTabela());
+        }
+        return total;
+    }
+
+    @Override
+    public void setFinais(TabelaFinais finais) {
+        for (Motor motor : motores) {
+            motor.setFinais(finais);
+        }
+    }
+
+    public int getThreads() {
+        return motores.length;
+    }
+
+    @Override
+    public void close() {
+        parar();
+        if (auxiliares != null) {
+            auxiliares.shutdownNow();
+        }
+    }
+}
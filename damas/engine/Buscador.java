@@ -0,0 +1,50 @@
+package damas.engine;
+
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import damas.core.Tabuleiro;
+import damas.finais.TabelaFinais;
+
+/**
+ * Interface comum das buscas de uma thread (Motor) e paralela (BuscaParalela)
+ */
+public interface Buscador {
+
+    /**
+     * Busca o melhor lance para a cor que tem a vez, sem alterar o tabuleiro recebido.
+     * Retorna Movimento.NENHUM como melhor lance se não houver lances legais.
+     */
+    default ResultadoBusca buscar(Tabuleiro posicao, int profundidadeMaxima, long tempoLimiteMs) {
+        return buscar(posicao, profundidadeMaxima, tempoLimiteMs, null);
+    }
+
+    /**
+     * Como buscar, mas para também quando interromper retornar true, condição
+     * consultada no início e periodicamente durante a busca. Ao contrário de parar(),
+     * que a próxima busca desfaz ao começar, a condição não se perde se vier antes.
+     */
+    ResultadoBusca buscar(Tabuleiro posicao, int profundidadeMaxima, long tempoLimiteMs,
+                          BooleanSupplier interromper);
+
+    /**
+     * Interrompe a busca em andamento; buscar() retorna o resultado da última iteração completa
+     */
+    void parar();
+
+    /**
+     * Recebe o resultado de cada iteração completa (profundidade, nós/s, variação principal)
+     */
+    void setOuvinte(Consumer<ResultadoBusca> ouvinte);
+
+    TabelaTransposicao getTabela();
+
+    /**
+     * Consultas, acertos e gravações na tabela de transposição durante a última busca
+     */
+    EstatisticasTabela getEstatisticasTabela();
+
+    /**
+     * Tabelas de finais consultadas na busca (null para não usar)
+     */
+    void setFinais(TabelaFinais finais);
+}
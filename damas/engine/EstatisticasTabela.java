@@ -0,0 +1,45 @@
+package damas.engine;
+
+/**
+ * Uso da tabela de transposição em uma busca. Cada Motor conta as próprias
+ * consultas e gravações (a tabela é compartilhada pelas threads de BuscaParalela,
+ * e contadores nela seriam escritos por todas a cada nó); os totais são somados
+ * só quando pedidos.
+ */
+public final class EstatisticasTabela {
+    public static final EstatisticasTabela VAZIA = new EstatisticasTabela(0, 0, 0, 0);
+
+    private final long consultas;
+    private final long acertos;
+    private final long gravacoes;
+    private final long substituicoes;
+
+    public EstatisticasTabela(long consultas, long acertos, long gravacoes, long substituicoes) {
+        this.consultas = consultas;
+        this.acertos = acertos;
+        this.gravacoes = gravacoes;
+        this.substituicoes = substituicoes;
+    }
+
+    public EstatisticasTabela somar(EstatisticasTabela outra) {
+        return new EstatisticasTabela(consultas + outra.consultas, acertos + outra.acertos,
+                                      gravacoes + outra.gravacoes, substituicoes + outra.substituicoes);
+    }
+
+    public long getConsultas() { return consultas; }
+    public long getAcertos() { return acertos; }
+    public long getGravacoes() { return gravacoes; }
+
+    /** Gravações que tiraram da tabela uma entrada de outra posição */
+    public long getSubstituicoes() { return substituicoes; }
+
+    public double getTaxaAcerto() {
+        return consultas == 0 ? 0.0 : (double) acertos / consultas;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d consultas, %.1f%% acertos, %d gravações, %d substituições",
+                             consultas, getTaxaAcerto() * 100, gravacoes, substituicoes);
+    }
+}
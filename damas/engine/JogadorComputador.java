@@ -0,0 +1,196 @@
+package damas.engine;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.function.BooleanSupplier;
+import damas.abertura.LivroAberturas;
+import damas.core.CorPeca;
+import damas.core.Jogador;
+import damas.core.Jogo;
+import damas.core.ListaMovimentos;
+import damas.core.Movimento;
+import damas.core.Tabuleiro;
+import damas.finais.TabelaFinais;
+
+/**
+ * Jogador controlado pelo motor de busca
+ */
+public class JogadorComputador extends Jogador {
+    private static final long serialVersionUID = 1L;
+
+    public static final int PROFUNDIDADE_PADRAO = 64;
+    public static final long TEMPO_PADRAO_MS = 1000;
+
+    private final int profundidadeMaxima;
+    private final long tempoPorLanceMs;
+    private final int threads;
+    private transient Buscador buscador;
+    private transient volatile ResultadoBusca ultimaBusca;
+    private transient LivroAberturas livro;
+    private transient SplittableRandom aleatorio;
+    private transient Map<Long, ResultadoBusca> ponderadas;   // hash da posição -> busca feita em ponderar
+    private transient long hashInterrompida;                  // a busca de ponderar que não terminou
+
+    public JogadorComputador(String nome, CorPeca cor) {
+        this(nome, cor, PROFUNDIDADE_PADRAO, TEMPO_PADRAO_MS);
+    }
+
+    public JogadorComputador(String nome, CorPeca cor, int profundidadeMaxima, long tempoPorLanceMs) {
+        this(nome, cor, profundidadeMaxima, tempoPorLanceMs, 1);
+    }
+
+    /**
+     * Com threads > 1 a busca usa BuscaParalela
+     */
+    public JogadorComputador(String nome, CorPeca cor, int profundidadeMaxima, long tempoPorLanceMs,
+                             int threads) {
+        super(nome, cor);
+        this.profundidadeMaxima = profundidadeMaxima;
+        this.tempoPorLanceMs = tempoPorLanceMs;
+        this.threads = threads;
+    }
+
+    @Override
+    public boolean isAutomatico() {
+        return true;
+    }
+
+    @Override
+    public int escolherMovimento(Jogo jogo) {
+        return escolherMovimento(jogo.getTabuleiro());
+    }
+
+    /**
+     * Escolhe o lance para a posição sem alterá-la; pode ser chamado fora da thread
+     * que controla o jogo, com uma cópia do tabuleiro (ver damas.ui.ServicoAnalise)
+     */
+    public int escolherMovimento(Tabuleiro posicao) {
+        return escolherMovimento(posicao, null);
+    }
+
+    /**
+     * Como escolherMovimento(Tabuleiro), mas a busca para quando interromper (pode ser
+     * null) retornar true; o lance escolhido então é o da última iteração completa
+     */
+    public int escolherMovimento(Tabuleiro posicao, BooleanSupplier interromper) {
+        // Dentro do livro o lance sai sem busca
+        if (livro != null) {
+            int lance = livro.escolher(posicao, aleatorio);
+            if (lance != Movimento.NENHUM) {
+                ultimaBusca = null;
+                return lance;
+            }
+        }
+
+        // Resposta já buscada no tempo do adversário: sai na hora se a busca terminou;
+        // se foi interrompida, continua pelo tempo restante, com a tabela de transposição já cheia
+        ResultadoBusca ponderada = ponderadas == null ? null : ponderadas.get(posicao.getHash());
+        boolean completa = ponderada != null && posicao.getHash() != hashInterrompida;
+        if (ponderadas != null) {
+            ponderadas.clear();
+        }
+        if (ponderada != null && posicao.gerarMovimentosLegais(posicao.getVez()).contem(ponderada.getMelhorMovimento())) {
+            long restanteMs = tempoPorLanceMs - ponderada.getTempoNanos() / 1_000_000;
+            if (!completa && restanteMs > 0 && !Avaliacao.isVitoria(ponderada.getPontuacao())
+                    && ponderada.getProfundidade() < profundidadeMaxima) {
+                ResultadoBusca continuada = getBuscador().buscar(posicao, profundidadeMaxima, restanteMs, interromper);
+                if (continuada.getProfundidade() >= ponderada.getProfundidade()) {
+                    ponderada = continuada;
+                }
+            }
+            ultimaBusca = ponderada;
+            return ponderada.getMelhorMovimento();
+        }
+
+        ultimaBusca = getBuscador().buscar(posicao, profundidadeMaxima, tempoPorLanceMs, interromper);
+        return ultimaBusca.getMelhorMovimento();
+    }
+
+    /**
+     * Pensa no tempo do adversário: posicao é a de depois do nosso lance, com a vez dele.
+     * Busca a resposta a cada lance dele, começando pela prevista na variação principal
+     * da última busca e seguindo pelas capturas e pelos demais, cada uma pelo tempo de um
+     * lance, até interromper retornar true. A condição também é consultada durante cada
+     * busca, então um pedido de parada que chegue antes de ela começar não se perde;
+     * getBuscador().parar() apenas faz a busca em andamento parar mais cedo.
+     *
+     * Os resultados ficam guardados pelo hash da posição; se o adversário jogar um lance
+     * já ponderado, escolherMovimento usa o resultado em vez de buscar de novo. Não deve
+     * ser chamado ao mesmo tempo que escolherMovimento.
+     */
+    public void ponderar(Tabuleiro posicao, BooleanSupplier interromper) {
+        if (ponderadas == null) {
+            ponderadas = new HashMap<>();
+        }
+        ponderadas.clear();
+        hashInterrompida = 0;
+        ListaMovimentos respostas = ordenarRespostas(posicao);
+        Tabuleiro apos = new Tabuleiro();
+        for (int i = 0; i < respostas.tamanho() && !interromper.getAsBoolean(); i++) {
+            apos.copiarDe(posicao);
+            apos.aplicarMovimento(respostas.get(i));
+            if (livro != null && !livro.consultar(apos).isEmpty()) {
+                continue;   // a resposta sairá do livro
+            }
+            ResultadoBusca resultado = getBuscador().buscar(apos, profundidadeMaxima, tempoPorLanceMs, interromper);
+            if (resultado.getMelhorMovimento() != Movimento.NENHUM && resultado.getProfundidade() > 0) {
+                ponderadas.put(apos.getHash(), resultado);   // mesmo interrompida: vale a última iteração completa
+                if (interromper.getAsBoolean()) {
+                    hashInterrompida = apos.getHash();
+                }
+            }
+        }
+    }
+
+    // Lances do adversário na ordem em que vale a pena ponderar: o previsto, capturas, os demais
+    private ListaMovimentos ordenarRespostas(Tabuleiro posicao) {
+        ListaMovimentos legais = posicao.gerarMovimentosLegais(posicao.getVez());
+        ListaMovimentos ordem = new ListaMovimentos(Math.max(1, legais.tamanho()));
+        ResultadoBusca anterior = ultimaBusca;
+        if (anterior != null) {
+            int[] variacao = anterior.getVariacaoPrincipal();
+            if (variacao.length > 1 && legais.contem(variacao[1])) {
+                ordem.adicionar(variacao[1]);
+            }
+        }
+        for (int captura = 1; captura >= 0; captura--) {
+            for (int i = 0; i < legais.tamanho(); i++) {
+                int movimento = legais.get(i);
+                if (Movimento.isCaptura(movimento) == (captura == 1) && !ordem.contem(movimento)) {
+                    ordem.adicionar(movimento);
+                }
+            }
+        }
+        return ordem;
+    }
+
+    public Buscador getBuscador() {
+        if (buscador == null) {
+            buscador = threads > 1 ? new BuscaParalela(threads) : new Motor();
+        }
+        return buscador;
+    }
+
+    /**
+     * Tabelas de finais consultadas pelo motor (null para não usar)
+     */
+    public void setFinais(TabelaFinais finais) {
+        getBuscador().setFinais(finais);
+    }
+
+    /**
+     * Livro de aberturas consultado antes da busca (null para não usar)
+     */
+    public void setLivro(LivroAberturas livro) {
+        this.livro = livro;
+        if (aleatorio == null) {
+            aleatorio = new SplittableRandom();
+        }
+    }
+
+    /** Resultado da última busca (pontuação, nós/s e variação principal), ou null */
+    public ResultadoBusca getUltimaBusca() {
+        return ultimaBusca;
+    }
+}
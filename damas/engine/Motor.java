@@ -0,0 +1,421 @@
+package damas.engine;
+
+import java.util.Arrays;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import damas.core.ListaMovimentos;
+import damas.core.Movimento;
+import damas.core.Tabuleiro;
+import damas.finais.TabelaFinais;
+
+/**
+ * Motor de busca: negamax com poda alfa-beta, aprofundamento iterativo,
+ * quiescência nas capturas e ordenação de lances (lance da iteração anterior,
+ * capturas, lances killer e heurística de histórico).
+ *
+ * Usa cópia-e-aplica sobre uma pilha de tabuleiros pré-alocada, sem alocar
+ * objetos durante a busca, e uma tabela de transposição para cortes e ordenação.
+ * Com tabelas de finais, posições cobertas por elas viram folhas com o valor exato;
+ * se a própria raiz está nas tabelas, a busca fica restrita aos lances que preservam
+ * o resultado e segue sem consultá-las, para escolher entre eles pelo progresso.
+ * Uma instância não deve ser usada por duas threads ao mesmo tempo; para busca
+ * em várias threads, ver BuscaParalela.
+ */
+public class Motor implements Buscador {
+    public static final int MAX_PLY = 128;
+
+    private static final int INFINITO = Avaliacao.VITORIA + 1;
+    private static final int INTERVALO_VERIFICACAO = 2048;
+    public static final int TAMANHO_TABELA_PADRAO_MB = 16;
+
+    private final Tabuleiro[] pilha = new Tabuleiro[MAX_PLY + 1];
+    private final ListaMovimentos[] listas = new ListaMovimentos[MAX_PLY];
+    private final int[][] notas = new int[MAX_PLY][];
+    private final int[][] killers = new int[MAX_PLY][2];
+    private final int[][] historico = new int[Tabuleiro.NUM_CASAS][Tabuleiro.NUM_CASAS];
+    private final int[][] pv = new int[MAX_PLY][MAX_PLY];
+    private final int[] pvTamanho = new int[MAX_PLY];
+    private final TabelaTransposicao tabela;
+
+    private volatile boolean parar;
+    private BooleanSupplier interromper;
+    private long prazoNanos;
+    private long nos;
+    // Uso da tabela nesta busca, contado por motor (ver EstatisticasTabela)
+    private long consultasTabela;
+    private long acertosTabela;
+    private long gravacoesTabela;
+    private long substituicoesTabela;
+    private int melhorRaizAnterior;
+    private Consumer<ResultadoBusca> ouvinte;
+    private TabelaFinais finais;
+    private int valorRaizFinais = TabelaFinais.DESCONHECIDO;
+
+    public Motor() {
+        this(new TabelaTransposicao(TAMANHO_TABELA_PADRAO_MB));
+    }
+
+    public Motor(TabelaTransposicao tabela) {
+        this.tabela = tabela;
+        for (int i = 0; i <= MAX_PLY; i++) {
+            pilha[i] = new Tabuleiro();
+        }
+        for (int i = 0; i < MAX_PLY; i++) {
+            listas[i] = new ListaMovimentos(64);
+            notas[i] = new int[64];
+        }
+    }
+
+    @Override
+    public void setOuvinte(Consumer<ResultadoBusca> ouvinte) {
+        this.ouvinte = ouvinte;
+    }
+
+    @Override
+    public void setFinais(TabelaFinais finais) {
+        this.finais = finais;
+    }
+
+    @Override
+    public void parar() {
+        parar = true;
+    }
+
+    @Override
+    public ResultadoBusca buscar(Tabuleiro posicao, int profundidadeMaxima, long tempoLimiteMs,
+                                 BooleanSupplier interromper) {
+        rearmar(interromper);
+        tabela.novaBusca();
+        return iterar(posicao, profundidadeMaxima, tempoLimiteMs, 1, false);
+    }
+
+    /**
+     * Libera a próxima busca depois de uma chamada a parar(); ela para também
+     * quando interromper (pode ser null) retornar true, inclusive já agora
+     */
+    void rearmar(BooleanSupplier interromper) {
+        this.interromper = interromper;
+        parar = interromper != null && interromper.getAsBoolean();
+    }
+
+    /**
+     * Aprofundamento iterativo a partir de profundidadeInicial. Buscas auxiliares
+     * (BuscaParalela) só param por parar(), profundidade máxima ou prazo, e não notificam o ouvinte.
+     */
+    ResultadoBusca iterar(Tabuleiro posicao, int profundidadeMaxima, long tempoLimiteMs,
+                          int profundidadeInicial, boolean auxiliar) {
+        long inicio = System.nanoTime();
+        prazoNanos = inicio + tempoLimiteMs * 1_000_000L;
+        nos = 0;
+        consultasTabela = acertosTabela = gravacoesTabela = substituicoesTabela = 0;
+        melhorRaizAnterior = Movimento.NENHUM;
+        limparHeuristicas();
+        pilha[0].copiarDe(posicao);
+        valorRaizFinais = finais != null ? finais.valor(posicao) : TabelaFinais.DESCONHECIDO;
+
+        ListaMovimentos raiz = new ListaMovimentos();
+        posicao.gerarMovimentosLegais(posicao.getVez(), raiz);
+        ResultadoBusca resultado = new ResultadoBusca(
+                raiz.isVazia() ? Movimento.NENHUM : raiz.get(0), -Avaliacao.VITORIA, 0, 0, 0, new int[0]);
+        if (raiz.tamanho() <= 1) {
+            return resultado;
+        }
+        if (!algumLancePreserva(posicao, raiz)) {
+            // Nenhum filho nas tabelas com o resultado da raiz (ex.: a captura leva a um material
+            // não carregado): busca sem restringir os lances, consultando as tabelas nas folhas
+            valorRaizFinais = TabelaFinais.DESCONHECIDO;
+        }
+
+        for (int profundidade = profundidadeInicial;
+                profundidade <= profundidadeMaxima && profundidade < MAX_PLY; profundidade++) {
+            int pontuacao = negamax(0, profundidade, -INFINITO, INFINITO);
+            if (parar || pvTamanho[0] == 0) {
+                break;
+            }
+
+            int[] variacao = new int[pvTamanho[0]];
+            System.arraycopy(pv[0], 0, variacao, 0, variacao.length);
+            melhorRaizAnterior = variacao[0];
+            resultado = new ResultadoBusca(variacao[0], pontuacao, profundidade, nos,
+                                           System.nanoTime() - inicio, variacao, getEstatisticasTabela());
+            if (auxiliar) {
+                continue;
+            }
+            if (ouvinte != null) {
+                ouvinte.accept(resultado);
+            }
+
+            // Não inicia uma iteração que provavelmente não terminaria a tempo
+            if (Avaliacao.isVitoria(pontuacao) || System.nanoTime() - inicio > (prazoNanos - inicio) / 2) {
+                break;
+            }
+        }
+        return resultado;
+    }
+
+    private int negamax(int ply, int profundidade, int alfa, int beta) {
+        if (profundidade <= 0 || ply >= MAX_PLY - 1) {
+            return quiescencia(ply, alfa, beta);
+        }
+        contarNo();
+        pvTamanho[ply] = 0;
+        if (parar) return 0;
+
+        Tabuleiro posicao = pilha[ply];
+        if (ply > 0 && finais != null && valorRaizFinais == TabelaFinais.DESCONHECIDO) {
+            int valor = finais.valor(posicao);
+            if (valor != TabelaFinais.DESCONHECIDO) {
+                return pontuacaoFinais(valor);
+            }
+        }
+        int alfaOriginal = alfa;
+        int lanceTabela = Movimento.NENHUM;
+        long entrada = tabela.consultar(posicao.getHash());
+        consultasTabela++;
+        if (entrada != TabelaTransposicao.AUSENTE) {
+            acertosTabela++;
+            lanceTabela = TabelaTransposicao.movimento(entrada);
+            if (ply > 0 && TabelaTransposicao.profundidade(entrada) >= profundidade) {
+                int valor = pontuacaoDaTabela(TabelaTransposicao.pontuacao(entrada), ply);
+                int tipo = TabelaTransposicao.tipo(entrada);
+                if (tipo == TabelaTransposicao.EXATO
+                        || (tipo == TabelaTransposicao.LIMITE_INFERIOR && valor >= beta)
+                        || (tipo == TabelaTransposicao.LIMITE_SUPERIOR && valor <= alfa)) {
+                    return valor;
+                }
+            }
+        }
+
+        ListaMovimentos lista = listas[ply];
+        lista.limpar();
+        posicao.gerarMovimentosLegais(posicao.getVez(), lista);
+        if (lista.isVazia()) {
+            return -Avaliacao.VITORIA + ply;   // sem lances: derrota
+        }
+
+        pontuarLances(ply, lista, ply == 0 && melhorRaizAnterior != Movimento.NENHUM
+                                  ? melhorRaizAnterior : lanceTabela);
+        int melhor = -INFINITO;
+        int melhorLance = Movimento.NENHUM;
+        for (int i = 0; i < lista.tamanho(); i++) {
+            int movimento = proximoLance(ply, lista, i);
+            Tabuleiro filho = pilha[ply + 1];
+            filho.copiarDe(posicao);
+            filho.aplicarMovimento(movimento);
+            if (ply == 0 && !preservaResultado(filho)) {
+                continue;
+            }
+
+            int valor = -negamax(ply + 1, profundidade - 1, -beta, -alfa);
+            if (parar) return 0;
+
+            if (valor > melhor) {
+                melhor = valor;
+                melhorLance = movimento;
+                if (valor > alfa) {
+                    alfa = valor;
+                    atualizarPv(ply, movimento);
+                }
+                if (valor >= beta) {
+                    if (!Movimento.isCaptura(movimento)) {
+                        registrarCorte(ply, movimento, profundidade);
+                    }
+                    break;
+                }
+            }
+        }
+
+        int tipo = melhor >= beta ? TabelaTransposicao.LIMITE_INFERIOR
+                 : melhor > alfaOriginal ? TabelaTransposicao.EXATO
+                 : TabelaTransposicao.LIMITE_SUPERIOR;
+        gravacoesTabela++;
+        if (tabela.gravar(posicao.getHash(), melhorLance, pontuacaoParaTabela(melhor, ply), profundidade, tipo)) {
+            substituicoesTabela++;
+        }
+        return melhor;
+    }
+
+    private static int pontuacaoFinais(int valor) {
+        return valor == TabelaFinais.VITORIA ? Avaliacao.VITORIA_FINAIS
+             : valor == TabelaFinais.DERROTA ? -Avaliacao.VITORIA_FINAIS : 0;
+    }
+
+    /**
+     * Com a raiz nas tabelas de finais, só os lances que mantêm o resultado
+     * (vitória continua vitória, empate continua empate) são buscados
+     */
+    private boolean preservaResultado(Tabuleiro filho) {
+        if (valorRaizFinais == TabelaFinais.DESCONHECIDO || valorRaizFinais == TabelaFinais.DERROTA) {
+            return true;
+        }
+        return finais.valor(filho) == TabelaFinais.paraAdversario(valorRaizFinais);
+    }
+
+    private boolean algumLancePreserva(Tabuleiro posicao, ListaMovimentos raiz) {
+        Tabuleiro filho = pilha[1];
+        for (int i = 0; i < raiz.tamanho(); i++) {
+            filho.copiarDe(posicao);
+            filho.aplicarMovimento(raiz.get(i));
+            if (preservaResultado(filho)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Pontuações de vitória são gravadas relativas ao nó, não à raiz
+    private static int pontuacaoParaTabela(int valor, int ply) {
+        if (valor >= Avaliacao.VITORIA - MAX_PLY) return valor + ply;
+        if (valor <= -Avaliacao.VITORIA + MAX_PLY) return valor - ply;
+        return valor;
+    }
+
+    private static int pontuacaoDaTabela(int valor, int ply) {
+        if (valor >= Avaliacao.VITORIA - MAX_PLY) return valor - ply;
+        if (valor <= -Avaliacao.VITORIA + MAX_PLY) return valor + ply;
+        return valor;
+    }
+
+    /**
+     * Estende a busca apenas com capturas até a posição ficar quieta
+     */
+    private int quiescencia(int ply, int alfa, int beta) {
+        contarNo();
+        pvTamanho[ply] = 0;
+        if (parar) return 0;
+
+        Tabuleiro posicao = pilha[ply];
+        ListaMovimentos lista = listas[ply];
+        lista.limpar();
+        posicao.gerarMovimentosLegais(posicao.getVez(), lista);
+        if (lista.isVazia()) {
+            return -Avaliacao.VITORIA + ply;
+        }
+
+        int parado = Avaliacao.avaliar(posicao);
+        if (parado >= beta || ply >= MAX_PLY - 1) {
+            return parado;
+        }
+        if (parado > alfa) {
+            alfa = parado;
+        }
+
+        pontuarLances(ply, lista, Movimento.NENHUM);
+        int melhor = parado;
+        for (int i = 0; i < lista.tamanho(); i++) {
+            int movimento = proximoLance(ply, lista, i);
+            if (!Movimento.isCaptura(movimento)) {
+                break;                      // capturas vêm primeiro na ordenação
+            }
+            Tabuleiro filho = pilha[ply + 1];
+            filho.copiarDe(posicao);
+            filho.aplicarMovimento(movimento);
+
+            int valor = -quiescencia(ply + 1, -beta, -alfa);
+            if (parar) return 0;
+
+            if (valor > melhor) {
+                melhor = valor;
+                if (valor > alfa) {
+                    alfa = valor;
+                    atualizarPv(ply, movimento);
+                }
+                if (valor >= beta) {
+                    break;
+                }
+            }
+        }
+        return melhor;
+    }
+
+    private void pontuarLances(int ply, ListaMovimentos lista, int lancePreferido) {
+        if (notas[ply].length < lista.tamanho()) {
+            notas[ply] = new int[lista.tamanho() * 2];
+        }
+        int damas = pilha[ply].getMascaraDamas();
+        int[] nota = notas[ply];
+        for (int i = 0; i < lista.tamanho(); i++) {
+            int movimento = lista.get(i);
+            if (movimento == lancePreferido) {
+                nota[i] = 1 << 30;
+            } else if (Movimento.isCaptura(movimento)) {
+                boolean capturaDama = (damas & (1 << Movimento.capturada(movimento))) != 0;
+                nota[i] = (1 << 29) + (capturaDama ? 2 : 1);
+            } else if (movimento == killers[ply][0]) {
+                nota[i] = (1 << 28) + 1;
+            } else if (movimento == killers[ply][1]) {
+                nota[i] = 1 << 28;
+            } else {
+                nota[i] = historico[Movimento.origem(movimento)][Movimento.destino(movimento)];
+            }
+        }
+    }
+
+    /**
+     * Seleção parcial: traz para a posição i o lance de maior nota restante
+     */
+    private int proximoLance(int ply, ListaMovimentos lista, int i) {
+        int[] nota = notas[ply];
+        int melhor = i;
+        for (int j = i + 1; j < lista.tamanho(); j++) {
+            if (nota[j] > nota[melhor]) melhor = j;
+        }
+        if (melhor != i) {
+            int movimento = lista.get(melhor);
+            lista.set(melhor, lista.get(i));
+            lista.set(i, movimento);
+            int n = nota[melhor];
+            nota[melhor] = nota[i];
+            nota[i] = n;
+        }
+        return lista.get(i);
+    }
+
+    private void registrarCorte(int ply, int movimento, int profundidade) {
+        if (killers[ply][0] != movimento) {
+            killers[ply][1] = killers[ply][0];
+            killers[ply][0] = movimento;
+        }
+        int[] linha = historico[Movimento.origem(movimento)];
+        int destino = Movimento.destino(movimento);
+        linha[destino] = Math.min(linha[destino] + profundidade * profundidade, 1 << 27);
+    }
+
+    private void atualizarPv(int ply, int movimento) {
+        pv[ply][0] = movimento;
+        int tamanhoFilho = pvTamanho[ply + 1];
+        System.arraycopy(pv[ply + 1], 0, pv[ply], 1, tamanhoFilho);
+        pvTamanho[ply] = tamanhoFilho + 1;
+    }
+
+    private void limparHeuristicas() {
+        for (int[] k : killers) {
+            k[0] = Movimento.NENHUM;
+            k[1] = Movimento.NENHUM;
+        }
+        for (int[] h : historico) {
+            Arrays.fill(h, 0);
+        }
+    }
+
+    private void contarNo() {
+        if ((++nos & (INTERVALO_VERIFICACAO - 1)) == 0
+                && (System.nanoTime() > prazoNanos || (interromper != null && interromper.getAsBoolean()))) {
+            parar = true;
+        }
+    }
+
+    public long getNos() {
+        return nos;
+    }
+
+    @Override
+    public EstatisticasTabela getEstatisticasTabela() {
+        return new EstatisticasTabela(consultasTabela, acertosTabela, gravacoesTabela, substituicoesTabela);
+    }
+
+    @Override
+    public TabelaTransposicao getTabela() {
+        return tabela;
+    }
+}
@@ -0,0 +1,64 @@
+package damas.engine;
+
+import damas.core.Movimento;
+
+/**
+ * Resultado de uma iteração da busca: melhor lance, pontuação,
+ * variação principal e estatísticas de nós e da tabela de transposição.
+ */
+public class ResultadoBusca {
+    private final int melhorMovimento;
+    private final int pontuacao;
+    private final int profundidade;
+    private final long nos;
+    private final long tempoNanos;
+    private final int[] variacaoPrincipal;
+    private final EstatisticasTabela tabela;
+
+    public ResultadoBusca(int melhorMovimento, int pontuacao, int profundidade,
+                          long nos, long tempoNanos, int[] variacaoPrincipal) {
+        this(melhorMovimento, pontuacao, profundidade, nos, tempoNanos, variacaoPrincipal, EstatisticasTabela.VAZIA);
+    }
+
+    public ResultadoBusca(int melhorMovimento, int pontuacao, int profundidade, long nos,
+                          long tempoNanos, int[] variacaoPrincipal, EstatisticasTabela tabela) {
+        this.melhorMovimento = melhorMovimento;
+        this.pontuacao = pontuacao;
+        this.profundidade = profundidade;
+        this.nos = nos;
+        this.tempoNanos = tempoNanos;
+        this.variacaoPrincipal = variacaoPrincipal;
+        this.tabela = tabela;
+    }
+
+    public int getMelhorMovimento() { return melhorMovimento; }
+    public int getPontuacao() { return pontuacao; }
+    public int getProfundidade() { return profundidade; }
+    public long getNos() { return nos; }
+    public long getTempoNanos() { return tempoNanos; }
+    public EstatisticasTabela getEstatisticasTabela() { return tabela; }
+
+    public int[] getVariacaoPrincipal() {
+        return variacaoPrincipal.clone();
+    }
+
+    public long getNosPorSegundo() {
+        return tempoNanos == 0 ? 0 : nos * 1_000_000_000L / tempoNanos;
+    }
+
+    public String getVariacaoPrincipalTexto() {
+        StringBuilder sb = new StringBuilder();
+        for (int movimento : variacaoPrincipal) {
+            if (sb.length() > 0) sb.append("  ");
+            sb.append(Movimento.toString(movimento));
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("prof %d  pontos %d  nós %d  %d nós/s  tt %.1f%%  pv %s",
+                             profundidade, pontuacao, nos, getNosPorSegundo(),
+                             tabela.getTaxaAcerto() * 100, getVariacaoPrincipalTexto());
+    }
+}
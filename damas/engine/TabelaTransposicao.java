@@ -0,0 +1,152 @@
+package damas.engine;
+
+import java.util.Arrays;
+import damas.core.Movimento;
+
+/**
+ * Tabela de transposição de tamanho fixo (potência de dois), indexada pelo
+ * hash Zobrist da posição e guardada em dois arrays de long.
+ *
+ * Cada balde tem duas entradas: a primeira preferindo a maior profundidade
+ * e a segunda sempre substituída. Entradas de buscas anteriores (outra geração)
+ * podem ser substituídas mesmo com profundidade maior.
+ *
+ * Layout de uma entrada de dados:
+ * bits 0-15 lance, 16-47 pontuação, 48-55 profundidade, 56-57 tipo, 58-63 geração.
+ * A chave é gravada como hash ^ dados para detectar entradas corrompidas.
+ * A tabela não conta consultas nem acertos: ela é compartilhada pelas threads de
+ * BuscaParalela, e cada Motor conta os seus (ver EstatisticasTabela).
+ */
+public class TabelaTransposicao {
+    public static final int EXATO = 1;
+    public static final int LIMITE_INFERIOR = 2;   // pontuação >= beta (corte)
+    public static final int LIMITE_SUPERIOR = 3;   // pontuação <= alfa
+
+    /** Retornado por consultar() quando a posição não está na tabela */
+    public static final long AUSENTE = 0L;
+
+    private static final int BYTES_POR_ENTRADA = 16;
+    private static final int SEM_LANCE = 0xFFFF;
+
+    private final long[] chaves;
+    private final long[] dados;
+    private final int mascaraBaldes;
+    private int geracao;
+
+    public TabelaTransposicao(int tamanhoMB) {
+        if (tamanhoMB < 1) {
+            throw new IllegalArgumentException("Tamanho mínimo da tabela: 1 MB");
+        }
+        long entradas = (long) tamanhoMB * 1024 * 1024 / BYTES_POR_ENTRADA;
+        int baldes = Integer.highestOneBit((int) Math.min(entradas / 2, 1 << 29));
+        this.chaves = new long[baldes * 2];
+        this.dados = new long[baldes * 2];
+        this.mascaraBaldes = baldes - 1;
+    }
+
+    /**
+     * Procura a posição; retorna os dados da entrada ou AUSENTE
+     */
+    public long consultar(long hash) {
+        int i = indice(hash);
+        for (int j = i; j < i + 2; j++) {
+            long d = dados[j];
+            if (d != AUSENTE && (chaves[j] ^ d) == hash) {
+                return d;
+            }
+        }
+        return AUSENTE;
+    }
+
+    /**
+     * Grava a entrada; retorna true se ela tirou da tabela a entrada de outra posição
+     */
+    public boolean gravar(long hash, int movimento, int pontuacao, int profundidade, int tipo) {
+        int i = indice(hash);
+        long novo = (movimento & SEM_LANCE)
+                  | ((pontuacao & 0xFFFFFFFFL) << 16)
+                  | ((long) Math.min(profundidade, 255) << 48)
+                  | ((long) tipo << 56)
+                  | ((long) geracao << 58);
+
+        // Entrada preferencial: vazia, mesma posição, de outra busca ou menos profunda
+        long atual = dados[i];
+        boolean mesmaPosicao = atual != AUSENTE && (chaves[i] ^ atual) == hash;
+        if (atual == AUSENTE || mesmaPosicao || geracao(atual) != geracao
+                || profundidade(atual) <= profundidade) {
+            if (mesmaPosicao && (movimento & SEM_LANCE) == SEM_LANCE) {
+                novo = (novo & ~0xFFFFL) | (atual & 0xFFFFL);   // preserva o lance conhecido
+            }
+            dados[i] = novo;
+            chaves[i] = hash ^ novo;
+            return atual != AUSENTE && !mesmaPosicao;
+        }
+
+        // Caso contrário, a segunda entrada é sempre substituída
+        boolean substituiu = dados[i + 1] != AUSENTE;
+        dados[i + 1] = novo;
+        chaves[i + 1] = hash ^ novo;
+        return substituiu;
+    }
+
+    /**
+     * Marca o início de uma nova busca; entradas antigas passam a ser substituíveis
+     */
+    public void novaBusca() {
+        geracao = (geracao + 1) & 63;
+    }
+
+    public void limpar() {
+        Arrays.fill(chaves, 0L);
+        Arrays.fill(dados, 0L);
+    }
+
+    private int indice(long hash) {
+        return ((int) (hash ^ (hash >>> 32)) & mascaraBaldes) << 1;
+    }
+
+    // Decodificação das entradas
+    public static int movimento(long dados) {
+        int m = (int) (dados & SEM_LANCE);
+        return m == SEM_LANCE ? Movimento.NENHUM : m;
+    }
+
+    public static int pontuacao(long dados) {
+        return (int) (dados >>> 16);
+    }
+
+    public static int profundidade(long dados) {
+        return (int) (dados >>> 48) & 0xFF;
+    }
+
+    public static int tipo(long dados) {
+        return (int) (dados >>> 56) & 3;
+    }
+
+    private static int geracao(long dados) {
+        return (int) (dados >>> 58);
+    }
+
+    public int getNumeroEntradas() { return dados.length; }
+
+    /**
+     * Ocupação estimada em milésimos, por amostragem das primeiras entradas da geração atual
+     */
+    public int getOcupacaoPorMil() {
+        int amostra = Math.min(1000, dados.length);
+        int ocupadas = 0;
+        for (int i = 0; i < amostra; i++) {
+            if (dados[i] != AUSENTE && geracao(dados[i]) == geracao) ocupadas++;
+        }
+        return ocupadas * 1000 / amostra;
+    }
+
+    public long getTamanhoBytes() {
+        return (long) dados.length * BYTES_POR_ENTRADA;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("TT %d MB, ocupação %d‰", getTamanhoBytes() / (1024 * 1024), getOcupacaoPorMil());
+    }
+}
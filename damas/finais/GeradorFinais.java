@@ -0,0 +1,331 @@
+package damas.finais;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import damas.core.*;
+
+/**
+ * Gera as tabelas de finais por análise retrógrada, material por material, das
+ * posições com menos peças para as com mais (ver Material.ate). Capturas e promoções
+ * levam a materiais já resolvidos; os demais lances ficam no próprio material ou no
+ * espelhado, que são resolvidos juntos.
+ *
+ * Cada passada percorre, em paralelo e em blocos, as posições ainda indefinidas que
+ * estão marcadas: vitória se algum lance leva a uma derrota do adversário, derrota se
+ * não há lances ou todos levam a vitórias dele. Cada posição resolvida marca as
+ * predecessoras (lances desfeitos) para a passada seguinte. Quando uma passada não
+ * resolve nada, o que sobra é empate: nenhum dos lados consegue forçar o fim.
+ *
+ * Os valores são bytes escritos só pela thread dona do bloco; leituras de valores
+ * ainda não atualizados por outra thread apenas adiam a resolução para outra passada.
+ *
+ * Uso: java -cp bin damas.finais.GeradorFinais [diretório] [--pecas N] [--threads T]
+ */
+public class GeradorFinais {
+    public static final int MAX_PECAS_PADRAO = 4;
+    private static final int BLOCO = 4096;
+
+    private final Path diretorio;
+    private final int threads;
+    private final TabelaFinais tabela = new TabelaFinais();
+
+    public GeradorFinais(String diretorio, int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Número de threads deve ser positivo");
+        }
+        this.diretorio = Paths.get(diretorio);
+        this.threads = threads;
+    }
+
+    /**
+     * Gera todas as tabelas até maxPecas peças. Tabelas já presentes no diretório
+     * são reaproveitadas, de modo que é possível estender uma geração anterior.
+     */
+    public void gerar(int maxPecas) throws IOException, InterruptedException {
+        Files.createDirectories(diretorio);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            for (Material material : Material.ate(maxPecas)) {
+                if (tabela.contem(material)) {
+                    continue;   // gerado junto com o espelhado
+                }
+                Path arquivo = arquivo(material);
+                Path espelhado = arquivo(material.espelhado());
+                if (Files.exists(arquivo) && Files.exists(espelhado)) {
+                    tabela.carregar(arquivo);
+                    tabela.carregar(espelhado);
+                    continue;
+                }
+                gerarPar(material, executor);
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Falha na geração de finais", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Path arquivo(Material material) {
+        return diretorio.resolve(material + TabelaFinais.EXTENSAO);
+    }
+
+    /**
+     * Resolve um material junto com o espelhado (ou sozinho, se for simétrico)
+     */
+    private void gerarPar(Material material, ExecutorService executor)
+            throws IOException, InterruptedException, ExecutionException {
+        long inicio = System.nanoTime();
+        Material espelhado = material.espelhado();
+        EmGeracao[] par = espelhado.equals(material)
+                ? new EmGeracao[] { new EmGeracao(material) }
+                : new EmGeracao[] { new EmGeracao(material), new EmGeracao(espelhado) };
+        par[0].outro = par[par.length - 1];
+        par[par.length - 1].outro = par[0];
+
+        int passadas = 0;
+        long resolvidas;
+        do {
+            resolvidas = passada(par, executor);
+            passadas++;
+            for (EmGeracao g : par) {
+                byte[] marcadas = g.marcadas;
+                g.marcadas = g.proximas;
+                g.proximas = marcadas;
+                Arrays.fill(g.proximas, (byte) 0);
+            }
+        } while (resolvidas > 0);
+
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+        for (EmGeracao g : par) {
+            Path destino = arquivo(g.material);
+            gravar(g, destino);
+            tabela.carregar(destino);
+            System.out.printf("%-10s %,12d posições  %,12d vitórias  %,12d derrotas  %,12d empates  %3d passadas  %.1f s%n",
+                              g.material, g.material.tamanho(), g.contar(TabelaFinais.VITORIA),
+                              g.contar(TabelaFinais.DERROTA), g.contar(TabelaFinais.EMPATE), passadas, segundos);
+        }
+    }
+
+    /**
+     * Uma passada sobre as posições marcadas do par, em blocos distribuídos entre as threads
+     */
+    private long passada(EmGeracao[] par, ExecutorService executor)
+            throws InterruptedException, ExecutionException {
+        int blocos0 = par[0].blocos();
+        int blocos = blocos0 + (par.length > 1 ? par[1].blocos() : 0);
+        AtomicInteger proximo = new AtomicInteger();
+
+        List<Future<Long>> parciais = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            parciais.add(executor.submit(() -> {
+                Trabalhador trabalhador = new Trabalhador();
+                long resolvidas = 0;
+                for (int b = proximo.getAndIncrement(); b < blocos; b = proximo.getAndIncrement()) {
+                    EmGeracao g = b < blocos0 ? par[0] : par[1];
+                    int inicio = (b < blocos0 ? b : b - blocos0) * BLOCO;
+                    int fim = Math.min(inicio + BLOCO, g.valores.length);
+                    for (int i = inicio; i < fim; i++) {
+                        if (g.marcadas[i] != 0 && g.valores[i] == TabelaFinais.EMPATE) {
+                            int valor = trabalhador.avaliar(g, i);
+                            if (valor != TabelaFinais.EMPATE) {
+                                g.valores[i] = (byte) valor;
+                                resolvidas++;
+                                if (valor != TabelaFinais.INVALIDA) {
+                                    trabalhador.marcarPredecessoras(g);
+                                }
+                            }
+                        }
+                    }
+                }
+                return resolvidas;
+            }));
+        }
+
+        long total = 0;
+        for (Future<Long> parcial : parciais) {
+            total += parcial.get();
+        }
+        return total;
+    }
+
+    private static void gravar(EmGeracao g, Path destino) throws IOException {
+        Path temporario = destino.resolveSibling(destino.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                Files.newOutputStream(temporario), 1 << 16))) {
+            Material m = g.material;
+            out.writeInt(TabelaFinais.ASSINATURA);
+            out.writeByte(TabelaFinais.VERSAO);
+            out.writeByte(m.getSimplesBrancas());
+            out.writeByte(m.getDamasBrancas());
+            out.writeByte(m.getSimplesPretas());
+            out.writeByte(m.getDamasPretas());
+            out.write(new byte[3]);
+            out.writeLong(m.tamanho());
+
+            byte[] valores = g.valores;
+            for (int i = 0; i < valores.length; i += 4) {
+                int pacote = 0;
+                for (int j = 0; j < 4 && i + j < valores.length; j++) {
+                    pacote |= valores[i + j] << (j << 1);
+                }
+                out.writeByte(pacote);
+            }
+        }
+        Files.move(temporario, destino, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Material em geração: valores (0 = ainda indefinido) e marcas da passada atual e da seguinte
+     */
+    private static class EmGeracao {
+        final Material material;
+        final int codigo;
+        final byte[] valores;
+        byte[] marcadas;
+        byte[] proximas;
+        EmGeracao outro;   // material espelhado (o próprio, se simétrico)
+
+        EmGeracao(Material material) {
+            if (material.tamanho() > Integer.MAX_VALUE - 8) {
+                throw new IllegalArgumentException("Material grande demais para gerar: " + material);
+            }
+            int tamanho = (int) material.tamanho();
+            this.material = material;
+            this.codigo = material.codigo();
+            this.valores = new byte[tamanho];
+            this.marcadas = new byte[tamanho];
+            this.proximas = new byte[tamanho];
+            Arrays.fill(marcadas, (byte) 1);
+        }
+
+        int blocos() {
+            return (valores.length + BLOCO - 1) / BLOCO;
+        }
+
+        long contar(int valor) {
+            long n = 0;
+            for (byte v : valores) {
+                if (v == valor) n++;
+            }
+            return n;
+        }
+    }
+
+    /**
+     * Estado de uma thread: tabuleiros e lista de lances reaproveitados em todas as posições
+     */
+    private class Trabalhador {
+        final Tabuleiro pai = new Tabuleiro();
+        final Tabuleiro filho = new Tabuleiro();
+        final ListaMovimentos lances = new ListaMovimentos(64);
+        final int[] mascaras = new int[3];
+
+        /**
+         * Valor da posição i com as brancas a jogar, ou EMPATE se ainda indefinido
+         */
+        int avaliar(EmGeracao g, int i) {
+            if (!g.material.posicao(i, mascaras)) {
+                return TabelaFinais.INVALIDA;
+            }
+            pai.definirPosicao(mascaras[0], mascaras[1], mascaras[2], CorPeca.BRANCA);
+            lances.limpar();
+            pai.gerarMovimentosLegais(CorPeca.BRANCA, lances);
+
+            boolean todasVitorias = true;
+            for (int k = 0; k < lances.tamanho(); k++) {
+                filho.copiarDe(pai);
+                filho.aplicarMovimento(lances.get(k));
+                int valor = valorDoFilho(g);
+                if (valor == TabelaFinais.DERROTA) {
+                    return TabelaFinais.VITORIA;
+                }
+                if (valor != TabelaFinais.VITORIA) {
+                    todasVitorias = false;
+                }
+            }
+            return todasVitorias ? TabelaFinais.DERROTA : TabelaFinais.EMPATE;
+        }
+
+        // Valor do filho (pretas a jogar) para as pretas: do par em geração ou de uma tabela pronta
+        private int valorDoFilho(EmGeracao g) {
+            int brancas = Material.girar(filho.getMascara(CorPeca.PRETA));
+            int pretas = Material.girar(filho.getMascara(CorPeca.BRANCA));
+            int damas = Material.girar(filho.getMascaraDamas());
+            if (brancas != 0 && Material.codigo(brancas, pretas, damas) == g.outro.codigo) {
+                return g.outro.valores[(int) g.outro.material.indice(brancas, pretas, damas)];
+            }
+            int valor = tabela.valorBrancasAJogar(brancas, pretas, damas);
+            if (valor == TabelaFinais.DESCONHECIDO) {
+                throw new IllegalStateException("Final ainda não gerado: " + Material.de(brancas, pretas, damas));
+            }
+            return valor;
+        }
+
+        /**
+         * Marca para a próxima passada as posições (pretas a jogar, no material espelhado)
+         * das quais um lance simples das pretas leva à posição das máscaras atuais
+         */
+        void marcarPredecessoras(EmGeracao g) {
+            int brancas = mascaras[0];
+            int pretas = mascaras[1];
+            int damas = mascaras[2];
+            int ocupadas = brancas | pretas;
+
+            int restantes = pretas;
+            while (restantes != 0) {
+                int casa = Integer.numberOfTrailingZeros(restantes);
+                restantes &= restantes - 1;
+                int bit = 1 << casa;
+                boolean dama = (damas & bit) != 0;
+
+                // Simples pretas andam para baixo: vieram da linha de cima (direções 0 e 1)
+                for (int dir = 0; dir < (dama ? 4 : 2); dir++) {
+                    for (int origem : Tabuleiro.raio(casa, dir)) {
+                        int bitOrigem = 1 << origem;
+                        if ((ocupadas & bitOrigem) != 0) {
+                            break;
+                        }
+                        int pretasAntes = pretas ^ bit ^ bitOrigem;
+                        int damasAntes = dama ? damas ^ bit ^ bitOrigem : damas;
+                        EmGeracao anterior = g.outro;
+                        int i = (int) anterior.material.indice(Material.girar(pretasAntes),
+                                                               Material.girar(brancas), Material.girar(damasAntes));
+                        anterior.proximas[i] = 1;
+                        if (!dama) {
+                            break;
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        String diretorio = "finais";
+        int pecas = MAX_PECAS_PADRAO;
+        int threads = Runtime.getRuntime().availableProcessors();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--pecas": pecas = Integer.parseInt(args[++i]); break;
+                case "--threads": threads = Integer.parseInt(args[++i]); break;
+                default: diretorio = args[i];
+            }
+        }
+        System.out.println("Gerando finais até " + pecas + " peças em " + diretorio
+                         + " com " + threads + " thread(s)");
+        long inicio = System.nanoTime();
+        new GeradorFinais(diretorio, threads).gerar(pecas);
+        System.out.printf("Concluído em %.1f s%n", (System.nanoTime() - inicio) / 1e9);
+    }
+}
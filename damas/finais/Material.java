@@ -0,0 +1,223 @@
+package damas.finais;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Material de um final (peças simples e damas de cada cor) e o índice combinatório
+ * das posições com esse material, sempre com as brancas a jogar. Uma posição com as
+ * pretas a jogar é girada 180° com as cores trocadas (casa -> 31 - casa), o que a leva
+ * ao material espelhado com as brancas a jogar.
+ *
+ * Índice: as simples brancas são numeradas entre as 28 casas fora da linha de promoção;
+ * as simples pretas, as damas brancas e as damas pretas, nessa ordem, entre as casas que
+ * ainda estão livres, cada grupo pelo sistema numérico combinatório (soma de C(p, i)).
+ * Os únicos furos do índice são simples pretas na linha de promoção (posição inválida).
+ */
+public final class Material {
+    private static final int NUM_CASAS = 32;
+    private static final long[][] BINOMIAL = new long[NUM_CASAS + 1][NUM_CASAS + 1];
+
+    // Linha 0 (promoção das brancas) e linha 7 (promoção das pretas)
+    private static final int PROMOCAO_BRANCAS = 0x0000000F;
+    private static final int PROMOCAO_PRETAS = 0xF0000000;
+
+    static {
+        for (int n = 0; n <= NUM_CASAS; n++) {
+            BINOMIAL[n][0] = 1;
+            for (int k = 1; k <= n; k++) {
+                BINOMIAL[n][k] = BINOMIAL[n - 1][k - 1] + (k <= n - 1 ? BINOMIAL[n - 1][k] : 0);
+            }
+        }
+    }
+
+    private final int simplesBrancas;
+    private final int damasBrancas;
+    private final int simplesPretas;
+    private final int damasPretas;
+
+    // Quantidade de combinações de cada grupo, na ordem do índice
+    private final long combSimplesBrancas;
+    private final long combSimplesPretas;
+    private final long combDamasBrancas;
+    private final long combDamasPretas;
+
+    public Material(int simplesBrancas, int damasBrancas, int simplesPretas, int damasPretas) {
+        if (simplesBrancas < 0 || damasBrancas < 0 || simplesPretas < 0 || damasPretas < 0
+                || simplesBrancas > 12 || simplesPretas > 12 || damasBrancas > 12 || damasPretas > 12) {
+            throw new IllegalArgumentException("Material inválido");
+        }
+        this.simplesBrancas = simplesBrancas;
+        this.damasBrancas = damasBrancas;
+        this.simplesPretas = simplesPretas;
+        this.damasPretas = damasPretas;
+
+        int livres = NUM_CASAS;
+        this.combSimplesBrancas = BINOMIAL[NUM_CASAS - 4][simplesBrancas];
+        livres -= simplesBrancas;
+        this.combSimplesPretas = BINOMIAL[livres][simplesPretas];
+        livres -= simplesPretas;
+        this.combDamasBrancas = BINOMIAL[livres][damasBrancas];
+        livres -= damasBrancas;
+        this.combDamasPretas = BINOMIAL[livres][damasPretas];
+    }
+
+    /**
+     * Material da posição com as brancas a jogar
+     */
+    public static Material de(int brancas, int pretas, int damas) {
+        return new Material(Integer.bitCount(brancas & ~damas), Integer.bitCount(brancas & damas),
+                            Integer.bitCount(pretas & ~damas), Integer.bitCount(pretas & damas));
+    }
+
+    /**
+     * Código do material em 16 bits (4 bits por grupo), sem criar o objeto
+     */
+    public static int codigo(int brancas, int pretas, int damas) {
+        return Integer.bitCount(brancas & ~damas) | Integer.bitCount(brancas & damas) << 4
+             | Integer.bitCount(pretas & ~damas) << 8 | Integer.bitCount(pretas & damas) << 12;
+    }
+
+    public int codigo() {
+        return simplesBrancas | damasBrancas << 4 | simplesPretas << 8 | damasPretas << 12;
+    }
+
+    /**
+     * Gira a máscara 180° (casa -> 31 - casa)
+     */
+    public static int girar(int mascara) {
+        return Integer.reverse(mascara);
+    }
+
+    /** Material com as cores trocadas: o das posições com as pretas a jogar */
+    public Material espelhado() {
+        return new Material(simplesPretas, damasPretas, simplesBrancas, damasBrancas);
+    }
+
+    /** Número de índices (posições, incluindo os furos) */
+    public long tamanho() {
+        return combSimplesBrancas * combSimplesPretas * combDamasBrancas * combDamasPretas;
+    }
+
+    /**
+     * Índice da posição com as brancas a jogar; as máscaras devem ter este material
+     */
+    public long indice(int brancas, int pretas, int damas) {
+        int simplesB = brancas & ~damas;
+        int simplesP = pretas & ~damas;
+        int ocupadas = simplesB | simplesP;
+        long indice = combinacao(simplesB, ~PROMOCAO_BRANCAS);
+        indice = indice * combSimplesPretas + combinacao(simplesP, ~simplesB);
+        indice = indice * combDamasBrancas + combinacao(brancas & damas, ~ocupadas);
+        return indice * combDamasPretas + combinacao(pretas & damas, ~(ocupadas | brancas));
+    }
+
+    /**
+     * Máscaras (brancas, pretas, damas) da posição de índice dado.
+     * Retorna false se o índice é um furo (simples preta na linha de promoção).
+     */
+    public boolean posicao(long indice, int[] mascaras) {
+        long iDamasP = indice % combDamasPretas;
+        indice /= combDamasPretas;
+        long iDamasB = indice % combDamasBrancas;
+        indice /= combDamasBrancas;
+        long iSimplesP = indice % combSimplesPretas;
+        long iSimplesB = indice / combSimplesPretas;
+
+        int simplesB = descombinar(iSimplesB, simplesBrancas, ~PROMOCAO_BRANCAS);
+        int simplesP = descombinar(iSimplesP, simplesPretas, ~simplesB);
+        int damasB = descombinar(iDamasB, damasBrancas, ~(simplesB | simplesP));
+        int damasP = descombinar(iDamasP, damasPretas, ~(simplesB | simplesP | damasB));
+        mascaras[0] = simplesB | damasB;
+        mascaras[1] = simplesP | damasP;
+        mascaras[2] = damasB | damasP;
+        return (simplesP & PROMOCAO_PRETAS) == 0;
+    }
+
+    // Posto das casas numeradas pela ordem entre as casas livres: soma de C(p_i, i)
+    private static long combinacao(int casas, int livres) {
+        long posto = 0;
+        for (int i = 1; casas != 0; i++) {
+            int casa = Integer.numberOfTrailingZeros(casas);
+            casas &= casas - 1;
+            posto += BINOMIAL[Integer.bitCount(livres & ((1 << casa) - 1))][i];
+        }
+        return posto;
+    }
+
+    private static int descombinar(long posto, int quantidade, int livres) {
+        int casas = 0;
+        int p = Integer.bitCount(livres);
+        for (int i = quantidade; i >= 1; i--) {
+            p--;
+            while (BINOMIAL[p][i] > posto) {
+                p--;
+            }
+            posto -= BINOMIAL[p][i];
+            casas |= 1 << selecionar(livres, p);
+        }
+        return casas;
+    }
+
+    // Casa do p-ésimo bit ligado da máscara (a partir de 0)
+    private static int selecionar(int mascara, int p) {
+        for (int i = 0; i < p; i++) {
+            mascara &= mascara - 1;
+        }
+        return Integer.numberOfTrailingZeros(mascara);
+    }
+
+    /**
+     * Todos os materiais com as duas cores presentes e até maxPecas peças, na ordem
+     * em que podem ser gerados: menos peças primeiro (capturas) e, com o mesmo
+     * número de peças, menos simples primeiro (promoções).
+     */
+    public static List<Material> ate(int maxPecas) {
+        List<Material> lista = new ArrayList<>();
+        for (int sb = 0; sb <= maxPecas; sb++) {
+            for (int db = 0; sb + db <= maxPecas; db++) {
+                for (int sp = 0; sb + db + sp <= maxPecas; sp++) {
+                    for (int dp = 0; sb + db + sp + dp <= maxPecas; dp++) {
+                        if (sb + db > 0 && sp + dp > 0) {
+                            lista.add(new Material(sb, db, sp, dp));
+                        }
+                    }
+                }
+            }
+        }
+        lista.sort(Comparator.comparingInt(Material::getTotalPecas).thenComparingInt(Material::getSimples));
+        return lista;
+    }
+
+    public int getTotalPecas() {
+        return simplesBrancas + damasBrancas + simplesPretas + damasPretas;
+    }
+
+    public int getSimples() {
+        return simplesBrancas + simplesPretas;
+    }
+
+    public int getSimplesBrancas() { return simplesBrancas; }
+    public int getDamasBrancas() { return damasBrancas; }
+    public int getSimplesPretas() { return simplesPretas; }
+    public int getDamasPretas() { return damasPretas; }
+
+    @Override
+    public boolean equals(Object outro) {
+        return outro instanceof Material && ((Material) outro).codigo() == codigo();
+    }
+
+    @Override
+    public int hashCode() {
+        return codigo();
+    }
+
+    /**
+     * Nome do material: simples e damas das brancas, depois das pretas (ex.: "0s2d-1s1d")
+     */
+    @Override
+    public String toString() {
+        return simplesBrancas + "s" + damasBrancas + "d-" + simplesPretas + "s" + damasPretas + "d";
+    }
+}
@@ -0,0 +1,159 @@
+package damas.finais;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import damas.core.CorPeca;
+import damas.core.Tabuleiro;
+
+/**
+ * Consulta às tabelas de finais geradas por GeradorFinais. Cada material fica em um
+ * arquivo mapeado em memória com 2 bits por posição (brancas a jogar); a consulta
+ * calcula o índice combinatório e lê um byte, em tempo constante e sem alocar.
+ * Várias threads podem consultar ao mesmo tempo.
+ *
+ * Arquivo (<material>.dmf): int "DMFN", byte versão, 4 bytes de material
+ * (simples e damas das brancas, simples e damas das pretas), 3 bytes reservados,
+ * long número de posições, seguido dos valores, 4 por byte a partir dos bits baixos.
+ */
+public class TabelaFinais {
+    /** Valores do ponto de vista de quem tem a vez */
+    public static final int EMPATE = 0;
+    public static final int VITORIA = 1;
+    public static final int DERROTA = 2;
+    /** Posição fora das tabelas carregadas */
+    public static final int DESCONHECIDO = -1;
+
+    static final int INVALIDA = 3;
+    static final int ASSINATURA = 0x444D464E;   // "DMFN"
+    static final int VERSAO = 1;
+    static final int TAMANHO_CABECALHO = 20;
+    static final String EXTENSAO = ".dmf";
+
+    private final MappedByteBuffer[] valores = new MappedByteBuffer[1 << 16];
+    private final Material[] materiais = new Material[1 << 16];
+    private int maxPecas;
+    private int numeroTabelas;
+
+    TabelaFinais() {}
+
+    /**
+     * Mapeia todas as tabelas (*.dmf) do diretório
+     */
+    public static TabelaFinais abrir(String diretorio) throws IOException {
+        TabelaFinais tabela = new TabelaFinais();
+        try (DirectoryStream<Path> arquivos = Files.newDirectoryStream(Paths.get(diretorio), "*" + EXTENSAO)) {
+            for (Path arquivo : arquivos) {
+                tabela.carregar(arquivo);
+            }
+        }
+        return tabela;
+    }
+
+    /**
+     * Mapeia uma tabela, conferindo o cabeçalho e o tamanho
+     */
+    void carregar(Path arquivo) throws IOException {
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            MappedByteBuffer mapa = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+            if (canal.size() < TAMANHO_CABECALHO || mapa.getInt(0) != ASSINATURA) {
+                throw new IOException("Arquivo não é uma tabela de finais: " + arquivo);
+            }
+            if (mapa.get(4) > VERSAO) {
+                throw new IOException("Versão da tabela de finais não suportada: " + arquivo);
+            }
+            Material material = new Material(mapa.get(5), mapa.get(6), mapa.get(7), mapa.get(8));
+            if (mapa.getLong(12) != material.tamanho()
+                    || canal.size() != TAMANHO_CABECALHO + (material.tamanho() + 3) / 4) {
+                throw new IOException("Tabela de finais incompleta: " + arquivo);
+            }
+            int codigo = material.codigo();
+            if (valores[codigo] == null) {
+                numeroTabelas++;
+            }
+            valores[codigo] = mapa;
+            materiais[codigo] = material;
+            maxPecas = Math.max(maxPecas, material.getTotalPecas());
+        }
+    }
+
+    /**
+     * Valor da posição para quem tem a vez (VITORIA, EMPATE ou DERROTA),
+     * ou DESCONHECIDO se o material não estiver nas tabelas
+     */
+    public int valor(Tabuleiro tabuleiro) {
+        return valor(tabuleiro.getMascara(CorPeca.BRANCA), tabuleiro.getMascara(CorPeca.PRETA),
+                     tabuleiro.getMascaraDamas(), tabuleiro.getVez());
+    }
+
+    public int valor(int brancas, int pretas, int damas, CorPeca vez) {
+        if (Integer.bitCount(brancas | pretas) > maxPecas) {
+            return DESCONHECIDO;
+        }
+        if (vez == CorPeca.PRETA) {
+            return valorBrancasAJogar(Material.girar(pretas), Material.girar(brancas), Material.girar(damas));
+        }
+        return valorBrancasAJogar(brancas, pretas, damas);
+    }
+
+    /**
+     * Valor com as brancas a jogar (máscaras já normalizadas)
+     */
+    int valorBrancasAJogar(int brancas, int pretas, int damas) {
+        if (brancas == 0) {
+            return DERROTA;
+        }
+        if (pretas == 0) {
+            return VITORIA;
+        }
+        int codigo = Material.codigo(brancas, pretas, damas);
+        ByteBuffer mapa = valores[codigo];
+        if (mapa == null) {
+            return DESCONHECIDO;
+        }
+        long indice = materiais[codigo].indice(brancas, pretas, damas);
+        int valor = (mapa.get(TAMANHO_CABECALHO + (int) (indice >>> 2)) >>> ((indice & 3) << 1)) & 3;
+        return valor == INVALIDA ? DESCONHECIDO : valor;
+    }
+
+    /** Se a posição está coberta pelas tabelas */
+    public boolean cobre(Tabuleiro tabuleiro) {
+        return valor(tabuleiro) != DESCONHECIDO;
+    }
+
+    /** Se a tabela do material já está carregada */
+    public boolean contem(Material material) {
+        return valores[material.codigo()] != null;
+    }
+
+    /**
+     * O mesmo resultado visto pelo adversário
+     */
+    public static int paraAdversario(int valor) {
+        return valor == VITORIA ? DERROTA : valor == DERROTA ? VITORIA : valor;
+    }
+
+    public static String nome(int valor) {
+        switch (valor) {
+            case VITORIA: return "vitória";
+            case DERROTA: return "derrota";
+            case EMPATE: return "empate";
+            default: return "desconhecido";
+        }
+    }
+
+    /** Maior número de peças entre as tabelas carregadas */
+    public int getMaxPecas() {
+        return maxPecas;
+    }
+
+    public int getNumeroTabelas() {
+        return numeroTabelas;
+    }
+}
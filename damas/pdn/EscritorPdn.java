@@ -0,0 +1,86 @@
+package damas.pdn;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import damas.core.*;
+
+/**
+ * Exporta partidas em PDN (Portable Draughts Notation).
+ * Casas numeradas de 1 a 32 (casa do Tabuleiro + 1); capturas com 'x'.
+ * Resultado: "2-0" vitória das brancas, "0-2" das pretas, "1-1" empate, "*" em andamento.
+ */
+public final class EscritorPdn {
+    private static final DateTimeFormatter FORMATO_DATA = DateTimeFormatter.ofPattern("yyyy.MM.dd");
+    private static final int LARGURA_LINHA = 80;
+
+    private EscritorPdn() {}
+
+    public static void escrever(Jogo jogo, Appendable saida) throws IOException {
+        Jogador brancas = jogo.getJogador1().getCor() == CorPeca.BRANCA ? jogo.getJogador1() : jogo.getJogador2();
+        Jogador pretas = brancas == jogo.getJogador1() ? jogo.getJogador2() : jogo.getJogador1();
+        String resultado = resultado(jogo);
+
+        etiqueta(saida, "Event", "Partida de damas");
+        etiqueta(saida, "Date", LocalDate.now().format(FORMATO_DATA));
+        etiqueta(saida, "White", brancas.getNome());
+        etiqueta(saida, "Black", pretas.getNome());
+        etiqueta(saida, "Result", resultado);
+        saida.append('\n');
+
+        StringBuilder linha = new StringBuilder(LARGURA_LINHA + 16);
+        for (int i = 0; i < jogo.getNumeroLances(); i++) {
+            String lance = (i % 2 == 0 ? (i / 2 + 1) + ". " : "") + notacao(jogo.getLance(i));
+            acrescentar(saida, linha, lance);
+        }
+        acrescentar(saida, linha, resultado);
+        saida.append(linha).append("\n\n");
+    }
+
+    /**
+     * Grava em UTF-8, a codificação lida por LeitorPdn
+     */
+    public static void escrever(Jogo jogo, String arquivo) throws IOException {
+        try (Writer saida = Files.newBufferedWriter(Paths.get(arquivo), StandardCharsets.UTF_8)) {
+            escrever(jogo, saida);
+        }
+    }
+
+    /**
+     * Lance em notação PDN, ex.: "22-18" ou "15x22"
+     */
+    public static String notacao(int movimento) {
+        return (Movimento.origem(movimento) + 1) + (Movimento.isCaptura(movimento) ? "x" : "-")
+             + (Movimento.destino(movimento) + 1);
+    }
+
+    private static String resultado(Jogo jogo) {
+        if (jogo.isJogoAtivo()) {
+            return "*";
+        }
+        if (jogo.getVencedor() == null) {
+            return "1-1";
+        }
+        return jogo.getVencedor().getCor() == CorPeca.BRANCA ? "2-0" : "0-2";
+    }
+
+    private static void etiqueta(Appendable saida, String nome, String valor) throws IOException {
+        saida.append('[').append(nome).append(" \"")
+             .append(valor.replace("\\", "\\\\").replace("\"", "\\\"")).append("\"]\n");
+    }
+
+    // Quebra as linhas de lances em LARGURA_LINHA colunas
+    private static void acrescentar(Appendable saida, StringBuilder linha, String texto) throws IOException {
+        if (linha.length() > 0 && linha.length() + 1 + texto.length() > LARGURA_LINHA) {
+            saida.append(linha).append('\n');
+            linha.setLength(0);
+        }
+        if (linha.length() > 0) {
+            linha.append(' ');
+        }
+        linha.append(texto);
+    }
+}
@@ -0,0 +1,366 @@
+package damas.pdn;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import damas.acervo.AcervoPartidas;
+import damas.core.*;
+
+/**
+ * Leitor de PDN (Portable Draughts Notation) em fluxo: lê uma partida por vez,
+ * caractere a caractere, guardando apenas a partida atual. Cada lance é refeito
+ * no Tabuleiro e conferido com os lances legais; partidas inválidas são descartadas
+ * (e contadas) ou, no modo estrito, interrompem a leitura com IOException.
+ *
+ * Casas numeradas de 1 a 32 (casa do Tabuleiro + 1): as pretas começam em 1-12
+ * e as brancas em 21-32. Aceita etiquetas, FEN, comentários {...} e ;, variantes
+ * (...), números de lance, NAGs ($n) e sufixos como ! e ?. Como nestas regras
+ * não há captura múltipla, lances como 9x18x27 são inválidos.
+ */
+public class LeitorPdn implements Closeable {
+    private static final int LIMITE_TOKEN = 256;   // limita a memória com entradas malformadas
+    private static final Tabuleiro POSICAO_INICIAL = new Tabuleiro();
+
+    private final Reader entrada;
+    private final StringBuilder token = new StringBuilder(32);
+    private final Tabuleiro tabuleiro = new Tabuleiro();
+    private final ListaMovimentos legais = new ListaMovimentos();
+    private boolean estrito;
+    private int devolvido = -2;   // caractere lido a mais (-2 = nenhum)
+
+    private long linha = 1;
+    private long partidasLidas;
+    private long partidasInvalidas;
+    private String ultimoErro;
+
+    public LeitorPdn(Reader entrada) {
+        this.entrada = entrada instanceof BufferedReader ? entrada : new BufferedReader(entrada, 1 << 16);
+    }
+
+    public LeitorPdn(String arquivo) throws IOException {
+        this(Files.newBufferedReader(Paths.get(arquivo), StandardCharsets.UTF_8));
+    }
+
+    /** No modo estrito, a primeira partida inválida lança IOException em vez de ser descartada */
+    public void setEstrito(boolean estrito) {
+        this.estrito = estrito;
+    }
+
+    /**
+     * Lê e valida a próxima partida; retorna null no fim da entrada
+     */
+    public PartidaPdn proxima() throws IOException {
+        while (true) {
+            Map<String, String> etiquetas = new LinkedHashMap<>();
+            ListaMovimentos lances = new ListaMovimentos();
+            tabuleiro.copiarDe(POSICAO_INICIAL);
+            Tabuleiro inicial = null;
+            String erro = null;
+            String resultado = null;
+            boolean vazia = true;
+            boolean temLances = false;
+            long linhaInicio = linha;
+
+            while (resultado == null) {
+                int c = lerSemEspacos();
+                if (c < 0) {
+                    if (vazia) {
+                        return null;
+                    }
+                    resultado = "*";
+                } else if (c == '[') {
+                    if (temLances) {
+                        devolver(c);           // etiqueta de outra partida: esta terminou sem resultado
+                        resultado = "*";
+                    } else {
+                        vazia = false;
+                        String erroEtiqueta = lerEtiqueta(etiquetas);
+                        if (erroEtiqueta == null && etiquetas.containsKey("FEN") && inicial == null) {
+                            try {
+                                inicial = lerFen(etiquetas.get("FEN"));
+                                tabuleiro.copiarDe(inicial);
+                            } catch (IllegalArgumentException e) {
+                                erroEtiqueta = "FEN inválido: " + etiquetas.get("FEN");
+                            }
+                        }
+                        if (erro == null) erro = erroEtiqueta;
+                    }
+                } else if (c == '{') {
+                    pular('}');
+                } else if (c == '(') {
+                    pularVariante();
+                } else if (c == ';') {
+                    pular('\n');
+                } else {
+                    vazia = false;
+                    temLances = true;
+                    lerToken(c);
+                    String texto = token.toString();
+                    if (isResultado(texto)) {
+                        resultado = normalizarResultado(texto);
+                    } else if (erro == null) {
+                        erro = interpretar(lances);
+                    }
+                }
+            }
+
+            partidasLidas++;
+            if (erro == null) {
+                return new PartidaPdn(etiquetas, inicial != null ? inicial : new Tabuleiro(), lances, resultado);
+            }
+            partidasInvalidas++;
+            ultimoErro = "Partida na linha " + linhaInicio + ": " + erro;
+            if (estrito) {
+                throw new IOException(ultimoErro);
+            }
+        }
+    }
+
+    /**
+     * Interpreta o token atual (número de lance, NAG ou lance); retorna o erro ou null
+     */
+    private String interpretar(ListaMovimentos lances) {
+        int inicio = 0;
+        int fim = token.length();
+        // Número de lance, possivelmente colado ao lance ("12.22-18")
+        while (inicio < fim && Character.isDigit(token.charAt(inicio))) inicio++;
+        if (inicio < fim && token.charAt(inicio) == '.') {
+            while (inicio < fim && token.charAt(inicio) == '.') inicio++;
+        } else {
+            inicio = 0;
+        }
+        // Sufixos de avaliação (!, ?, *, +)
+        while (fim > inicio && "!?*+".indexOf(token.charAt(fim - 1)) >= 0) fim--;
+        if (inicio == fim || token.charAt(inicio) == '$') {
+            return null;
+        }
+
+        int origem = 0, destino = 0, casas = 0;
+        boolean captura = false;
+        int numero = -1;
+        for (int i = inicio; i <= fim; i++) {
+            char c = i < fim ? token.charAt(i) : '-';
+            if (Character.isDigit(c)) {
+                numero = (numero < 0 ? 0 : numero * 10) + (c - '0');
+                if (numero > Tabuleiro.NUM_CASAS) return "Casa inexistente no lance " + token;
+            } else if ((c == '-' || c == 'x' || c == 'X' || c == ':') && numero > 0) {
+                casas++;
+                if (casas == 1) origem = numero - 1;
+                else destino = numero - 1;
+                if (i < fim && c != '-') captura = true;
+                numero = -1;
+            } else {
+                return "Lance ilegível: " + token;
+            }
+        }
+        if (casas != 2) {
+            return casas > 2 ? "Captura múltipla não existe nestas regras: " + token
+                             : "Lance ilegível: " + token;
+        }
+
+        legais.limpar();
+        tabuleiro.gerarMovimentosLegais(tabuleiro.getVez(), legais);
+        for (int i = 0; i < legais.tamanho(); i++) {
+            int movimento = legais.get(i);
+            if (Movimento.origem(movimento) == origem && Movimento.destino(movimento) == destino
+                    && (!captura || Movimento.isCaptura(movimento))) {
+                tabuleiro.aplicarMovimento(movimento);
+                lances.adicionar(movimento);
+                return null;
+            }
+        }
+        return "Lance ilegal " + token + " (lance " + (lances.tamanho() + 1) + ")";
+    }
+
+    /**
+     * Lê [Nome "valor"] depois do '['; retorna o erro ou null
+     */
+    private String lerEtiqueta(Map<String, String> etiquetas) throws IOException {
+        token.setLength(0);
+        int c = lerSemEspacos();
+        while (c >= 0 && !Character.isWhitespace(c) && c != '"' && c != ']') {
+            acrescentar(c);
+            c = ler();
+        }
+        String nome = token.toString();
+        while (c >= 0 && c != '"' && c != ']') c = ler();
+        if (c != '"') {
+            return "Etiqueta sem valor: " + nome;
+        }
+        token.setLength(0);
+        for (c = ler(); c >= 0 && c != '"'; c = ler()) {
+            if (c == '\\') c = ler();
+            if (c >= 0) acrescentar(c);
+        }
+        String valor = token.toString();
+        while (c >= 0 && c != ']') c = ler();
+        if (etiquetas.size() < 64) {
+            etiquetas.put(nome, valor);
+        }
+        return null;
+    }
+
+    /**
+     * Posição da etiqueta FEN, ex.: "W:W21,22,K30:B1-3,K9" (lado a jogar, depois as peças de cada cor)
+     */
+    static Tabuleiro lerFen(String fen) {
+        char[] casas = new char[Tabuleiro.NUM_CASAS];
+        java.util.Arrays.fill(casas, '.');
+        String[] partes = fen.trim().toUpperCase().split(":");
+        if (partes.length < 2 || !(partes[0].equals("W") || partes[0].equals("B"))) {
+            throw new IllegalArgumentException(fen);
+        }
+        for (int p = 1; p < partes.length; p++) {
+            String parte = partes[p].trim();
+            if (parte.isEmpty()) continue;
+            boolean branca = parte.charAt(0) == 'W';
+            if (!branca && parte.charAt(0) != 'B') throw new IllegalArgumentException(fen);
+            for (String item : parte.substring(1).split(",")) {
+                item = item.trim();
+                if (item.isEmpty()) continue;
+                boolean dama = item.charAt(0) == 'K';
+                if (dama) item = item.substring(1);
+                String[] faixa = item.split("-");
+                int de = Integer.parseInt(faixa[0]);
+                int ate = faixa.length > 1 ? Integer.parseInt(faixa[1]) : de;
+                for (int n = de; n <= ate; n++) {
+                    if (n < 1 || n > Tabuleiro.NUM_CASAS) throw new IllegalArgumentException(fen);
+                    casas[n - 1] = dama ? (branca ? 'B' : 'P') : (branca ? 'b' : 'p');
+                }
+            }
+        }
+        StringBuilder texto = new StringBuilder(40);
+        for (int i = 0; i < Tabuleiro.NUM_CASAS; i++) {
+            if (i > 0 && (i & 3) == 0) texto.append('/');
+            texto.append(casas[i]);
+        }
+        return Tabuleiro.deTexto(texto.append(' ').append(partes[0].equals("W") ? 'b' : 'p').toString());
+    }
+
+    private static boolean isResultado(String texto) {
+        switch (texto) {
+            case "2-0": case "0-2": case "1-1": case "0-0": case "*":
+            case "1-0": case "0-1": case "1/2-1/2":
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    // Resultados no estilo do xadrez também aparecem em coleções de damas
+    private static String normalizarResultado(String texto) {
+        switch (texto) {
+            case "1-0": return "2-0";
+            case "0-1": return "0-2";
+            case "1/2-1/2": return "1-1";
+            case "0-0": return "*";
+            default: return texto;
+        }
+    }
+
+    private void lerToken(int primeiro) throws IOException {
+        token.setLength(0);
+        int c = primeiro;
+        while (c >= 0 && !Character.isWhitespace(c) && "[]{}();".indexOf(c) < 0) {
+            acrescentar(c);
+            c = ler();
+        }
+        if (c >= 0) devolver(c);
+    }
+
+    private void acrescentar(int c) {
+        if (token.length() < LIMITE_TOKEN) {
+            token.append((char) c);
+        }
+    }
+
+    private void pular(int ate) throws IOException {
+        for (int c = ler(); c >= 0 && c != ate; c = ler()) {
+            // descarta
+        }
+    }
+
+    private void pularVariante() throws IOException {
+        int nivel = 1;
+        for (int c = ler(); c >= 0 && nivel > 0; c = ler()) {
+            if (c == '(') nivel++;
+            else if (c == ')') nivel--;
+            else if (c == '{') pular('}');
+        }
+    }
+
+    private int lerSemEspacos() throws IOException {
+        int c = ler();
+        while (c >= 0 && Character.isWhitespace(c)) c = ler();
+        return c;
+    }
+
+    private int ler() throws IOException {
+        int c;
+        if (devolvido != -2) {
+            c = devolvido;
+            devolvido = -2;
+        } else {
+            c = entrada.read();
+            if (c == '\n') linha++;
+        }
+        return c;
+    }
+
+    private void devolver(int c) {
+        devolvido = c;
+    }
+
+    public long getPartidasLidas() { return partidasLidas; }
+    public long getPartidasInvalidas() { return partidasInvalidas; }
+    public String getUltimoErro() { return ultimoErro; }
+
+    @Override
+    public void close() throws IOException {
+        entrada.close();
+    }
+
+    /**
+     * Uso: java -cp bin damas.pdn.LeitorPdn arquivo.pdn [base-do-acervo]
+     * Valida todas as partidas em uma passada e, se informado, as acrescenta ao acervo.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Uso: LeitorPdn arquivo.pdn [base-do-acervo]");
+            System.exit(2);
+        }
+        long inicio = System.nanoTime();
+        long validas = 0, lances = 0, foraDoAcervo = 0;
+        try (LeitorPdn leitor = new LeitorPdn(args[0]);
+             AcervoPartidas acervo = args.length > 1 ? new AcervoPartidas(args[1]) : null) {
+            for (PartidaPdn partida = leitor.proxima(); partida != null; partida = leitor.proxima()) {
+                validas++;
+                lances += partida.getLances().tamanho();
+                if (acervo != null) {
+                    // O acervo guarda apenas partidas a partir da posição inicial
+                    if (partida.getEtiqueta("FEN") != null) {
+                        foraDoAcervo++;
+                        continue;
+                    }
+                    CorPeca vencedor = partida.getVencedor();
+                    acervo.adicionar(partida.getLances(), vencedor == null ? AcervoPartidas.SEM_RESULTADO
+                            : vencedor == CorPeca.BRANCA ? AcervoPartidas.VITORIA_BRANCAS : AcervoPartidas.VITORIA_PRETAS);
+                }
+            }
+            if (acervo != null) {
+                acervo.reindexar();
+            }
+            System.out.printf("%d partidas válidas (%d lances), %d inválidas em %.2f s%n", validas, lances,
+                              leitor.getPartidasInvalidas(), (System.nanoTime() - inicio) / 1e9);
+            if (leitor.getUltimoErro() != null) {
+                System.out.println("Último erro: " + leitor.getUltimoErro());
+            }
+            if (foraDoAcervo > 0) {
+                System.out.println(foraDoAcervo + " partidas com FEN não entraram no acervo");
+            }
+        }
+    }
+}
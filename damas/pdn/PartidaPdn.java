@@ -0,0 +1,71 @@
+package damas.pdn;
+
+import java.util.Collections;
+import java.util.Map;
+import damas.core.CorPeca;
+import damas.core.ListaMovimentos;
+import damas.core.Tabuleiro;
+
+/**
+ * Uma partida lida de um arquivo PDN, já validada lance a lance no Tabuleiro
+ */
+public class PartidaPdn {
+    private final Map<String, String> etiquetas;
+    private final Tabuleiro posicaoInicial;
+    private final ListaMovimentos lances;
+    private final String resultado;
+
+    PartidaPdn(Map<String, String> etiquetas, Tabuleiro posicaoInicial, ListaMovimentos lances, String resultado) {
+        this.etiquetas = etiquetas;
+        this.posicaoInicial = posicaoInicial;
+        this.lances = lances;
+        this.resultado = resultado;
+    }
+
+    /** Etiquetas da partida ([Nome "valor"]), na ordem do arquivo */
+    public Map<String, String> getEtiquetas() {
+        return Collections.unmodifiableMap(etiquetas);
+    }
+
+    public String getEtiqueta(String nome) {
+        return etiquetas.get(nome);
+    }
+
+    /** Posição de partida: a inicial, ou a da etiqueta FEN */
+    public Tabuleiro getPosicaoInicial() {
+        return new Tabuleiro(posicaoInicial);
+    }
+
+    public ListaMovimentos getLances() {
+        return lances;
+    }
+
+    /** Resultado como no arquivo: "2-0", "0-2", "1-1" ou "*" */
+    public String getResultado() {
+        return resultado;
+    }
+
+    /** Cor vencedora segundo o resultado, ou null em empate ou resultado desconhecido */
+    public CorPeca getVencedor() {
+        switch (resultado) {
+            case "2-0": return CorPeca.BRANCA;
+            case "0-2": return CorPeca.PRETA;
+            default: return null;
+        }
+    }
+
+    /** Posição depois de todos os lances */
+    public Tabuleiro getPosicaoFinal() {
+        Tabuleiro tabuleiro = getPosicaoInicial();
+        for (int i = 0; i < lances.tamanho(); i++) {
+            tabuleiro.aplicarMovimento(lances.get(i));
+        }
+        return tabuleiro;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s vs %s, %d lances, %s", etiquetas.getOrDefault("White", "?"),
+                             etiquetas.getOrDefault("Black", "?"), lances.tamanho(), resultado);
+    }
+}
@@ -0,0 +1,177 @@
+package damas.server;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import damas.core.CorPeca;
+
+/**
+ * Um cliente conectado. Pertence a um único LacoSelecao, que faz toda a leitura e
+ * escrita do canal; enviar() pode ser chamado de qualquer thread (ex.: o lance do
+ * adversário processado em outro laço) e só enfileira a linha e agenda a escrita.
+ * As linhas pendentes saem juntas em uma escrita com vários buffers.
+ */
+final class Conexao {
+    // Cliente que não lê suas respostas é desconectado em vez de acumular memória
+    static final int LIMITE_SAIDA_PENDENTE = 1 << 20;
+    private static final int BUFFERS_POR_ESCRITA = 64;
+
+    private final SocketChannel canal;
+    private final LacoSelecao laco;
+    private SelectionKey chave;
+    private final ByteBuffer entrada = ByteBuffer.allocate(Protocolo.TAMANHO_MAXIMO_LINHA);
+    private final Queue<ByteBuffer> saida = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger bytesPendentes = new AtomicInteger();
+    private final AtomicBoolean escritaAgendada = new AtomicBoolean();
+    private final ByteBuffer[] lote = new ByteBuffer[BUFFERS_POR_ESCRITA];
+    private volatile boolean fechada;
+
+    // Sessão atual e a cor jogada nela; alterados sob o monitor da sessão, lidos pelo laço
+    volatile Sessao sessao;
+    volatile CorPeca cor;
+    // Sessão assistida; os lotes de lances são tirados dela quando a saída esvazia
+    volatile Espectador espectador;
+
+    Conexao(SocketChannel canal, LacoSelecao laco) {
+        this.canal = canal;
+        this.laco = laco;
+    }
+
+    void registrar(SelectionKey chave) {
+        this.chave = chave;
+    }
+
+    /**
+     * Enfileira uma linha (sem o '\n') para o cliente
+     */
+    void enviar(String linha) {
+        enviar(ByteBuffer.wrap(Protocolo.codificar(linha)));
+    }
+
+    void enviar(ByteBuffer dados) {
+        if (fechada) {
+            return;
+        }
+        if (bytesPendentes.addAndGet(dados.remaining()) > LIMITE_SAIDA_PENDENTE) {
+            laco.agendarFechamento(this);
+            return;
+        }
+        saida.add(dados);
+        if (escritaAgendada.compareAndSet(false, true)) {
+            laco.agendarEscrita(this);
+        }
+    }
+
+    /**
+     * Agenda uma escrita sem enfileirar nada: há lances novos para o espectador
+     */
+    void notificar() {
+        if (!fechada && escritaAgendada.compareAndSet(false, true)) {
+            laco.agendarEscrita(this);
+        }
+    }
+
+    void deixarDeAssistir(Espectador assistido) {
+        if (espectador == assistido) {
+            espectador = null;
+        }
+    }
+
+    /**
+     * Lê o que chegou e entrega cada linha completa ao servidor (thread do laço)
+     */
+    void ler(ServidorJogos servidor) throws IOException {
+        int lidos = canal.read(entrada);
+        if (lidos < 0) {
+            throw new IOException("Conexão encerrada pelo cliente");
+        }
+        int inicio = 0;
+        int fim = entrada.position();
+        byte[] dados = entrada.array();
+        for (int i = 0; i < fim; i++) {
+            if (dados[i] == '\n') {
+                int tamanho = i > inicio && dados[i - 1] == '\r' ? i - 1 - inicio : i - inicio;
+                servidor.processar(this, new String(dados, inicio, tamanho, StandardCharsets.UTF_8));
+                inicio = i + 1;
+                if (fechada) {
+                    return;
+                }
+            }
+        }
+        if (inicio == 0 && fim == dados.length) {
+            throw new IOException("Linha maior que " + Protocolo.TAMANHO_MAXIMO_LINHA + " bytes");
+        }
+        // Guarda o início da próxima linha
+        System.arraycopy(dados, inicio, dados, 0, fim - inicio);
+        entrada.position(fim - inicio);
+    }
+
+    /**
+     * Escreve as linhas pendentes (thread do laço); se o canal não aceitar tudo,
+     * passa a esperar OP_WRITE e continua quando o selector avisar. Só com a saída
+     * vazia o espectador é drenado, então um cliente lento acumula lances no buffer
+     * dele (e depois ressincroniza) em vez de na fila da conexão.
+     */
+    void escrever() throws IOException {
+        escritaAgendada.set(false);
+        if (fechada) {
+            return;
+        }
+        while (true) {
+            if (saida.isEmpty()) {
+                Espectador assistido = espectador;
+                ByteBuffer lances = assistido == null ? null : assistido.drenar();
+                if (lances == null) {
+                    break;
+                }
+                bytesPendentes.addAndGet(lances.remaining());
+                saida.add(lances);
+            }
+            int n = 0;
+            for (Iterator<ByteBuffer> it = saida.iterator(); it.hasNext() && n < lote.length; ) {
+                lote[n++] = it.next();
+            }
+            long escritos = canal.write(lote, 0, n);
+            bytesPendentes.addAndGet((int) -escritos);
+            // Só este laço remove da fila, então os primeiros elementos são os do lote
+            int enviados = 0;
+            while (enviados < n && !lote[enviados].hasRemaining()) {
+                saida.poll();
+                enviados++;
+            }
+            Arrays.fill(lote, 0, n, null);
+            if (enviados < n) {
+                chave.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                return;
+            }
+        }
+        if ((chave.interestOps() & SelectionKey.OP_WRITE) != 0) {
+            chave.interestOps(SelectionKey.OP_READ);
+        }
+    }
+
+    void fechar() {
+        fechada = true;
+        saida.clear();
+        if (chave != null) {
+            chave.cancel();
+        }
+        try {
+            canal.close();
+        } catch (IOException e) {
+            // já estava fechada
+        }
+    }
+
+    boolean isFechada() {
+        return fechada;
+    }
+}
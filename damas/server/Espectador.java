@@ -0,0 +1,115 @@
+package damas.server;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import damas.core.FotoJogo;
+import damas.core.Tabuleiro;
+
+/**
+ * Uma conexão assistindo a uma sessão. Os lances chegam por um buffer circular
+ * limitado, com um produtor (a thread que processa o lance, sob o monitor da
+ * sessão) e um consumidor (o laço da conexão), sem travas.
+ *
+ * O produtor nunca espera: se o buffer está cheio, o lance é descartado e o
+ * espectador marcado para ressincronizar, recebendo depois a posição inteira
+ * (POSICAO, da foto do jogo) no lugar dos lances perdidos. O consumidor só drena
+ * quando a conexão terminou de escrever o lote anterior, e cada lote leva todos
+ * os lances disponíveis em um único buffer, escrito de uma vez.
+ *
+ * Os índices do buffer são os índices dos lances na partida: o lance i fica em
+ * lances[i & mascara], e lido/escrito contam lances desde o início da partida.
+ */
+final class Espectador {
+    static final int CAPACIDADE = 64;
+    private static final int MASCARA = CAPACIDADE - 1;
+
+    private final Sessao sessao;
+    private final Conexao conexao;
+    private final int[] lances = new int[CAPACIDADE];
+    private volatile long escrito;
+    private volatile long lido;
+    private volatile boolean ressincronizar = true;   // a primeira entrega é a posição atual
+    private volatile String fim;
+    private long ressincronizacoes;
+
+    /**
+     * @param lancesJogados lances da partida até a inscrição (chamado sob o monitor da sessão)
+     */
+    Espectador(Sessao sessao, Conexao conexao, int lancesJogados) {
+        this.sessao = sessao;
+        this.conexao = conexao;
+        this.escrito = lancesJogados;
+        this.lido = lancesJogados;
+    }
+
+    Sessao getSessao() {
+        return sessao;
+    }
+
+    /**
+     * Acrescenta o lance seguinte da partida (thread do lance, sob o monitor da sessão)
+     */
+    void publicar(int movimento) {
+        long i = escrito;
+        if (i - lido >= CAPACIDADE) {
+            ressincronizar = true;   // consumidor atrasado: perde os lances e recebe a posição
+        } else {
+            lances[(int) i & MASCARA] = movimento;
+        }
+        escrito = i + 1;   // publica o lance (ou a marca) para o consumidor
+        conexao.notificar();
+    }
+
+    /**
+     * Fim da partida: enviado depois dos lances pendentes
+     */
+    void encerrar(String linhaFim) {
+        fim = linhaFim;
+        conexao.notificar();
+    }
+
+    /**
+     * Próximo lote para a conexão (thread do laço), ou null se não há nada novo.
+     * Depois do fim da partida entregue, desliga o espectador da conexão.
+     */
+    ByteBuffer drenar() {
+        String linhaFim = fim;   // lido antes de escrito: o fim vem depois do último lance
+        long ate = escrito;
+        StringBuilder lote = null;
+        if (ressincronizar) {
+            ressincronizar = false;
+            // A foto é publicada antes do lance entrar no buffer, então cobre tudo até `ate`
+            FotoJogo foto = sessao.foto();
+            lote = new StringBuilder(96);
+            lote.append(Protocolo.POSICAO).append(' ')
+                .append(foto == null ? new Tabuleiro().paraTexto() : foto.paraTexto()).append('\n');
+            lido = Math.max(ate, foto == null ? 0 : foto.getNumeroLances());
+            ressincronizacoes++;
+        } else {
+            for (long i = lido; i < ate; i++) {
+                if (lote == null) {
+                    lote = new StringBuilder((int) (ate - i) * 12);
+                }
+                lote.append(Protocolo.LANCE).append(' ')
+                    .append(Protocolo.notacao(lances[(int) i & MASCARA])).append('\n');
+            }
+            if (ressincronizar) {
+                // O produtor pode ter descartado lances deste intervalo enquanto o lote era montado
+                return drenar();
+            }
+            lido = Math.max(lido, ate);
+        }
+        if (linhaFim != null && lido >= escrito) {
+            if (lote == null) {
+                lote = new StringBuilder(24);
+            }
+            lote.append(linhaFim).append('\n');
+            conexao.deixarDeAssistir(this);
+        }
+        return lote == null ? null : ByteBuffer.wrap(lote.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    long getRessincronizacoes() {
+        return ressincronizacoes;
+    }
+}
@@ -0,0 +1,376 @@
+package damas.server;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.SplittableRandom;
+import damas.core.CorPeca;
+import damas.core.ListaMovimentos;
+import damas.core.Movimento;
+import damas.core.Tabuleiro;
+
+/**
+ * Gerador de carga para o ServidorJogos: abre N pares de conexões, cada par joga
+ * partidas seguidas com lances legais sorteados e mede a vazão (lances/s) e a
+ * latência de cada lance, do envio até o eco LANCE voltar a quem jogou.
+ *
+ * Cada cliente mantém o próprio Tabuleiro, como um cliente de verdade. Todas as
+ * conexões são atendidas por um só Selector, então o gerador usa uma thread.
+ * Cada par pode ter espectadores, que conferem os lances recebidos no próprio
+ * tabuleiro, e espectadores lentos, que nunca leem (para ver que não atrasam ninguém).
+ *
+ * Uso: java -cp bin damas.server.GeradorCarga [--host h] [--porta P] [--pares N]
+ *      [--segundos S] [--lances L] [--semente X] [--local L] [--espectadores E] [--lentos E]
+ * (--local inicia um ServidorJogos com L laços no próprio processo, em uma porta livre)
+ */
+public class GeradorCarga {
+    private static final Tabuleiro INICIAL = new Tabuleiro();
+
+    private final SplittableRandom aleatorio;
+    private final int maxLancesPartida;
+    private final ListaMovimentos legais = new ListaMovimentos();
+    private final ByteBuffer leitura = ByteBuffer.allocate(1 << 16);
+    private int espectadores;
+    private int lentos;
+
+    private long[] latencias = new long[1 << 16];
+    private int numLatencias;
+    private long partidas;
+    private long erros;
+    private long lancesAssistidos;
+    private long posicoesRecebidas;
+    private long divergencias;
+
+    public GeradorCarga(int maxLancesPartida, long semente) {
+        this.maxLancesPartida = maxLancesPartida;
+        this.aleatorio = new SplittableRandom(semente);
+    }
+
+    /**
+     * Espectadores por par: os que acompanham a partida e os que nunca leem
+     */
+    public void setEspectadores(int espectadores, int lentos) {
+        this.espectadores = espectadores;
+        this.lentos = lentos;
+    }
+
+    private static final class Par {
+        Cliente brancas;
+        Cliente pretas;
+        final List<Cliente> espectadores = new ArrayList<>();
+        long sessao = -1;
+    }
+
+    private static final class Cliente {
+        final Par par;
+        final CorPeca cor;   // null nos espectadores
+        final boolean lento;
+        SocketChannel canal;
+        SelectionKey chave;
+        boolean conectado;
+        final Tabuleiro tabuleiro = new Tabuleiro();
+        int lances;
+        final StringBuilder linha = new StringBuilder();
+        final ArrayDeque<ByteBuffer> saida = new ArrayDeque<>();
+        long enviadoEm;
+
+        Cliente(Par par, CorPeca cor, boolean lento) {
+            this.par = par;
+            this.cor = cor;
+            this.lento = lento;
+        }
+    }
+
+    /**
+     * Joga com `pares` pares de conexões durante `segundos` e imprime o resumo
+     */
+    public void executar(InetSocketAddress endereco, int pares, int segundos) throws IOException {
+        try (Selector selector = Selector.open()) {
+            for (int i = 0; i < pares; i++) {
+                Par par = new Par();
+                par.brancas = conectar(selector, endereco, new Cliente(par, CorPeca.BRANCA, false));
+                par.pretas = conectar(selector, endereco, new Cliente(par, CorPeca.PRETA, false));
+                for (int e = 0; e < espectadores + lentos; e++) {
+                    par.espectadores.add(conectar(selector, endereco, new Cliente(par, null, e >= espectadores)));
+                }
+            }
+
+            long inicio = System.nanoTime();
+            long fim = inicio + segundos * 1_000_000_000L;
+            for (long agora = inicio; agora < fim; agora = System.nanoTime()) {
+                selector.select(Math.max(1, (fim - agora) / 1_000_000));
+                Iterator<SelectionKey> prontas = selector.selectedKeys().iterator();
+                while (prontas.hasNext()) {
+                    SelectionKey chave = prontas.next();
+                    prontas.remove();
+                    Cliente cliente = (Cliente) chave.attachment();
+                    if (!chave.isValid()) {
+                        continue;
+                    }
+                    if (chave.isConnectable()) {
+                        cliente.canal.finishConnect();
+                        cliente.conectado = true;
+                        chave.interestOps(interesse(cliente));
+                        aoConectar(cliente);
+                    }
+                    if (chave.isValid() && chave.isReadable()) {
+                        ler(cliente);
+                    }
+                    if (chave.isValid() && chave.isWritable()) {
+                        escrever(cliente);
+                    }
+                }
+            }
+            imprimirResumo(pares, (System.nanoTime() - inicio) / 1e9);
+
+            for (SelectionKey chave : selector.keys()) {
+                chave.channel().close();
+            }
+        }
+    }
+
+    private Cliente conectar(Selector selector, InetSocketAddress endereco, Cliente cliente) throws IOException {
+        cliente.canal = SocketChannel.open();
+        cliente.canal.configureBlocking(false);
+        cliente.canal.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        if (cliente.lento) {
+            cliente.canal.setOption(StandardSocketOptions.SO_RCVBUF, 4096);   // enche logo
+        }
+        cliente.canal.connect(endereco);
+        cliente.chave = cliente.canal.register(selector, SelectionKey.OP_CONNECT, cliente);
+        return cliente;
+    }
+
+    // Espectadores lentos não leem nada
+    private static int interesse(Cliente cliente) {
+        return cliente.lento ? 0 : SelectionKey.OP_READ;
+    }
+
+    private void aoConectar(Cliente cliente) throws IOException {
+        if (cliente.cor == null) {
+            if (cliente.par.sessao >= 0) {
+                enviar(cliente, Protocolo.ASSISTIR + " " + cliente.par.sessao);
+            }
+        } else if (cliente.cor == CorPeca.BRANCA) {
+            enviar(cliente, Protocolo.NOVA + " carga");
+        } else if (cliente.par.sessao >= 0) {
+            enviar(cliente, Protocolo.ENTRAR + " " + cliente.par.sessao + " carga");
+        }
+    }
+
+    private void ler(Cliente cliente) throws IOException {
+        leitura.clear();
+        if (cliente.canal.read(leitura) < 0) {
+            throw new IOException("Servidor encerrou a conexão");
+        }
+        byte[] dados = leitura.array();
+        for (int i = 0; i < leitura.position(); i++) {
+            if (dados[i] == '\n') {
+                receber(cliente, cliente.linha.toString());
+                cliente.linha.setLength(0);
+            } else {
+                cliente.linha.append((char) dados[i]);
+            }
+        }
+    }
+
+    private void receber(Cliente cliente, String linha) throws IOException {
+        int espaco = linha.indexOf(' ');
+        String comando = espaco < 0 ? linha : linha.substring(0, espaco);
+        String argumento = espaco < 0 ? "" : linha.substring(espaco + 1);
+        Par par = cliente.par;
+        if (cliente.cor == null) {
+            assistir(cliente, comando, argumento);
+            return;
+        }
+        switch (comando) {
+            case Protocolo.SESSAO:
+                if (cliente.cor == CorPeca.BRANCA) {
+                    par.sessao = Long.parseLong(argumento.substring(0, argumento.indexOf(' ')));
+                    if (par.pretas.conectado) {
+                        enviar(par.pretas, Protocolo.ENTRAR + " " + par.sessao + " carga");
+                    }
+                    for (Cliente espectador : par.espectadores) {
+                        if (espectador.conectado) {
+                            enviar(espectador, Protocolo.ASSISTIR + " " + par.sessao);
+                        }
+                    }
+                }
+                break;
+            case Protocolo.INICIO:
+                cliente.tabuleiro.copiarDe(INICIAL);
+                cliente.lances = 0;
+                if (cliente.cor == CorPeca.BRANCA) {
+                    jogar(cliente);
+                }
+                break;
+            case Protocolo.LANCE:
+                int movimento = Protocolo.interpretarLance(cliente.tabuleiro, argumento, legais);
+                if (movimento == Movimento.NENHUM) {
+                    throw new IllegalStateException("Servidor aceitou um lance ilegal: " + argumento);
+                }
+                if (cliente.tabuleiro.getVez() == cliente.cor) {
+                    registrarLatencia(System.nanoTime() - cliente.enviadoEm);
+                }
+                cliente.tabuleiro.aplicarMovimento(movimento);
+                cliente.lances++;
+                if (cliente.tabuleiro.getVez() == cliente.cor) {
+                    jogar(cliente);
+                }
+                break;
+            case Protocolo.FIM:
+                if (cliente.cor == CorPeca.BRANCA) {
+                    partidas++;
+                    par.sessao = -1;
+                    enviar(cliente, Protocolo.NOVA + " carga");
+                }
+                break;
+            case Protocolo.ERRO:
+                erros++;
+                break;
+            default:
+                break;
+        }
+    }
+
+    // O espectador confere cada lance no tabuleiro que montou a partir da última POSICAO
+    private void assistir(Cliente cliente, String comando, String argumento) {
+        switch (comando) {
+            case Protocolo.POSICAO:
+                cliente.tabuleiro.copiarDe(Tabuleiro.deTexto(argumento));
+                posicoesRecebidas++;
+                break;
+            case Protocolo.LANCE:
+                int movimento = Protocolo.interpretarLance(cliente.tabuleiro, argumento, legais);
+                if (movimento == Movimento.NENHUM) {
+                    divergencias++;
+                } else {
+                    cliente.tabuleiro.aplicarMovimento(movimento);
+                    lancesAssistidos++;
+                }
+                break;
+            case Protocolo.ERRO:
+                erros++;
+                break;
+            default:
+                break;
+        }
+    }
+
+    // Lance sorteado; no limite de lances da partida, abandona para começar outra
+    private void jogar(Cliente cliente) throws IOException {
+        legais.limpar();
+        cliente.tabuleiro.gerarMovimentosLegais(cliente.cor, legais);
+        if (legais.isVazia()) {
+            return;   // o servidor encerra a partida
+        }
+        if (cliente.lances >= maxLancesPartida) {
+            enviar(cliente, Protocolo.SAIR);
+            return;
+        }
+        int movimento = legais.get(aleatorio.nextInt(legais.tamanho()));
+        cliente.enviadoEm = System.nanoTime();
+        enviar(cliente, Protocolo.LANCE + " " + Protocolo.notacao(movimento));
+    }
+
+    private void enviar(Cliente cliente, String linha) throws IOException {
+        cliente.saida.add(ByteBuffer.wrap(Protocolo.codificar(linha)));
+        escrever(cliente);
+    }
+
+    private void escrever(Cliente cliente) throws IOException {
+        while (!cliente.saida.isEmpty()) {
+            ByteBuffer dados = cliente.saida.peek();
+            cliente.canal.write(dados);
+            if (dados.hasRemaining()) {
+                cliente.chave.interestOps(interesse(cliente) | SelectionKey.OP_WRITE);
+                return;
+            }
+            cliente.saida.poll();
+        }
+        cliente.chave.interestOps(interesse(cliente));
+    }
+
+    private void registrarLatencia(long nanos) {
+        if (numLatencias == latencias.length) {
+            latencias = Arrays.copyOf(latencias, numLatencias * 2);
+        }
+        latencias[numLatencias++] = nanos;
+    }
+
+    private void imprimirResumo(int pares, double segundos) {
+        long[] ordenadas = Arrays.copyOf(latencias, numLatencias);
+        Arrays.sort(ordenadas);
+        System.out.printf("%d pares, %d partidas, %d lances em %.1f s: %.0f lances/s, %d erros%n",
+                          pares, partidas, numLatencias, segundos, numLatencias / segundos, erros);
+        if (numLatencias > 0) {
+            System.out.printf("latência (µs): p50 %.0f  p90 %.0f  p99 %.0f  máx %.0f%n",
+                              percentil(ordenadas, 0.50), percentil(ordenadas, 0.90),
+                              percentil(ordenadas, 0.99), ordenadas[ordenadas.length - 1] / 1e3);
+        }
+        if (espectadores + lentos > 0) {
+            System.out.printf("espectadores: %d + %d lentos por par, %d lances recebidos (%.0f/s), "
+                            + "%d posições, %d divergências%n", espectadores, lentos, lancesAssistidos,
+                              lancesAssistidos / segundos, posicoesRecebidas, divergencias);
+        }
+    }
+
+    private static double percentil(long[] ordenadas, double p) {
+        return ordenadas[Math.min(ordenadas.length - 1, (int) (p * ordenadas.length))] / 1e3;
+    }
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty("java.awt.headless", "true");
+        String host = "localhost";
+        int porta = ServidorJogos.PORTA_PADRAO;
+        int pares = 500;
+        int segundos = 10;
+        int lances = 100;
+        long semente = 1;
+        int local = 0;
+        int espectadores = 0;
+        int lentos = 0;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--host": host = args[i + 1]; break;
+                case "--porta": porta = Integer.parseInt(args[i + 1]); break;
+                case "--pares": pares = Integer.parseInt(args[i + 1]); break;
+                case "--segundos": segundos = Integer.parseInt(args[i + 1]); break;
+                case "--lances": lances = Integer.parseInt(args[i + 1]); break;
+                case "--semente": semente = Long.parseLong(args[i + 1]); break;
+                case "--local": local = Integer.parseInt(args[i + 1]); break;
+                case "--espectadores": espectadores = Integer.parseInt(args[i + 1]); break;
+                case "--lentos": lentos = Integer.parseInt(args[i + 1]); break;
+                default: throw new IllegalArgumentException("Opção desconhecida: " + args[i]);
+            }
+        }
+
+        ServidorJogos servidor = null;
+        if (local > 0) {
+            servidor = new ServidorJogos(0, local);
+            servidor.iniciar();
+            host = "localhost";
+            porta = servidor.getPorta();
+        }
+        try {
+            GeradorCarga gerador = new GeradorCarga(lances, semente);
+            gerador.setEspectadores(espectadores, lentos);
+            gerador.executar(new InetSocketAddress(host, porta), pares, segundos);
+        } finally {
+            if (servidor != null) {
+                System.out.printf("servidor: %d lances processados, %d sessões ativas%n",
+                                  servidor.getLancesProcessados(), servidor.getSessoesAtivas());
+                servidor.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package damas.server;
+
+import java.io.IOException;
+import java.net.StandardSocketOptions;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Uma thread com um Selector, dona de um conjunto de conexões: lê os comandos,
+ * repassa ao servidor e escreve as respostas. Outras threads só entregam trabalho
+ * pelas filas (conexões novas, escritas e fechamentos) e acordam o selector.
+ * As escritas pedidas durante uma volta são feitas juntas no fim dela.
+ */
+final class LacoSelecao implements Runnable {
+    private static final long PAUSA_ACEITE_MS = 100;
+
+    private final ServidorJogos servidor;
+    private final Selector selector;
+    private final Queue<SocketChannel> novas = new ConcurrentLinkedQueue<>();
+    private final Queue<Conexao> escritas = new ConcurrentLinkedQueue<>();
+    private final Queue<Conexao> fechamentos = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean acordado = new AtomicBoolean();
+    private SelectionKey aceite;    // canal de escuta em pausa depois de uma falha no accept
+    private long retomarAceite;     // quando voltar a aceitar (System.nanoTime)
+    private volatile Thread thread;
+    private volatile boolean ativo = true;
+
+    LacoSelecao(ServidorJogos servidor) throws IOException {
+        this.servidor = servidor;
+        this.selector = Selector.open();
+    }
+
+    /**
+     * Este laço também aceita as conexões (chamar antes de iniciar a thread)
+     */
+    void aceitarDe(ServerSocketChannel canal) throws IOException {
+        canal.register(selector, SelectionKey.OP_ACCEPT);
+    }
+
+    void adicionar(SocketChannel canal) {
+        novas.add(canal);
+        acordar();
+    }
+
+    void agendarEscrita(Conexao conexao) {
+        escritas.add(conexao);
+        acordar();
+    }
+
+    void agendarFechamento(Conexao conexao) {
+        fechamentos.add(conexao);
+        acordar();
+    }
+
+    // Dentro do próprio laço as filas são esvaziadas no fim da volta, sem wakeup; de fora,
+    // um wakeup por volta basta (um lance com muitos espectadores agenda muitas escritas)
+    private void acordar() {
+        if (Thread.currentThread() != thread && acordado.compareAndSet(false, true)) {
+            selector.wakeup();
+        }
+    }
+
+    void parar() {
+        ativo = false;
+        selector.wakeup();
+    }
+
+    @Override
+    public void run() {
+        thread = Thread.currentThread();
+        try {
+            while (ativo) {
+                if (aceite == null) {
+                    selector.select();
+                } else {
+                    selector.select(Math.max(1, (retomarAceite - System.nanoTime()) / 1_000_000));
+                    retomarPausaAceite();
+                }
+                acordado.set(false);   // o que chegar depois disso nas filas pede outro wakeup
+                Iterator<SelectionKey> prontas = selector.selectedKeys().iterator();
+                while (prontas.hasNext()) {
+                    SelectionKey chave = prontas.next();
+                    prontas.remove();
+                    if (!chave.isValid()) {
+                        continue;
+                    }
+                    if (chave.isAcceptable()) {
+                        aceitar(chave);
+                        continue;
+                    }
+                    Conexao conexao = (Conexao) chave.attachment();
+                    try {
+                        if (chave.isReadable()) {
+                            conexao.ler(servidor);
+                        }
+                        if (chave.isValid() && chave.isWritable()) {
+                            conexao.escrever();
+                        }
+                    } catch (IOException e) {
+                        desconectar(conexao);
+                    } catch (RuntimeException e) {
+                        // Um comando que quebrou o processamento derruba só este cliente
+                        System.err.println("Erro ao atender um cliente: " + e);
+                        desconectar(conexao);
+                    }
+                }
+                registrarNovas();
+                for (Conexao conexao = escritas.poll(); conexao != null; conexao = escritas.poll()) {
+                    try {
+                        conexao.escrever();
+                    } catch (IOException e) {
+                        desconectar(conexao);
+                    }
+                }
+                for (Conexao conexao = fechamentos.poll(); conexao != null; conexao = fechamentos.poll()) {
+                    desconectar(conexao);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Erro no laço do servidor: " + e.getMessage());
+        } finally {
+            for (SelectionKey chave : selector.keys()) {
+                if (chave.attachment() instanceof Conexao) {
+                    desconectar((Conexao) chave.attachment());
+                }
+            }
+            try {
+                selector.close();
+            } catch (IOException e) {
+                // encerrando
+            }
+        }
+    }
+
+    private void registrarNovas() {
+        for (SocketChannel canal = novas.poll(); canal != null; canal = novas.poll()) {
+            Conexao conexao = new Conexao(canal, this);
+            try {
+                canal.configureBlocking(false);
+                canal.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                conexao.registrar(canal.register(selector, SelectionKey.OP_READ, conexao));
+                servidor.conectado(conexao);
+            } catch (IOException e) {
+                conexao.fechar();
+            }
+        }
+    }
+
+    // Distribui as conexões aceitas entre os laços. Uma falha no accept (por exemplo, sem
+    // descritores livres) não encerra o laço: o aceite para por um instante e é retomado,
+    // em vez de girar com a chave sempre pronta.
+    private void aceitar(SelectionKey chave) {
+        ServerSocketChannel canal = (ServerSocketChannel) chave.channel();
+        try {
+            for (SocketChannel novo = canal.accept(); novo != null; novo = canal.accept()) {
+                servidor.proximoLaco().adicionar(novo);
+            }
+        } catch (IOException e) {
+            System.err.println("Erro ao aceitar conexão: " + e.getMessage());
+            chave.interestOps(0);
+            aceite = chave;
+            retomarAceite = System.nanoTime() + PAUSA_ACEITE_MS * 1_000_000;
+        }
+    }
+
+    private void retomarPausaAceite() {
+        if (System.nanoTime() - retomarAceite >= 0) {
+            if (aceite.isValid()) {
+                aceite.interestOps(SelectionKey.OP_ACCEPT);
+            }
+            aceite = null;
+        }
+    }
+
+    private void desconectar(Conexao conexao) {
+        if (!conexao.isFechada()) {
+            conexao.fechar();
+            servidor.desconectado(conexao);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package damas.server;
+
+import java.nio.charset.StandardCharsets;
+import damas.core.ListaMovimentos;
+import damas.core.Movimento;
+import damas.core.Tabuleiro;
+import damas.pdn.EscritorPdn;
+
+/**
+ * Protocolo de linhas do servidor de partidas: um comando por linha, em UTF-8,
+ * terminado em '\n', com os campos separados por um espaço.
+ *
+ * Cliente -> servidor:
+ *   NOVA [nome]          cria uma sessão e joga de brancas; resposta SESSAO id BRANCA
+ *   ENTRAR id [nome]     entra na sessão como pretas; resposta SESSAO id PRETA
+ *   LANCE 11-15          lance em notação PDN (casas 1 a 32; "x" ou "-")
+ *   POSICAO              resposta POSICAO seguida do texto de Tabuleiro.paraTexto
+ *   SAIR                 abandona a sessão (o adversário vence) ou deixa de assistir
+ *   ASSISTIR id          assiste à sessão; resposta ASSISTINDO id, a posição atual
+ *                        (POSICAO) e depois os lances (LANCE) e o FIM da partida
+ *   PING                 resposta PONG
+ *
+ * Servidor -> cliente:
+ *   INICIO nomeBrancas nomePretas   as duas cores estão presentes; brancas começam
+ *   LANCE 11-15                     lance aceito, enviado aos dois jogadores
+ *   FIM BRANCA | PRETA | EMPATE     fim da partida (pelas regras, abandono ou limite de lances)
+ *   ERRO motivo                     comando recusado; a sessão continua
+ *
+ * Um espectador que não acompanha os lances recebe de novo a posição inteira (POSICAO)
+ * no lugar dos lances que perdeu, e segue a partir dela.
+ */
+final class Protocolo {
+    static final int TAMANHO_MAXIMO_LINHA = 256;
+
+    static final String NOVA = "NOVA";
+    static final String ENTRAR = "ENTRAR";
+    static final String LANCE = "LANCE";
+    static final String POSICAO = "POSICAO";
+    static final String SAIR = "SAIR";
+    static final String PING = "PING";
+    static final String ASSISTIR = "ASSISTIR";
+
+    static final String SESSAO = "SESSAO";
+    static final String INICIO = "INICIO";
+    static final String FIM = "FIM";
+    static final String ERRO = "ERRO";
+    static final String PONG = "PONG";
+    static final String ASSISTINDO = "ASSISTINDO";
+
+    private Protocolo() {
+    }
+
+    /**
+     * Lance legal da posição correspondente ao texto PDN ("11-15", "15x22"),
+     * ou Movimento.NENHUM se o texto estiver malformado ou o lance não for legal
+     */
+    static int interpretarLance(Tabuleiro posicao, String texto, ListaMovimentos legais) {
+        int separador = -1;
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (c == '-' || c == 'x' || c == 'X') {
+                separador = i;
+                break;
+            }
+        }
+        if (separador <= 0) {
+            return Movimento.NENHUM;
+        }
+        int origem = lerCasa(texto, 0, separador);
+        int destino = lerCasa(texto, separador + 1, texto.length());
+        if (origem < 0 || destino < 0) {
+            return Movimento.NENHUM;
+        }
+        legais.limpar();
+        posicao.gerarMovimentosLegais(posicao.getVez(), legais);
+        for (int i = 0; i < legais.tamanho(); i++) {
+            int movimento = legais.get(i);
+            if (Movimento.origem(movimento) == origem && Movimento.destino(movimento) == destino) {
+                return movimento;
+            }
+        }
+        return Movimento.NENHUM;
+    }
+
+    // Casa PDN (1 a 32) do trecho como índice do tabuleiro, ou -1
+    private static int lerCasa(String texto, int inicio, int fim) {
+        if (fim - inicio < 1 || fim - inicio > 2) {
+            return -1;
+        }
+        int numero = 0;
+        for (int i = inicio; i < fim; i++) {
+            char c = texto.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            numero = numero * 10 + (c - '0');
+        }
+        return numero >= 1 && numero <= Tabuleiro.NUM_CASAS ? numero - 1 : -1;
+    }
+
+    static String notacao(int movimento) {
+        return EscritorPdn.notacao(movimento);
+    }
+
+    static byte[] codificar(String linha) {
+        return (linha + '\n').getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,30 @@
+package damas.server;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sessões em andamento, por id; consultado e alterado pelos laços ao mesmo tempo
+ */
+final class RegistroSessoes {
+    private final ConcurrentHashMap<Long, Sessao> sessoes = new ConcurrentHashMap<>();
+    private final AtomicLong proximoId = new AtomicLong(1);
+
+    Sessao criar(Conexao criador, String nome) {
+        Sessao sessao = new Sessao(proximoId.getAndIncrement(), criador, nome, this);
+        sessoes.put(sessao.getId(), sessao);
+        return sessao;
+    }
+
+    Sessao get(long id) {
+        return sessoes.get(id);
+    }
+
+    void remover(long id) {
+        sessoes.remove(id);
+    }
+
+    int tamanho() {
+        return sessoes.size();
+    }
+}
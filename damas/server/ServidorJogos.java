@@ -0,0 +1,243 @@
+package damas.server;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.ServerSocketChannel;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import damas.core.Tabuleiro;
+
+/**
+ * Servidor de partidas: hospeda muitas sessões de Jogo ao mesmo tempo, com o
+ * protocolo de linhas descrito em Protocolo, sobre canais java.nio não bloqueantes.
+ *
+ * Cada LacoSelecao é uma thread com um Selector e atende as conexões que recebeu;
+ * o primeiro laço também aceita conexões e as distribui em rodízio. Duas conexões
+ * da mesma sessão podem estar em laços diferentes: a sessão é sincronizada e o lance
+ * chega ao adversário pela fila de escrita do laço dele. Espectadores recebem os
+ * lances pela Transmissao da sessão, sem atrasar os jogadores.
+ *
+ * Uso: java -cp bin damas.server.ServidorJogos [--porta P] [--lacos N]
+ * (carga de teste: java -cp bin damas.server.GeradorCarga)
+ */
+public class ServidorJogos implements Closeable {
+    public static final int PORTA_PADRAO = 7171;
+    // Partidas que atingem o limite terminam empatadas, como em SimuladorPartidas
+    public static final int MAX_LANCES = 300;
+
+    private final ServerSocketChannel canal;
+    private final LacoSelecao[] lacos;
+    private final Thread[] threads;
+    private final AtomicInteger proximo = new AtomicInteger();
+    private final RegistroSessoes sessoes = new RegistroSessoes();
+    private final AtomicInteger conexoes = new AtomicInteger();
+    private final LongAdder lances = new LongAdder();
+
+    /**
+     * @param porta porta TCP (0 escolhe uma livre, ver getPorta)
+     * @param numLacos threads de E/S
+     */
+    public ServidorJogos(int porta, int numLacos) throws IOException {
+        canal = ServerSocketChannel.open();
+        canal.bind(new InetSocketAddress(porta), 1024);
+        canal.configureBlocking(false);
+        lacos = new LacoSelecao[numLacos];
+        threads = new Thread[numLacos];
+        for (int i = 0; i < numLacos; i++) {
+            lacos[i] = new LacoSelecao(this);
+        }
+        lacos[0].aceitarDe(canal);
+    }
+
+    public void iniciar() {
+        for (int i = 0; i < lacos.length; i++) {
+            threads[i] = new Thread(lacos[i], "servidor-laco-" + i);
+            threads[i].start();
+        }
+    }
+
+    LacoSelecao proximoLaco() {
+        return lacos[Math.floorMod(proximo.getAndIncrement(), lacos.length)];
+    }
+
+    void conectado(Conexao conexao) {
+        conexoes.incrementAndGet();
+    }
+
+    void desconectado(Conexao conexao) {
+        conexoes.decrementAndGet();
+        pararDeAssistir(conexao);
+        Sessao sessao = conexao.sessao;
+        if (sessao != null) {
+            sessao.sair(conexao);
+        }
+    }
+
+    /**
+     * Executa um comando recebido (na thread do laço da conexão)
+     */
+    void processar(Conexao conexao, String linha) {
+        int espaco = linha.indexOf(' ');
+        String comando = espaco < 0 ? linha : linha.substring(0, espaco);
+        String argumento = espaco < 0 ? "" : linha.substring(espaco + 1).trim();
+        Sessao sessao = conexao.sessao;
+        switch (comando) {
+            case Protocolo.LANCE:
+                if (sessao == null) {
+                    conexao.enviar(Protocolo.ERRO + " fora de uma sessão");
+                    return;
+                }
+                String recusa = sessao.jogar(conexao, argumento);
+                if (recusa != null) {
+                    conexao.enviar(Protocolo.ERRO + " " + recusa);
+                } else {
+                    lances.increment();
+                }
+                break;
+            case Protocolo.NOVA:
+                if (sessao != null) {
+                    conexao.enviar(Protocolo.ERRO + " já está na sessão " + sessao.getId());
+                    return;
+                }
+                sessao = sessoes.criar(conexao, nome(argumento, "Brancas"));
+                conexao.enviar(Protocolo.SESSAO + " " + sessao.getId() + " BRANCA");
+                break;
+            case Protocolo.ENTRAR:
+                entrar(conexao, argumento);
+                break;
+            case Protocolo.POSICAO:
+                conexao.enviar(Protocolo.POSICAO + " "
+                        + (sessao == null ? new Tabuleiro().paraTexto() : sessao.posicao()));
+                break;
+            case Protocolo.ASSISTIR:
+                assistir(conexao, argumento);
+                break;
+            case Protocolo.SAIR:
+                if (sessao != null) {
+                    sessao.sair(conexao);
+                } else if (conexao.espectador != null) {
+                    pararDeAssistir(conexao);
+                } else {
+                    conexao.enviar(Protocolo.ERRO + " fora de uma sessão");
+                }
+                break;
+            case Protocolo.PING:
+                conexao.enviar(Protocolo.PONG);
+                break;
+            default:
+                conexao.enviar(Protocolo.ERRO + " comando desconhecido: " + comando);
+        }
+    }
+
+    private void assistir(Conexao conexao, String argumento) {
+        if (conexao.sessao != null) {
+            conexao.enviar(Protocolo.ERRO + " jogadores não assistem a outras sessões");
+            return;
+        }
+        Sessao sessao;
+        try {
+            sessao = sessoes.get(Long.parseLong(argumento));
+        } catch (NumberFormatException e) {
+            conexao.enviar(Protocolo.ERRO + " id de sessão inválido");
+            return;
+        }
+        Espectador espectador = sessao == null ? null : sessao.assistir(conexao);
+        if (espectador == null) {
+            conexao.enviar(Protocolo.ERRO + " sessão inexistente");
+            return;
+        }
+        pararDeAssistir(conexao);
+        conexao.enviar(Protocolo.ASSISTINDO + " " + sessao.getId());
+        conexao.espectador = espectador;   // a posição sai depois da confirmação (ver Conexao.escrever)
+        conexao.notificar();
+    }
+
+    private static void pararDeAssistir(Conexao conexao) {
+        Espectador espectador = conexao.espectador;
+        if (espectador != null) {
+            conexao.espectador = null;
+            espectador.getSessao().deixarDeAssistir(espectador);
+        }
+    }
+
+    private void entrar(Conexao conexao, String argumento) {
+        if (conexao.sessao != null) {
+            conexao.enviar(Protocolo.ERRO + " já está na sessão " + conexao.sessao.getId());
+            return;
+        }
+        int espaco = argumento.indexOf(' ');
+        Sessao sessao;
+        try {
+            sessao = sessoes.get(Long.parseLong(espaco < 0 ? argumento : argumento.substring(0, espaco)));
+        } catch (NumberFormatException e) {
+            conexao.enviar(Protocolo.ERRO + " id de sessão inválido");
+            return;
+        }
+        if (sessao == null) {
+            conexao.enviar(Protocolo.ERRO + " sessão inexistente");
+        } else if (!sessao.entrar(conexao, nome(espaco < 0 ? "" : argumento.substring(espaco + 1), "Pretas"))) {
+            conexao.enviar(Protocolo.ERRO + " sessão completa");
+        }
+    }
+
+    // Primeira palavra do argumento, ou o nome padrão
+    private static String nome(String argumento, String padrao) {
+        String nome = argumento.trim();
+        int espaco = nome.indexOf(' ');
+        if (espaco >= 0) {
+            nome = nome.substring(0, espaco);
+        }
+        return nome.isEmpty() ? padrao : nome;
+    }
+
+    public int getPorta() throws IOException {
+        return ((InetSocketAddress) canal.getLocalAddress()).getPort();
+    }
+
+    public int getSessoesAtivas() { return sessoes.tamanho(); }
+    public int getConexoes() { return conexoes.get(); }
+    public long getLancesProcessados() { return lances.sum(); }
+
+    @Override
+    public void close() throws IOException {
+        for (LacoSelecao laco : lacos) {
+            laco.parar();
+        }
+        for (Thread thread : threads) {
+            if (thread != null) {
+                try {
+                    thread.join(1000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+        canal.close();
+    }
+
+    public static void main(String[] args) throws Exception {
+        int porta = PORTA_PADRAO;
+        int numLacos = Runtime.getRuntime().availableProcessors();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--porta": porta = Integer.parseInt(args[i + 1]); break;
+                case "--lacos": numLacos = Integer.parseInt(args[i + 1]); break;
+                default: throw new IllegalArgumentException("Opção desconhecida: " + args[i]);
+            }
+        }
+        ServidorJogos servidor = new ServidorJogos(porta, numLacos);
+        servidor.iniciar();
+        System.out.printf("Servidor de partidas na porta %d (%d laços)%n", servidor.getPorta(), numLacos);
+
+        // Estatísticas a cada 10 s
+        long lancesAntes = 0;
+        while (true) {
+            Thread.sleep(10_000);
+            long lancesAgora = servidor.getLancesProcessados();
+            System.out.printf("%d conexões, %d sessões, %.0f lances/s%n", servidor.getConexoes(),
+                              servidor.getSessoesAtivas(), (lancesAgora - lancesAntes) / 10.0);
+            lancesAntes = lancesAgora;
+        }
+    }
+}
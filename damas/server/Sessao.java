@@ -0,0 +1,162 @@
+package damas.server;
+
+import java.nio.ByteBuffer;
+import damas.core.CorPeca;
+import damas.core.FotoJogo;
+import damas.core.Jogador;
+import damas.core.Jogo;
+import damas.core.ListaMovimentos;
+import damas.core.Movimento;
+import damas.core.Tabuleiro;
+
+/**
+ * Uma partida hospedada no servidor entre duas conexões. As conexões podem estar
+ * em laços diferentes, então os métodos são sincronizados; dentro deles só se
+ * altera o Jogo e se enfileiram linhas (Conexao.enviar não faz E/S).
+ *
+ * Os lances são validados pelo Tabuleiro do Jogo: o texto PDN precisa corresponder
+ * a um dos lances legais da cor que tem a vez. Os aceitos também seguem para os
+ * espectadores (ver Transmissao).
+ */
+final class Sessao {
+    private final long id;
+    private final RegistroSessoes registro;
+    private final String nomeBrancas;
+    private final Conexao brancas;
+    private Conexao pretas;
+    private volatile Jogo jogo;   // publicado em entrar(); as leituras usam a foto do jogo
+    private boolean encerrada;
+    private final ListaMovimentos legais = new ListaMovimentos();
+    private final Transmissao transmissao = new Transmissao();
+
+    Sessao(long id, Conexao criador, String nome, RegistroSessoes registro) {
+        this.id = id;
+        this.registro = registro;
+        this.nomeBrancas = nome;
+        this.brancas = criador;
+        criador.sessao = this;
+        criador.cor = CorPeca.BRANCA;
+    }
+
+    long getId() {
+        return id;
+    }
+
+    /**
+     * Entra como pretas e começa a partida; false se a sessão já tem as duas cores
+     */
+    synchronized boolean entrar(Conexao conexao, String nome) {
+        if (encerrada || pretas != null) {
+            return false;
+        }
+        pretas = conexao;
+        conexao.sessao = this;
+        conexao.cor = CorPeca.PRETA;
+        Jogo novo = new Jogo(new Jogador(nomeBrancas, CorPeca.BRANCA), new Jogador(nome, CorPeca.PRETA));
+        novo.setConcorrente(true);
+        jogo = novo;
+        conexao.enviar(Protocolo.SESSAO + " " + id + " " + CorPeca.PRETA.name());
+        enviarAosDois(Protocolo.INICIO + " " + nomeBrancas + " " + nome);
+        return true;
+    }
+
+    /**
+     * Executa o lance da conexão e o repassa aos dois jogadores.
+     * Retorna o motivo da recusa, ou null se o lance foi aceito.
+     */
+    synchronized String jogar(Conexao conexao, String texto) {
+        if (encerrada) {
+            return "partida encerrada";
+        }
+        if (jogo == null) {
+            return "aguardando adversário";
+        }
+        if (conexao.cor != jogo.getJogadorAtual().getCor()) {
+            return "não é a sua vez";
+        }
+        int movimento = Protocolo.interpretarLance(jogo.getTabuleiro(), texto, legais);
+        if (movimento == Movimento.NENHUM || !jogo.executarMovimento(movimento)) {
+            return "lance inválido: " + texto;
+        }
+        enviarAosDois(Protocolo.LANCE + " " + Protocolo.notacao(movimento));
+        transmissao.publicar(movimento);
+
+        if (!jogo.isJogoAtivo()) {
+            encerrar(jogo.getVencedor() == null ? null : jogo.getVencedor().getCor());
+        } else if (jogo.getNumeroLances() >= ServidorJogos.MAX_LANCES) {
+            jogo.finalizarJogo();   // limite de lances: empate
+            encerrar(null);
+        }
+        return null;
+    }
+
+    /**
+     * A conexão abandona a partida (SAIR ou desconexão): o adversário vence
+     */
+    synchronized void sair(Conexao conexao) {
+        if (encerrada) {
+            return;
+        }
+        CorPeca vencedora = null;
+        if (jogo != null) {
+            jogo.finalizarJogo();
+            vencedora = conexao.cor == CorPeca.BRANCA ? CorPeca.PRETA : CorPeca.BRANCA;
+        }
+        encerrar(vencedora);
+    }
+
+    /**
+     * Passa a transmitir a partida para a conexão, a partir da posição atual;
+     * null se a partida já terminou
+     */
+    synchronized Espectador assistir(Conexao conexao) {
+        if (encerrada) {
+            return null;
+        }
+        return transmissao.inscrever(this, conexao, jogo == null ? 0 : jogo.getNumeroLances());
+    }
+
+    void deixarDeAssistir(Espectador espectador) {
+        transmissao.remover(espectador);
+    }
+
+    /** Foto da partida (ver Jogo.setConcorrente), ou null antes de as duas cores entrarem */
+    FotoJogo foto() {
+        Jogo atual = jogo;
+        return atual == null ? null : atual.getFoto();
+    }
+
+    int getEspectadores() {
+        return transmissao.tamanho();
+    }
+
+    /**
+     * Posição atual, lida da foto publicada pelo jogo, sem esperar um lance em andamento
+     */
+    String posicao() {
+        FotoJogo atual = foto();
+        return atual == null ? new Tabuleiro().paraTexto() : atual.paraTexto();
+    }
+
+    // Avisa os dois jogadores, libera as conexões para outra sessão e sai do registro
+    private void encerrar(CorPeca vencedora) {
+        encerrada = true;
+        String linhaFim = Protocolo.FIM + " " + (vencedora == null ? "EMPATE" : vencedora.name());
+        enviarAosDois(linhaFim);
+        transmissao.encerrar(linhaFim);
+        brancas.sessao = null;
+        if (pretas != null) {
+            pretas.sessao = null;
+        }
+        registro.remover(id);
+    }
+
+    // A linha é codificada uma vez; cada conexão recebe uma visão própria dos bytes
+    private void enviarAosDois(String linha) {
+        ByteBuffer dados = ByteBuffer.wrap(Protocolo.codificar(linha));
+        brancas.enviar(dados.duplicate());
+        if (pretas != null) {
+            pretas.enviar(dados);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package damas.server;
+
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Os espectadores de uma sessão. Cada lance é repassado a todos pelo buffer de cada
+ * um (ver Espectador), sem E/S e sem esperar nenhum deles; a escrita fica com o laço
+ * de cada espectador. Inscrições são raras perto de lances, daí a lista copiada na escrita.
+ */
+final class Transmissao {
+    private final CopyOnWriteArrayList<Espectador> espectadores = new CopyOnWriteArrayList<>();
+
+    /**
+     * Inscreve a conexão a partir do lance lancesJogados (chamado sob o monitor da sessão,
+     * para não perder nem repetir um lance)
+     */
+    Espectador inscrever(Sessao sessao, Conexao conexao, int lancesJogados) {
+        Espectador espectador = new Espectador(sessao, conexao, lancesJogados);
+        espectadores.add(espectador);
+        return espectador;
+    }
+
+    void remover(Espectador espectador) {
+        espectadores.remove(espectador);
+    }
+
+    void publicar(int movimento) {
+        for (Espectador espectador : espectadores) {
+            espectador.publicar(movimento);
+        }
+    }
+
+    void encerrar(String linhaFim) {
+        for (Espectador espectador : espectadores) {
+            espectador.encerrar(linhaFim);
+        }
+        espectadores.clear();
+    }
+
+    int tamanho() {
+        return espectadores.size();
+    }
+}
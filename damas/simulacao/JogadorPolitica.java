@@ -0,0 +1,39 @@
+package damas.simulacao;
+
+import java.util.SplittableRandom;
+import damas.core.CorPeca;
+import damas.core.Jogador;
+import damas.core.Jogo;
+import damas.core.ListaMovimentos;
+import damas.core.Movimento;
+import damas.core.Tabuleiro;
+
+/**
+ * Jogador automático que delega a escolha do lance a uma PoliticaMovimento
+ */
+public class JogadorPolitica extends Jogador {
+    private static final long serialVersionUID = 1L;
+
+    private final transient PoliticaMovimento politica;
+    private final transient SplittableRandom aleatorio;
+    private final transient ListaMovimentos legais = new ListaMovimentos();
+
+    public JogadorPolitica(String nome, CorPeca cor, PoliticaMovimento politica, SplittableRandom aleatorio) {
+        super(nome, cor);
+        this.politica = politica;
+        this.aleatorio = aleatorio;
+    }
+
+    @Override
+    public boolean isAutomatico() {
+        return true;
+    }
+
+    @Override
+    public int escolherMovimento(Jogo jogo) {
+        Tabuleiro tabuleiro = jogo.getTabuleiro();
+        legais.limpar();
+        tabuleiro.gerarMovimentosLegais(getCor(), legais);
+        return legais.isVazia() ? Movimento.NENHUM : politica.escolher(tabuleiro, legais, aleatorio);
+    }
+}
@@ -0,0 +1,16 @@
+package damas.simulacao;
+
+import java.util.SplittableRandom;
+import damas.core.ListaMovimentos;
+import damas.core.Tabuleiro;
+
+/**
+ * Estratégia de escolha de lances para partidas automáticas
+ */
+public interface PoliticaMovimento {
+
+    /**
+     * Escolhe um dos lances legais (nunca vazio) da cor que tem a vez no tabuleiro
+     */
+    int escolher(Tabuleiro tabuleiro, ListaMovimentos legais, SplittableRandom aleatorio);
+}
@@ -0,0 +1,105 @@
+package damas.simulacao;
+
+import damas.abertura.LivroAberturas;
+import damas.core.ListaMovimentos;
+import damas.core.Movimento;
+import damas.core.Tabuleiro;
+import java.util.concurrent.atomic.LongAdder;
+import damas.engine.Avaliacao;
+import damas.engine.EstatisticasTabela;
+import damas.engine.Motor;
+import damas.engine.TabelaTransposicao;
+
+/**
+ * Políticas de lance prontas: aleatória, gulosa (melhor avaliação a um lance) e motor
+ */
+public final class Politicas {
+    private static final int TABELA_MOTOR_MB = 4;
+
+    // Uso das tabelas de transposição das políticas motor, somado uma vez por busca
+    private static final LongAdder consultasTabela = new LongAdder();
+    private static final LongAdder acertosTabela = new LongAdder();
+    private static final LongAdder gravacoesTabela = new LongAdder();
+    private static final LongAdder substituicoesTabela = new LongAdder();
+
+    private Politicas() {}
+
+    /** Sorteia qualquer lance legal */
+    public static PoliticaMovimento aleatoria() {
+        return (tabuleiro, legais, aleatorio) -> legais.get(aleatorio.nextInt(legais.tamanho()));
+    }
+
+    /**
+     * Escolhe o lance com melhor avaliação estática após jogá-lo; empates são sorteados
+     */
+    public static PoliticaMovimento gulosa() {
+        ThreadLocal<Tabuleiro> copia = ThreadLocal.withInitial(Tabuleiro::new);
+        return (tabuleiro, legais, aleatorio) -> {
+            Tabuleiro filho = copia.get();
+            int melhor = Movimento.NENHUM;
+            int melhorValor = Integer.MIN_VALUE;
+            int empates = 0;
+            for (int i = 0; i < legais.tamanho(); i++) {
+                filho.copiarDe(tabuleiro);
+                filho.aplicarMovimento(legais.get(i));
+                int valor = -Avaliacao.avaliar(filho);
+                if (valor > melhorValor) {
+                    melhorValor = valor;
+                    melhor = legais.get(i);
+                    empates = 1;
+                } else if (valor == melhorValor && aleatorio.nextInt(++empates) == 0) {
+                    melhor = legais.get(i);
+                }
+            }
+            return melhor;
+        };
+    }
+
+    /**
+     * Busca do motor com profundidade fixa; cada thread usa seu próprio Motor
+     */
+    public static PoliticaMovimento motor(int profundidade) {
+        ThreadLocal<Motor> motores = ThreadLocal.withInitial(
+                () -> new Motor(new TabelaTransposicao(TABELA_MOTOR_MB)));
+        return (tabuleiro, legais, aleatorio) -> {
+            Motor motor = motores.get();
+            int lance = motor.buscar(tabuleiro, profundidade, Long.MAX_VALUE / 2_000_000L).getMelhorMovimento();
+            EstatisticasTabela tabela = motor.getEstatisticasTabela();
+            consultasTabela.add(tabela.getConsultas());
+            acertosTabela.add(tabela.getAcertos());
+            gravacoesTabela.add(tabela.getGravacoes());
+            substituicoesTabela.add(tabela.getSubstituicoes());
+            return lance != Movimento.NENHUM ? lance : legais.get(0);
+        };
+    }
+
+    /**
+     * Uso das tabelas de transposição por todas as políticas motor até agora
+     */
+    public static EstatisticasTabela getEstatisticasTabela() {
+        return new EstatisticasTabela(consultasTabela.sum(), acertosTabela.sum(),
+                                      gravacoesTabela.sum(), substituicoesTabela.sum());
+    }
+
+    /**
+     * Joga pelo livro de aberturas enquanto a posição estiver nele e depois pela política dada
+     */
+    public static PoliticaMovimento comLivro(LivroAberturas livro, PoliticaMovimento foraDoLivro) {
+        return (tabuleiro, legais, aleatorio) -> {
+            int lance = livro.escolher(tabuleiro, aleatorio);
+            return lance != Movimento.NENHUM ? lance : foraDoLivro.escolher(tabuleiro, legais, aleatorio);
+        };
+    }
+
+    /**
+     * Política pelo nome: "aleatoria", "gulosa", "motor" ou "motorN" (profundidade N)
+     */
+    public static PoliticaMovimento porNome(String nome) {
+        if (nome.equals("aleatoria")) return aleatoria();
+        if (nome.equals("gulosa")) return gulosa();
+        if (nome.startsWith("motor")) {
+            return motor(nome.length() > 5 ? Integer.parseInt(nome.substring(5)) : 4);
+        }
+        throw new IllegalArgumentException("Política desconhecida: " + nome);
+    }
+}
@@ -0,0 +1,241 @@
+package damas.simulacao;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import damas.abertura.LivroAberturas;
+import damas.core.*;
+import damas.engine.EstatisticasTabela;
+
+/**
+ * Simulador de partidas sem interface gráfica: cria cada Jogo a partir da
+ * ConfiguracaoJogo, joga até o fim com as políticas de cada jogador e agrega
+ * as estatísticas. As partidas são distribuídas entre um número fixo de threads,
+ * cada uma buscando a próxima partida de um contador compartilhado.
+ *
+ * Uso: java -cp bin damas.simulacao.SimuladorPartidas [--partidas N] [--threads T]
+ *      [--jogador1 política] [--jogador2 política] [--max-lances L] [--abertura K] [--semente S]
+ *      [--livro arquivo] (os dois jogadores seguem o livro de aberturas enquanto possível)
+ * Políticas: aleatoria, gulosa, motor, motorN (profundidade N)
+ */
+public class SimuladorPartidas {
+    public static final int MAX_LANCES_PADRAO = 300;
+
+    private final ConfiguracaoJogo config;
+    private final PoliticaMovimento politica1;
+    private final PoliticaMovimento politica2;
+    private int maxLances = MAX_LANCES_PADRAO;
+    private int lancesAleatorios = 0;
+    private long semente = 1;
+    private Consumer<Jogo> aoTerminar;
+
+    public SimuladorPartidas(ConfiguracaoJogo config, PoliticaMovimento politica1, PoliticaMovimento politica2) {
+        this.config = config;
+        this.politica1 = politica1;
+        this.politica2 = politica2;
+    }
+
+    /** Partidas que atingem o limite de lances terminam empatadas */
+    public void setMaxLances(int maxLances) { this.maxLances = maxLances; }
+
+    /** Lances iniciais sorteados, para variar as partidas entre políticas determinísticas */
+    public void setLancesAleatorios(int lancesAleatorios) { this.lancesAleatorios = lancesAleatorios; }
+
+    /** A partida i usa a semente (semente + i), de modo que o lote é reproduzível */
+    public void setSemente(long semente) { this.semente = semente; }
+
+    /** Recebe cada partida encerrada, na thread que a jogou (ex.: para montar um livro de aberturas) */
+    public void setAoTerminar(Consumer<Jogo> aoTerminar) { this.aoTerminar = aoTerminar; }
+
+    /**
+     * Joga as partidas em `threads` threads e retorna as estatísticas agregadas
+     */
+    public Estatisticas jogar(int partidas, int threads) throws InterruptedException {
+        long inicio = System.nanoTime();
+        AtomicInteger proxima = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Estatisticas>> parciais = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                parciais.add(executor.submit(() -> {
+                    Estatisticas parcial = new Estatisticas();
+                    for (int i = proxima.getAndIncrement(); i < partidas; i = proxima.getAndIncrement()) {
+                        jogarPartida(i, parcial);
+                    }
+                    return parcial;
+                }));
+            }
+
+            Estatisticas total = new Estatisticas();
+            for (Future<Estatisticas> parcial : parciais) {
+                total.somar(parcial.get());
+            }
+            total.tempoNanos = System.nanoTime() - inicio;
+            return total;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Falha em partida simulada", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Joga uma partida completa e registra o resultado nas estatísticas
+     */
+    public Jogo jogarPartida(int indice, Estatisticas estatisticas) {
+        SplittableRandom aleatorio = new SplittableRandom(semente + indice);
+        Jogo jogo = new Jogo(
+                new JogadorPolitica(config.getNomeJogador1(), config.getCorJogador1(), politica1, aleatorio),
+                new JogadorPolitica(config.getNomeJogador2(), config.getCorJogador2(), politica2, aleatorio));
+
+        ListaMovimentos legais = new ListaMovimentos();
+        int lances = 0;
+        while (jogo.isJogoAtivo() && lances < maxLances) {
+            boolean jogou;
+            if (lances < lancesAleatorios) {
+                legais.limpar();
+                jogo.getTabuleiro().gerarMovimentosLegais(jogo.getJogadorAtual().getCor(), legais);
+                jogou = !legais.isVazia()
+                        && jogo.executarMovimento(legais.get(aleatorio.nextInt(legais.tamanho())));
+            } else {
+                jogou = jogo.jogarVezAutomatica();
+            }
+            if (!jogou) {
+                break;
+            }
+            lances++;
+        }
+        if (jogo.isJogoAtivo()) {
+            jogo.finalizarJogo();   // limite de lances: empate
+        }
+
+        estatisticas.registrar(jogo, lances);
+        if (aoTerminar != null) {
+            aoTerminar.accept(jogo);
+        }
+        return jogo;
+    }
+
+    /**
+     * Estatísticas agregadas de um lote de partidas
+     */
+    public static class Estatisticas {
+        private long partidas;
+        private long lances;
+        private long vitoriasJogador1;
+        private long vitoriasJogador2;
+        private long vitoriasBrancas;
+        private long empates;
+        private long tempoNanos;
+
+        void registrar(Jogo jogo, int lancesPartida) {
+            partidas++;
+            lances += lancesPartida;
+            Jogador vencedor = jogo.getVencedor();
+            if (vencedor == null) {
+                empates++;
+                return;
+            }
+            if (vencedor == jogo.getJogador1()) vitoriasJogador1++;
+            else vitoriasJogador2++;
+            if (vencedor.getCor() == CorPeca.BRANCA) vitoriasBrancas++;
+        }
+
+        void somar(Estatisticas outra) {
+            partidas += outra.partidas;
+            lances += outra.lances;
+            vitoriasJogador1 += outra.vitoriasJogador1;
+            vitoriasJogador2 += outra.vitoriasJogador2;
+            vitoriasBrancas += outra.vitoriasBrancas;
+            empates += outra.empates;
+        }
+
+        public long getPartidas() { return partidas; }
+        public long getVitoriasJogador1() { return vitoriasJogador1; }
+        public long getVitoriasJogador2() { return vitoriasJogador2; }
+        public long getEmpates() { return empates; }
+
+        public double getPartidasPorSegundo() {
+            return tempoNanos == 0 ? 0 : partidas * 1e9 / tempoNanos;
+        }
+
+        public double getDuracaoMedia() {
+            return partidas == 0 ? 0 : (double) lances / partidas;
+        }
+
+        private double percentual(long valor) {
+            return partidas == 0 ? 0 : 100.0 * valor / partidas;
+        }
+
+        @Override
+        public String toString() {
+            long vitoriasPretas = partidas - empates - vitoriasBrancas;
+            return String.format(
+                "%d partidas em %.2f s (%.1f partidas/s), %.1f lances em média%n"
+              + "Jogador 1: %.1f%%  Jogador 2: %.1f%%  Empates: %.1f%%%n"
+              + "Brancas: %.1f%%  Pretas: %.1f%%",
+                partidas, tempoNanos / 1e9, getPartidasPorSegundo(), getDuracaoMedia(),
+                percentual(vitoriasJogador1), percentual(vitoriasJogador2), percentual(empates),
+                percentual(vitoriasBrancas), percentual(vitoriasPretas));
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException, IOException {
+        System.setProperty("java.awt.headless", "true");
+
+        int partidas = 1000;
+        int threads = Runtime.getRuntime().availableProcessors();
+        String nome1 = "aleatoria";
+        String nome2 = "aleatoria";
+        int maxLances = MAX_LANCES_PADRAO;
+        int abertura = 0;
+        long semente = 1;
+        String livro = null;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--partidas": partidas = Integer.parseInt(args[i + 1]); break;
+                case "--threads": threads = Integer.parseInt(args[i + 1]); break;
+                case "--jogador1": nome1 = args[i + 1]; break;
+                case "--jogador2": nome2 = args[i + 1]; break;
+                case "--max-lances": maxLances = Integer.parseInt(args[i + 1]); break;
+                case "--abertura": abertura = Integer.parseInt(args[i + 1]); break;
+                case "--semente": semente = Long.parseLong(args[i + 1]); break;
+                case "--livro": livro = args[i + 1]; break;
+                default: throw new IllegalArgumentException("Opção desconhecida: " + args[i]);
+            }
+        }
+
+        ConfiguracaoJogo config = new ConfiguracaoJogo();
+        config.setNomeJogador1(nome1 + " (1)");
+        config.setNomeJogador2(nome2 + " (2)");
+        config.setCorJogador1(CorPeca.BRANCA);
+        config.setCorJogador2(CorPeca.PRETA);
+
+        PoliticaMovimento politica1 = Politicas.porNome(nome1);
+        PoliticaMovimento politica2 = Politicas.porNome(nome2);
+        if (livro != null) {
+            LivroAberturas aberturas = LivroAberturas.abrir(livro);
+            politica1 = Politicas.comLivro(aberturas, politica1);
+            politica2 = Politicas.comLivro(aberturas, politica2);
+        }
+        SimuladorPartidas simulador = new SimuladorPartidas(config, politica1, politica2);
+        simulador.setMaxLances(maxLances);
+        simulador.setLancesAleatorios(abertura);
+        simulador.setSemente(semente);
+
+        System.out.printf("%s vs %s, %d partidas, %d threads%n", config.getNomeJogador1(),
+                          config.getNomeJogador2(), partidas, threads);
+        System.out.println(simulador.jogar(partidas, threads));
+        EstatisticasTabela tabela = Politicas.getEstatisticasTabela();
+        if (tabela.getConsultas() > 0) {
+            System.out.println("Tabela de transposição: " + tabela);
+        }
+    }
+}
@@ -4,23 +4,34 @@ import javax.swing.*;
 import java.awt.*;
 import java.io.IOException;
 import damas.core.*;
+import damas.engine.JogadorComputador;
+import damas.engine.ResultadoBusca;
+import damas.abertura.LivroAberturas;
+import damas.finais.TabelaFinais;
+import damas.pdn.EscritorPdn;
 import java.io.*;
 
 public class InterfaceJogo extends JFrame {
+    public static final String ARQUIVO_PARTIDA = "damas_partida.dat";
+    private static final long TEMPO_DICA_MS = 2000;
+
+    // Tabelas de finais entregues ao computador nas partidas criadas por criarJogo
+    private static TabelaFinais finais;
+    private static LivroAberturas livro;
+    private static boolean ponderar;
+    private static String arquivoDiario;
+
     private Jogo jogo;
-    private JButton[][] botoes;
+    private PainelTabuleiro tabuleiro;
     private JLabel infoLabel;
     private Posicao selecionada;
-    
-    // Cores do tabuleiro
-    private final Color COR_CLARA = new Color(240, 217, 181); // Bege claro
-    private final Color COR_ESCURA = new Color(181, 136, 99); // Marrom claro
-    private final Color COR_DESTAQUE = new Color(255, 255, 102); // Amarelo
+    // Buscas (dica e lance do computador) fora da thread do Swing
+    private final ServicoAnalise analise = new ServicoAnalise();
     
     public InterfaceJogo(Jogo jogo) {
         this.jogo = jogo;
-        this.botoes = new JButton[8][8];
         this.selecionada = null;
+        anexarDiario();
         
         setTitle("Jogo de Damas");
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
@@ -31,77 +42,189 @@ public class InterfaceJogo extends JFrame {
         infoLabel.setFont(new Font("Arial", Font.BOLD, 16));
         add(infoLabel, BorderLayout.NORTH);
         
-        // Tabuleiro
-        JPanel tabuleiro = new JPanel(new GridLayout(8, 8));
-        for (int i = 0; i < 8; i++) {
-            for (int j = 0; j < 8; j++) {
-                JButton btn = new JButton();                btn.setPreferredSize(new Dimension(80, 80));
-                btn.setFont(new Font(Font.SANS_SERIF, Font.BOLD, 48));
-                btn.setHorizontalAlignment(SwingConstants.CENTER);
-                
-                // Configuração CRUCIAL para o fundo visível
-                btn.setContentAreaFilled(false);
-                btn.setOpaque(true);
-                btn.setBorderPainted(false);
-                
-                // Define cores alternadas do tabuleiro
-                btn.setBackground((i + j) % 2 == 0 ? COR_CLARA : COR_ESCURA);
-                
-                final int linha = i, coluna = j;
-                btn.addActionListener(e -> aoClicar(linha, coluna));
-                
-                botoes[i][j] = btn;
-                tabuleiro.add(btn);
-            }
-        }
+        // Tabuleiro desenhado em um só componente
+        tabuleiro = new PainelTabuleiro(this::aoClicar);
         add(tabuleiro, BorderLayout.CENTER);
         
-        // Botão de log
+        // Botões de desfazer/refazer e de log
+        JButton btnDesfazer = new JButton("Desfazer");
+        btnDesfazer.addActionListener(e -> desfazer());
+        JButton btnRefazer = new JButton("Refazer");
+        btnRefazer.addActionListener(e -> refazer());
         JButton btnSalvar = new JButton("Salvar Log");
         btnSalvar.addActionListener(e -> salvarLog());
-        add(btnSalvar, BorderLayout.SOUTH);
+        JButton btnSalvarPartida = new JButton("Salvar Partida");
+        btnSalvarPartida.addActionListener(e -> salvarPartida());
+        JButton btnExportar = new JButton("Exportar PDN");
+        btnExportar.addActionListener(e -> exportarPdn());
+        JButton btnRetomar = new JButton("Retomar Partida");
+        btnRetomar.addActionListener(e -> retomarPartida());
+        JButton btnDica = new JButton("Dica");
+        btnDica.addActionListener(e -> pedirDica());
+        JPanel painelBotoes = new JPanel();
+        painelBotoes.add(btnDica);
+        painelBotoes.add(btnDesfazer);
+        painelBotoes.add(btnRefazer);
+        painelBotoes.add(btnSalvar);
+        painelBotoes.add(btnSalvarPartida);
+        painelBotoes.add(btnExportar);
+        painelBotoes.add(btnRetomar);
+        add(painelBotoes, BorderLayout.SOUTH);
         
         pack();
         setLocationRelativeTo(null);
         atualizarInterface();
+        agendarVezComputador();
+    }
+
+    /**
+     * Cria o jogo da configuração; o jogador 2 pode ser o computador
+     */
+    public static Jogo criarJogo(ConfiguracaoJogo config) {
+        if (!config.isJogador2Computador()) {
+            return new Jogo(config);
+        }
+        JogadorComputador computador = new JogadorComputador(config.getNomeJogador2(), config.getCorJogador2());
+        if (finais != null) {
+            computador.setFinais(finais);
+        }
+        if (livro != null) {
+            computador.setLivro(livro);
+        }
+        return new Jogo(new Jogador(config.getNomeJogador1(), config.getCorJogador1()), computador);
     }
 
-    private void limparDestaques() {
-        for (int i = 0; i < 8; i++) {
-            for (int j = 0; j < 8; j++) {
-                JButton btn = botoes[i][j];
-                btn.setBorder(null);
-                btn.setBackground((i + j) % 2 == 0 ? COR_CLARA : COR_ESCURA);
+    public static void setFinais(TabelaFinais tabela) {
+        finais = tabela;
+    }
+
+    public static void setLivro(LivroAberturas aberturas) {
+        livro = aberturas;
+    }
+
+    /**
+     * Se o computador pensa enquanto espera o lance do jogador humano
+     */
+    public static void setPonderar(boolean ativo) {
+        ponderar = ativo;
+    }
+
+    /**
+     * Arquivo do diário (ver DiarioPartida), recriado a cada partida criada ou
+     * retomada pela interface; null desativa
+     */
+    public static void setDiario(String arquivo) {
+        arquivoDiario = arquivo;
+    }
+
+    // Troca a partida exibida, fechando o diário da anterior e abrindo o da nova
+    private void trocarJogo(Jogo novo) {
+        DiarioPartida anterior = jogo.getDiario();
+        if (anterior != null) {
+            jogo.setDiario(null);
+            try {
+                anterior.close();
+            } catch (IOException e) {
+                System.err.println("Erro ao fechar o diário: " + e.getMessage());
             }
         }
+        this.jogo = novo;
+        this.selecionada = null;
+        anexarDiario();
     }
 
-    private void atualizarInterface() {
-        limparDestaques();
-        for (int i = 0; i < 8; i++) {
-            for (int j = 0; j < 8; j++) {
-                try {
-                    Peca peca = jogo.getTabuleiro().getPeca(new Posicao(i, j));
-                    JButton btn = botoes[i][j];
-                    btn.setText("");
-
-                    if (peca != null) {
-                        if (peca instanceof PecaDama) {
-                            btn.setText(peca.getCor() == CorPeca.BRANCA ? "♔" : "♚");
-                        } else {
-                            btn.setText(peca.getCor() == CorPeca.BRANCA ? "⚪" : "⚫");
-                        }
-                        btn.setEnabled(peca.getCor() == jogo.getJogadorAtual().getCor());
-                    } else {
-                        btn.setEnabled(true);
-                    }
-                    btn.setEnabled(true);
-                } catch (Exception e) {
-                    botoes[i][j].setText("");
-                    botoes[i][j].setEnabled(true);
+    private void anexarDiario() {
+        if (arquivoDiario == null) {
+            return;
+        }
+        try {
+            // Um registro por descarga: nenhum lance se perde se o programa for fechado
+            jogo.setDiario(new DiarioPartida(arquivoDiario, jogo.getJogador1(), jogo.getJogador2(), 1, false));
+        } catch (IOException e) {
+            System.err.println("Erro ao abrir o diário: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Se a vez for do computador, busca o lance em segundo plano, sobre uma cópia da
+     * posição, e o aplica aqui quando chegar (se nada tiver mudado nesse meio tempo).
+     * Na vez do jogador humano, o computador adversário pode ponderar.
+     */
+    private void agendarVezComputador() {
+        if (!jogo.isJogoAtivo()) {
+            return;
+        }
+        if (!jogo.getJogadorAtual().isAutomatico()) {
+            Jogador adversario = jogo.getJogadorAtual() == jogo.getJogador1() ? jogo.getJogador2() : jogo.getJogador1();
+            if (ponderar && adversario instanceof JogadorComputador) {
+                analise.ponderar((JogadorComputador) adversario, jogo.getTabuleiro());
+            }
+            return;
+        }
+        infoLabel.setText(jogo.getJogadorAtual().getNome() + " está pensando...");
+        if (!(jogo.getJogadorAtual() instanceof JogadorComputador)) {
+            // Outros jogadores automáticos não buscam; jogam depois do redesenho
+            SwingUtilities.invokeLater(() -> {
+                if (jogo.jogarVezAutomatica()) {
+                    aposLanceAutomatico();
                 }
+            });
+            return;
+        }
+        analise.jogar((JogadorComputador) jogo.getJogadorAtual(), jogo.getTabuleiro(), lance -> {
+            if (jogo.executarMovimento(lance)) {
+                aposLanceAutomatico();
             }
+        });
+    }
+
+    private void aposLanceAutomatico() {
+        atualizarInterface();
+        if (!jogo.isJogoAtivo()) {
+            mostrarFimDeJogo();
+        } else {
+            agendarVezComputador();
+        }
+    }
+
+    /**
+     * Busca o melhor lance para quem tem a vez e o marca no tabuleiro, já selecionado.
+     * A pontuação de cada iteração aparece no rótulo enquanto a busca avança.
+     */
+    private void pedirDica() {
+        if (!jogo.isJogoAtivo() || jogo.getJogadorAtual().isAutomatico()) {
+            return;
         }
+        infoLabel.setText("Analisando...");
+        analise.analisar(jogo.getTabuleiro(), TEMPO_DICA_MS,
+                resultado -> infoLabel.setText("Analisando: " + descreverAnalise(resultado)),
+                resultado -> {
+                    int lance = resultado.getMelhorMovimento();
+                    if (lance == Movimento.NENHUM) {
+                        return;
+                    }
+                    int origem = Movimento.origem(lance);
+                    selecionada = Posicao.of(Tabuleiro.linhaDaCasa(origem), Tabuleiro.colunaDaCasa(origem));
+                    tabuleiro.selecionar(origem, 1 << Movimento.destino(lance));
+                    infoLabel.setText("Dica: " + descreverAnalise(resultado));
+                });
+    }
+
+    private static String descreverAnalise(ResultadoBusca resultado) {
+        if (resultado.getProfundidade() == 0) {
+            return Movimento.toString(resultado.getMelhorMovimento()) + " (lance único)";
+        }
+        return String.format("%s  (pontos %d, prof %d)", Movimento.toString(resultado.getMelhorMovimento()),
+                             resultado.getPontuacao(), resultado.getProfundidade());
+    }
+
+    /**
+     * Mostra a posição atual; o painel só redesenha as casas que mudaram
+     */
+    private void atualizarInterface() {
+        analise.cancelar();   // dica ou lance em andamento seriam da posição anterior
+        tabuleiro.mostrar(jogo.getTabuleiro());
+        tabuleiro.selecionar(-1, 0);
         
         // Atualiza informação do jogador
         infoLabel.setText("Vez de: " + jogo.getJogadorAtual().getNome() + 
@@ -110,40 +233,41 @@ public class InterfaceJogo extends JFrame {
     }
 
     private void aoClicar(int linha, int coluna) {
-        Posicao pos = new Posicao(linha, coluna);
+        Posicao pos = Posicao.of(linha, coluna);
+        analise.cancelarAnalise();   // o clique substitui uma dica ainda em andamento
         
         try {
+            if (jogo.getJogadorAtual().isAutomatico()) {
+                return;
+            }
             if (selecionada == null) {
-                Peca peca = jogo.getTabuleiro().getPeca(pos);
-                if (peca != null && peca.getCor() == jogo.getJogadorAtual().getCor()) {
-                    limparDestaques();
+                int casa = Tabuleiro.indiceCasa(linha, coluna);
+                int minhas = jogo.getTabuleiro().getMascara(jogo.getJogadorAtual().getCor());
+                if (casa >= 0 && (minhas & (1 << casa)) != 0) {
                     selecionada = pos;
-                    JButton btnSel = botoes[linha][coluna];
-                    btnSel.setBorder(BorderFactory.createLineBorder(Color.YELLOW, 2));
-                    btnSel.setBackground(COR_DESTAQUE);
 
                     // Mostra movimentos válidos
-                    for (int i = 0; i < 8; i++) {
-                        for (int j = 0; j < 8; j++) {
-                            Posicao destino = new Posicao(i, j);
-                            if (jogo.getTabuleiro().podeMover(selecionada, destino)) {
-                                botoes[i][j].setBorder(BorderFactory.createLineBorder(Color.GREEN, 2));
-                            }
-                        }
+                    ListaMovimentos movimentos = jogo.getTabuleiro().gerarMovimentosLegais(selecionada);
+                    int destinos = 0;
+                    for (int i = 0; i < movimentos.tamanho(); i++) {
+                        destinos |= 1 << Movimento.destino(movimentos.get(i));
                     }
+                    tabuleiro.selecionar(casa, destinos);
                 } else {
                     infoLabel.setText("ATENÇÃO: selecione uma peça " + jogo.getJogadorAtual().getCor());
                 }
             } else {
                 if (selecionada.equals(pos)) {
-                    // Desseleciona
+                    // Desseleciona (sem atualizarInterface, que cancelaria a ponderação)
                     selecionada = null;
-                    atualizarInterface();
+                    tabuleiro.selecionar(-1, 0);
                 } else if (jogo.executarMovimento(selecionada, pos)) {
                     selecionada = null;
                     atualizarInterface();
                     if (!jogo.isJogoAtivo()) {
                         mostrarFimDeJogo();
+                    } else {
+                        agendarVezComputador();
                     }
                 } else {
                     infoLabel.setText("Movimento inválido! Tente novamente.");
@@ -154,6 +278,39 @@ public class InterfaceJogo extends JFrame {
         }
     }
 
+    /**
+     * Desfaz o último lance; contra o computador, volta até a vez do jogador humano
+     */
+    private void desfazer() {
+        if (!jogo.desfazer()) {
+            infoLabel.setText("Nenhum lance para desfazer");
+            return;
+        }
+        while (jogo.getJogadorAtual().isAutomatico() && jogo.desfazer()) {
+            // desfaz também a resposta do computador
+        }
+        selecionada = null;
+        atualizarInterface();
+        agendarVezComputador();
+    }
+
+    private void refazer() {
+        if (!jogo.refazer()) {
+            infoLabel.setText("Nenhum lance para refazer");
+            return;
+        }
+        while (jogo.getJogadorAtual().isAutomatico() && jogo.refazer()) {
+            // refaz também a resposta do computador
+        }
+        selecionada = null;
+        atualizarInterface();
+        if (!jogo.isJogoAtivo()) {
+            mostrarFimDeJogo();
+        } else {
+            agendarVezComputador();
+        }
+    }
+
     private void salvarLog() {
         try {
             jogo.salvarLogPartida("damas_log.txt");
@@ -163,6 +320,34 @@ public class InterfaceJogo extends JFrame {
         }
     }
 
+    private void salvarPartida() {
+        try {
+            ArquivoJogo.salvarJogo(jogo, ARQUIVO_PARTIDA);
+            infoLabel.setText("Partida salva em " + ARQUIVO_PARTIDA);
+        } catch (IOException e) {
+            infoLabel.setText("Erro ao salvar: " + e.getMessage());
+        }
+    }
+
+    private void exportarPdn() {
+        try {
+            EscritorPdn.escrever(jogo, "damas_partida.pdn");
+            infoLabel.setText("Partida exportada em damas_partida.pdn");
+        } catch (IOException e) {
+            infoLabel.setText("Erro ao exportar: " + e.getMessage());
+        }
+    }
+
+    private void retomarPartida() {
+        try {
+            trocarJogo(ArquivoJogo.carregarJogo(ARQUIVO_PARTIDA, InterfaceJogo::criarJogo));
+            atualizarInterface();
+            agendarVezComputador();
+        } catch (IOException e) {
+            infoLabel.setText("Erro ao carregar: " + e.getMessage());
+        }
+    }
+
     public void iniciar() {
         setVisible(true);
     }
@@ -177,7 +362,7 @@ public class InterfaceJogo extends JFrame {
         dialog.add(lbl, BorderLayout.NORTH);
 
         String stats = String.format("%s\n%s\nTotal de movimentos: %d",
-            jogo.getJogador1(), jogo.getJogador2(), jogo.getHistoricoMovimentos().size());
+            jogo.getJogador1(), jogo.getJogador2(), jogo.getNumeroLances());
         JTextArea area = new JTextArea(stats);
         area.setEditable(false);
         dialog.add(area, BorderLayout.CENTER);
@@ -205,17 +390,15 @@ public class InterfaceJogo extends JFrame {
     private void iniciarNovoJogo() {
         try {
             ConfiguracaoJogo config = carregarConfiguracaoBinaria("jogo_config.dat");
-            this.jogo = new Jogo(config);
-            this.selecionada = null;
+            trocarJogo(criarJogo(config));
             atualizarInterface();
+            agendarVezComputador();
         } catch (Exception ex) {
             JOptionPane.showMessageDialog(this, "Erro ao reiniciar: " + ex.getMessage());
         }
     }
 
-    private static ConfiguracaoJogo carregarConfiguracaoBinaria(String arquivo) throws IOException, ClassNotFoundException {
-        try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(arquivo))) {
-            return (ConfiguracaoJogo) ois.readObject();
-        }
+    private static ConfiguracaoJogo carregarConfiguracaoBinaria(String arquivo) throws IOException {
+        return ArquivoJogo.carregarConfiguracao(arquivo);
     }
 }
@@ -1,19 +1,45 @@
 package damas.ui;
 
 import damas.core.*;
+import damas.abertura.LivroAberturas;
+import damas.finais.TabelaFinais;
 import javax.swing.*;
 import java.awt.*;
 import java.io.*;
+import java.util.Arrays;
 
 public class P2 {
     public static void main(String[] args) {
         try {
+            // Tabelas de finais para o computador (geradas com damas.finais.GeradorFinais)
+            if (Arrays.asList(args).contains("--finais")) {
+                InterfaceJogo.setFinais(TabelaFinais.abrir("finais"));
+            }
+            // Livro de aberturas para o computador (gerado com damas.abertura.ConstrutorLivro)
+            if (Arrays.asList(args).contains("--livro")) {
+                InterfaceJogo.setLivro(LivroAberturas.abrir("damas_livro.dat"));
+            }
+            // Computador pensa durante a vez do jogador humano
+            InterfaceJogo.setPonderar(Arrays.asList(args).contains("--ponderar"));
+            // Diário de cada partida, inclusive das novas e das retomadas
+            if (Arrays.asList(args).contains("--diario")) {
+                InterfaceJogo.setDiario("damas_diario.bin");
+            }
+
+            // Retoma a partida salva pela interface, se pedido
+            if (Arrays.asList(args).contains("--continuar")) {
+                Jogo jogo = ArquivoJogo.carregarJogo(InterfaceJogo.ARQUIVO_PARTIDA, InterfaceJogo::criarJogo);
+                new InterfaceJogo(jogo).iniciar();
+                return;
+            }
+
             ConfiguracaoJogo config = carregarConfiguracaoTexto("config_inicial.txt"); //Carrega configuração base
             mostrarDialogoConfiguracao(config); //Permite edição via interface gráfica
             salvarConfiguracaoTexto(config, "config_inicial.txt"); //Salva configurações atualizadas
+            config.setJogador2Computador(Arrays.asList(args).contains("--computador"));
             salvarConfiguracaoBinaria(config, "jogo_config.dat"); 
             // cria o jogo e inicia a interface
-            Jogo jogo = new Jogo(config);
+            Jogo jogo = InterfaceJogo.criarJogo(config);
             new InterfaceJogo(jogo).iniciar();
         } catch (Exception e) {
             System.err.println("Erro ao iniciar: " + e.getMessage());
@@ -41,9 +67,7 @@ public class P2 {
     }
 
     private static void salvarConfiguracaoBinaria(ConfiguracaoJogo config, String arquivo) throws IOException {
-        try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(arquivo))) {
-            oos.writeObject(config);
-        }
+        ArquivoJogo.salvarConfiguracao(config, arquivo);
     }
 
     private static void mostrarDialogoConfiguracao(ConfiguracaoJogo config) {
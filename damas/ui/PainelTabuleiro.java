@@ -0,0 +1,217 @@
+package damas.ui;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.image.BufferedImage;
+import damas.core.CorPeca;
+import damas.core.Tabuleiro;
+
+/**
+ * Tabuleiro desenhado em um único componente. O fundo e as quatro peças
+ * (simples e dama de cada cor) são pré-desenhados em imagens para o tamanho
+ * atual da casa; cada atualização compara as máscaras com as já exibidas e
+ * pede repaint só das casas que mudaram (lance, seleção ou destinos marcados).
+ */
+public class PainelTabuleiro extends JComponent {
+    private static final long serialVersionUID = 1L;
+
+    private static final int CASAS = 8;
+    private static final int TAMANHO_CASA_PADRAO = 80;
+
+    // Cores do tabuleiro
+    private static final Color COR_CLARA = new Color(240, 217, 181); // Bege claro
+    private static final Color COR_ESCURA = new Color(181, 136, 99); // Marrom claro
+    private static final Color COR_DESTAQUE = new Color(255, 255, 102); // Amarelo
+    private static final Color COR_DESTINO = Color.GREEN;
+
+    /**
+     * Recebe o clique em uma casa (clara ou escura), em coordenadas do tabuleiro
+     */
+    public interface OuvinteCasa {
+        void aoClicar(int linha, int coluna);
+    }
+
+    // Posição exibida (máscaras de 32 casas, ver Tabuleiro)
+    private int brancas;
+    private int pretas;
+    private int damas;
+    private int selecionada = -1;
+    private int destinos;
+
+    // Imagens pré-desenhadas para tamanhoCasa; refeitas quando o componente muda de tamanho
+    private int tamanhoCasa;
+    private BufferedImage fundo;
+    private final BufferedImage[] pecas = new BufferedImage[4];   // ver indicePeca
+
+    public PainelTabuleiro(OuvinteCasa ouvinte) {
+        setPreferredSize(new Dimension(CASAS * TAMANHO_CASA_PADRAO, CASAS * TAMANHO_CASA_PADRAO));
+        setOpaque(true);
+        addMouseListener(new MouseAdapter() {
+            @Override
+            public void mousePressed(MouseEvent e) {
+                int lado = tamanhoCasa > 0 ? tamanhoCasa : TAMANHO_CASA_PADRAO;
+                int linha = e.getY() / lado;
+                int coluna = e.getX() / lado;
+                if (linha < CASAS && coluna < CASAS) {
+                    ouvinte.aoClicar(linha, coluna);
+                }
+            }
+        });
+    }
+
+    /**
+     * Exibe a posição, redesenhando apenas as casas cujo conteúdo mudou
+     */
+    public void mostrar(Tabuleiro tabuleiro) {
+        int novasBrancas = tabuleiro.getMascara(CorPeca.BRANCA);
+        int novasPretas = tabuleiro.getMascara(CorPeca.PRETA);
+        int novasDamas = tabuleiro.getMascaraDamas();
+        int mudadas = (brancas ^ novasBrancas) | (pretas ^ novasPretas) | (damas ^ novasDamas);
+        brancas = novasBrancas;
+        pretas = novasPretas;
+        damas = novasDamas;
+        repintar(mudadas);
+    }
+
+    /**
+     * Marca a casa selecionada (-1 para nenhuma) e as casas de destino possíveis
+     */
+    public void selecionar(int casa, int novosDestinos) {
+        int mudadas = (destinos ^ novosDestinos) | bit(selecionada) | bit(casa);
+        if (casa == selecionada) {
+            mudadas &= ~bit(casa);
+        }
+        selecionada = casa;
+        destinos = novosDestinos;
+        repintar(mudadas);
+    }
+
+    private static int bit(int casa) {
+        return casa < 0 ? 0 : 1 << casa;
+    }
+
+    private void repintar(int casas) {
+        int lado = tamanhoCasa > 0 ? tamanhoCasa : TAMANHO_CASA_PADRAO;
+        while (casas != 0) {
+            int casa = Integer.numberOfTrailingZeros(casas);
+            casas &= casas - 1;
+            repaint(Tabuleiro.colunaDaCasa(casa) * lado, Tabuleiro.linhaDaCasa(casa) * lado, lado, lado);
+        }
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        int lado = Math.max(1, Math.min(getWidth(), getHeight()) / CASAS);
+        if (lado != tamanhoCasa || fundo == null) {
+            prepararImagens(lado);
+        }
+
+        Rectangle area = g.getClipBounds();
+        if (area == null) {
+            area = new Rectangle(0, 0, getWidth(), getHeight());
+        }
+        g.setColor(getParent() != null ? getParent().getBackground() : COR_CLARA);
+        g.fillRect(area.x, area.y, area.width, area.height);
+        g.drawImage(fundo, area.x, area.y, area.x + area.width, area.y + area.height,
+                    area.x, area.y, area.x + area.width, area.y + area.height, null);
+
+        // Só as casas escuras dentro da região a redesenhar
+        int linhaInicial = Math.max(0, area.y / lado);
+        int linhaFinal = Math.min(CASAS - 1, (area.y + area.height - 1) / lado);
+        int colunaInicial = Math.max(0, area.x / lado);
+        int colunaFinal = Math.min(CASAS - 1, (area.x + area.width - 1) / lado);
+        for (int linha = linhaInicial; linha <= linhaFinal; linha++) {
+            for (int coluna = colunaInicial; coluna <= colunaFinal; coluna++) {
+                int casa = Tabuleiro.indiceCasa(linha, coluna);
+                if (casa >= 0) {
+                    desenharCasa(g, casa, coluna * lado, linha * lado, lado);
+                }
+            }
+        }
+    }
+
+    private void desenharCasa(Graphics g, int casa, int x, int y, int lado) {
+        int b = 1 << casa;
+        if (casa == selecionada) {
+            g.setColor(COR_DESTAQUE);
+            g.fillRect(x, y, lado, lado);
+            g.setColor(Color.YELLOW);
+            g.drawRect(x, y, lado - 1, lado - 1);
+            g.drawRect(x + 1, y + 1, lado - 3, lado - 3);
+        } else if ((destinos & b) != 0) {
+            g.setColor(COR_DESTINO);
+            g.drawRect(x, y, lado - 1, lado - 1);
+            g.drawRect(x + 1, y + 1, lado - 3, lado - 3);
+        }
+        if (((brancas | pretas) & b) != 0) {
+            g.drawImage(pecas[indicePeca((pretas & b) != 0, (damas & b) != 0)], x, y, null);
+        }
+    }
+
+    // 0 = simples branca, 1 = dama branca, 2 = simples preta, 3 = dama preta
+    private static int indicePeca(boolean preta, boolean dama) {
+        return (preta ? 2 : 0) + (dama ? 1 : 0);
+    }
+
+    private void prepararImagens(int lado) {
+        tamanhoCasa = lado;
+        fundo = criarImagem(lado * CASAS, lado * CASAS, Transparency.OPAQUE);
+        Graphics2D g = fundo.createGraphics();
+        for (int linha = 0; linha < CASAS; linha++) {
+            for (int coluna = 0; coluna < CASAS; coluna++) {
+                g.setColor((linha + coluna) % 2 == 0 ? COR_CLARA : COR_ESCURA);
+                g.fillRect(coluna * lado, linha * lado, lado, lado);
+            }
+        }
+        g.dispose();
+
+        for (int i = 0; i < pecas.length; i++) {
+            pecas[i] = desenharPeca(lado, i >= 2, (i & 1) != 0);
+        }
+    }
+
+    private BufferedImage criarImagem(int largura, int altura, int transparencia) {
+        GraphicsConfiguration configuracao = getGraphicsConfiguration();
+        if (configuracao != null) {
+            return configuracao.createCompatibleImage(largura, altura, transparencia);
+        }
+        return new BufferedImage(largura, altura, transparencia == Transparency.OPAQUE
+                ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB);
+    }
+
+    private BufferedImage desenharPeca(int lado, boolean preta, boolean dama) {
+        BufferedImage imagem = criarImagem(lado, lado, Transparency.TRANSLUCENT);
+        Graphics2D g = imagem.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+
+        int margem = Math.max(2, lado / 8);
+        int diametro = lado - 2 * margem;
+        Color corpo = preta ? new Color(30, 30, 30) : new Color(250, 250, 245);
+        Color contorno = preta ? new Color(90, 90, 90) : new Color(60, 60, 60);
+        g.setPaint(new GradientPaint(margem, margem, preta ? corpo.brighter() : Color.WHITE,
+                                     margem + diametro, margem + diametro, preta ? corpo : corpo.darker()));
+        g.fillOval(margem, margem, diametro, diametro);
+        g.setColor(contorno);
+        g.setStroke(new BasicStroke(Math.max(1f, lado / 40f)));
+        g.drawOval(margem, margem, diametro, diametro);
+        g.drawOval(margem + diametro / 6, margem + diametro / 6, diametro * 2 / 3, diametro * 2 / 3);
+
+        // Dama: coroa no centro
+        if (dama) {
+            int cx = lado / 2;
+            int cy = lado / 2;
+            int r = diametro / 4;
+            Polygon coroa = new Polygon(
+                    new int[] { cx - r, cx - r, cx - r / 2, cx, cx + r / 2, cx + r, cx + r },
+                    new int[] { cy + r / 2, cy - r / 2, cy, cy - r, cy, cy - r / 2, cy + r / 2 }, 7);
+            g.setColor(new Color(212, 175, 55));
+            g.fillPolygon(coroa);
+            g.setColor(contorno);
+            g.drawPolygon(coroa);
+        }
+        g.dispose();
+        return imagem;
+    }
+}
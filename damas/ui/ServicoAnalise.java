@@ -0,0 +1,195 @@
+package damas.ui;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import javax.swing.SwingUtilities;
+import damas.core.Tabuleiro;
+import damas.engine.Buscador;
+import damas.engine.JogadorComputador;
+import damas.engine.Motor;
+import damas.engine.ResultadoBusca;
+import damas.finais.TabelaFinais;
+
+/**
+ * Buscas da interface fora da thread do Swing: análise/dica da posição e o lance
+ * do computador. Cada pedido busca sobre uma cópia do tabuleiro feita no momento
+ * do pedido, que nenhuma outra thread altera, e entrega o resultado com
+ * SwingUtilities.invokeLater.
+ *
+ * Cada fila (análises e lances) tem um número de geração: um pedido novo ou
+ * cancelar() avança a geração e para as buscas em andamento daquela fila.
+ * Resultados de gerações anteriores são descartados na thread do Swing, antes de
+ * chegar ao consumidor, então nada de uma posição antiga é aplicado à atual.
+ */
+public class ServicoAnalise implements AutoCloseable {
+    public static final int PROFUNDIDADE_ANALISE = 64;
+
+    private final Fila analises;
+    private final Fila lances;
+    // Um motor por thread de análise, registrado em analises.buscadores ao ser criado
+    private final ThreadLocal<Motor> motor = ThreadLocal.withInitial(this::criarMotor);
+    private volatile TabelaFinais finais;
+
+    public ServicoAnalise() {
+        this(Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+    }
+
+    /**
+     * @param threads threads de análise; o lance do computador tem uma thread própria
+     */
+    public ServicoAnalise(int threads) {
+        analises = new Fila("analise", threads);
+        lances = new Fila("lance", 1);   // um jogador não pode buscar em duas threads ao mesmo tempo
+    }
+
+    private Motor criarMotor() {
+        Motor novo = new Motor();
+        analises.buscadores.add(novo);
+        return novo;
+    }
+
+    /**
+     * Analisa a posição por até tempoMs, substituindo a análise anterior. aoProgredir
+     * (pode ser null) recebe cada iteração completa; aoTerminar, o resultado final.
+     * Retorna a geração do pedido (ver isAtual).
+     */
+    public long analisar(Tabuleiro posicao, long tempoMs,
+                         Consumer<ResultadoBusca> aoProgredir, Consumer<ResultadoBusca> aoTerminar) {
+        Tabuleiro copia = new Tabuleiro(posicao);
+        long geracao = analises.avancar();
+        analises.executor.execute(() -> {
+            if (!analises.isAtual(geracao)) {
+                return;   // substituído antes de começar
+            }
+            Motor m = motor.get();
+            m.setFinais(finais);
+            m.setOuvinte(aoProgredir == null ? null : r -> analises.entregar(geracao, () -> aoProgredir.accept(r)));
+            // A geração é consultada também durante a busca: um avancar() entre o isAtual acima
+            // e o início da busca (que desfaz o parar()) ou antes de o motor ser registrado não se perde
+            ResultadoBusca resultado = m.buscar(copia, PROFUNDIDADE_ANALISE, tempoMs, () -> !analises.isAtual(geracao));
+            m.setOuvinte(null);
+            analises.entregar(geracao, () -> aoTerminar.accept(resultado));
+        });
+        return geracao;
+    }
+
+    /**
+     * Escolhe o lance do computador para a posição, substituindo um pedido anterior;
+     * aoEscolher recebe o lance se nenhum cancelarLance() ou novo pedido vier antes
+     */
+    public long jogar(JogadorComputador computador, Tabuleiro posicao, IntConsumer aoEscolher) {
+        Tabuleiro copia = new Tabuleiro(posicao);
+        long geracao = lances.avancar();
+        lances.buscadores.clear();   // só o jogador atual; os anteriores já foram parados
+        lances.buscadores.add(computador.getBuscador());
+        lances.executor.execute(() -> {
+            if (!lances.isAtual(geracao)) {
+                return;
+            }
+            int lance = computador.escolherMovimento(copia, () -> !lances.isAtual(geracao));
+            lances.entregar(geracao, () -> aoEscolher.accept(lance));
+        });
+        return geracao;
+    }
+
+    /**
+     * Deixa o computador pensando no tempo do adversário (ver JogadorComputador.ponderar)
+     * até o próximo pedido da fila de lances ou cancelarLance(). O jogar() seguinte espera
+     * a ponderação parar, então encontra as respostas já buscadas.
+     */
+    public long ponderar(JogadorComputador computador, Tabuleiro posicao) {
+        Tabuleiro copia = new Tabuleiro(posicao);
+        long geracao = lances.avancar();
+        lances.buscadores.clear();
+        lances.buscadores.add(computador.getBuscador());
+        lances.executor.execute(() -> {
+            if (lances.isAtual(geracao)) {
+                computador.ponderar(copia, () -> !lances.isAtual(geracao));
+            }
+        });
+        return geracao;
+    }
+
+    /** Descarta a análise em andamento */
+    public void cancelarAnalise() {
+        analises.avancar();
+    }
+
+    /** Descarta o lance do computador (ou a ponderação) em andamento */
+    public void cancelarLance() {
+        lances.avancar();
+    }
+
+    public void cancelar() {
+        cancelarAnalise();
+        cancelarLance();
+    }
+
+    /** Se o pedido de análise ainda é o mais recente */
+    public boolean isAtual(long geracao) {
+        return analises.isAtual(geracao);
+    }
+
+    /**
+     * Tabelas de finais usadas nas análises (null para não usar)
+     */
+    public void setFinais(TabelaFinais finais) {
+        this.finais = finais;
+    }
+
+    @Override
+    public void close() {
+        cancelar();
+        analises.executor.shutdownNow();
+        lances.executor.shutdownNow();
+    }
+
+    private static final class Fila {
+        final ExecutorService executor;
+        final AtomicLong geracao = new AtomicLong();
+        final Set<Buscador> buscadores = ConcurrentHashMap.newKeySet();
+
+        Fila(String nome, int threads) {
+            AtomicInteger contador = new AtomicInteger();
+            executor = Executors.newFixedThreadPool(threads, tarefa -> {
+                Thread t = new Thread(tarefa, nome + "-" + contador.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+        }
+
+        /**
+         * Nova geração: os resultados das anteriores serão descartados. parar() interrompe na hora
+         * as buscas em andamento; as que ainda vão começar (e desfazem o parar() ao rearmar) param
+         * porque buscam com a condição !isAtual(pedido), consultada durante a busca.
+         */
+        long avancar() {
+            long nova = geracao.incrementAndGet();
+            for (Buscador buscador : buscadores) {
+                buscador.parar();
+            }
+            return nova;
+        }
+
+        boolean isAtual(long pedido) {
+            return geracao.get() == pedido;
+        }
+
+        void entregar(long pedido, Runnable entrega) {
+            if (isAtual(pedido)) {
+                // Verifica de novo na thread do Swing, onde os cancelamentos são feitos
+                SwingUtilities.invokeLater(() -> {
+                    if (isAtual(pedido)) {
+                        entrega.run();
+                    }
+                });
+            }
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package damas.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Confere o gerador de movimentos pelas contagens conhecidas de Perft. Só as
+ * profundidades rasas (até 5) rodam aqui; as demais ficam para Perft --verificar.
+ */
+class PerftTest {
+    private static final int PROFUNDIDADE_MAXIMA = 5;
+
+    @Test
+    void contagensConhecidas() {
+        Perft perft = new Perft(PROFUNDIDADE_MAXIMA);
+        int conferidas = 0;
+        for (Object[] caso : Perft.CONTAGENS_CONHECIDAS) {
+            String posicao = (String) caso[0];
+            int profundidade = (Integer) caso[1];
+            if (profundidade > PROFUNDIDADE_MAXIMA) {
+                continue;
+            }
+            assertEquals((long) (Long) caso[2], perft.contar(Tabuleiro.deTexto(posicao), profundidade),
+                         posicao + " prof " + profundidade);
+            conferidas++;
+        }
+        assertEquals(11, conferidas, "casos rasos das três posições");
+    }
+
+    @Test
+    void dividirSomaOsLancesDaRaiz() {
+        Perft perft = new Perft(3);
+        Tabuleiro inicial = new Tabuleiro();
+        assertEquals(1, perft.dividir(inicial, 0));
+        assertEquals(7, perft.dividir(inicial, 1));
+        assertEquals(379, perft.dividir(inicial, 3));
+        Tabuleiro damas = Tabuleiro.deTexto(Perft.DAMAS);
+        assertEquals(perft.contar(damas, 3), perft.dividir(damas, 3));
+    }
+}